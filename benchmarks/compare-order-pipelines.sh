@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Runs the same order-creation load against the blocking (servlet + JPA) and reactive
+# (WebFlux + R2DBC) order-service at increasing concurrency and prints a comparison.
+#
+# Usage: benchmarks/compare-order-pipelines.sh         (LEVELS="50 200 800" DURATION=60s)
+# Requires: docker compose, jq
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+LEVELS="${LEVELS:-50 200 800}"
+DURATION="${DURATION:-60s}"
+mkdir -p benchmarks/results
+
+run_pipeline() {
+  local pipeline="$1"; shift
+  local compose=(docker compose -f docker-compose.yml "$@" -f benchmarks/docker-compose.bench.yml)
+
+  "${compose[@]}" down -v --remove-orphans >/dev/null 2>&1 || true
+  "${compose[@]}" up -d --build --wait postgres product-service inventory-service order-service
+  for vus in $LEVELS; do
+    "${compose[@]}" run --rm k6 run --quiet --vus "$vus" --duration "$DURATION" \
+        --summary-export "/results/$pipeline-$vus.json" /scripts/order-flow.js
+  done
+  "${compose[@]}" down -v >/dev/null
+}
+
+run_pipeline blocking
+run_pipeline reactive -f docker-compose.reactive.yml
+
+printf '\n%-10s %6s %12s %10s %10s %10s\n' pipeline vus "orders/s" "p50 ms" "p95 ms" "failed %"
+for vus in $LEVELS; do
+  for pipeline in blocking reactive; do
+    jq -r --arg p "$pipeline" --arg vus "$vus" '[$p, $vus,
+        (.metrics.iterations.rate | floor),
+        (.metrics.http_req_duration.med | floor),
+        (.metrics.http_req_duration["p(95)"] | floor),
+        (.metrics.http_req_failed.value * 100 | floor)] | @tsv' "benchmarks/results/$pipeline-$vus.json" |
+      awk '{ printf "%-10s %6s %12s %10s %10s %10s\n", $1, $2, $3, $4, $5, $6 }'
+  done
+done
@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Measures heap allocation and GC activity per request on the product list, stock and order
+# list endpoints, for a baseline git ref and for the working tree. The caches in front of
+# those reads are switched off (docker-compose.read-paths.yml), so every request hits the database.
+#
+# Usage: benchmarks/compare-read-allocations.sh <base-ref>   (REQUESTS=2000 PRODUCTS=500 by default)
+# Requires: docker compose, git, curl, jq
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+BASE_REF="${1:?usage: $0 <base-ref>}"
+REQUESTS="${REQUESTS:-2000}"
+PRODUCTS="${PRODUCTS:-500}"
+ROOT="$PWD"
+BASE_TREE="$(mktemp -d)"
+mkdir -p benchmarks/results
+: > benchmarks/results/read-allocations.txt
+
+cleanup() {
+  git worktree remove --force "$BASE_TREE" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+git worktree add --detach "$BASE_TREE" "$BASE_REF" >/dev/null
+
+measurement() {
+  curl -fsS "http://localhost:$1/actuator/metrics/$2" 2>/dev/null |
+    jq -r --arg s "$3" '[.measurements[] | select(.statistic == $s) | .value][0] // 0' || echo 0
+}
+
+# jvm.gc.memory.allocated only moves when a collection runs, so the warm-up also gets a
+# few young collections out of the way and many requests average out the remainder.
+measure() {
+  local label="$1" endpoint="$2" port="$3" url="$4"
+  curl -fsS --parallel --parallel-max 4 "$url?warmup=[1-200]" > /dev/null
+  local bytes pauses pause_seconds
+  bytes=$(measurement "$port" jvm.gc.memory.allocated COUNT)
+  pauses=$(measurement "$port" jvm.gc.pause COUNT)
+  pause_seconds=$(measurement "$port" jvm.gc.pause TOTAL_TIME)
+  curl -fsS --parallel --parallel-max 4 "$url?run=[1-$REQUESTS]" > /dev/null
+  echo "$label $endpoint" \
+      "$(measurement "$port" jvm.gc.memory.allocated COUNT) $bytes" \
+      "$(measurement "$port" jvm.gc.pause COUNT) $pauses" \
+      "$(measurement "$port" jvm.gc.pause TOTAL_TIME) $pause_seconds" >> benchmarks/results/read-allocations.txt
+}
+
+run_tree() {
+  local label="$1" tree="$2"
+  local compose=(docker compose -f "$tree/docker-compose.yml" -f "$ROOT/benchmarks/docker-compose.read-paths.yml"
+                 -f "$ROOT/benchmarks/docker-compose.bench.yml")
+
+  "${compose[@]}" down -v --remove-orphans >/dev/null 2>&1 || true
+  "${compose[@]}" up -d --build --wait postgres product-service inventory-service order-service
+  # Seeds PRODUCTS products with stock and a few thousand orders
+  "${compose[@]}" run --rm k6 run --quiet -e PRODUCTS="$PRODUCTS" --vus 20 --duration 30s /scripts/order-flow.js
+
+  local product_id
+  product_id=$(curl -fsS http://localhost:8081/api/products | jq -r '.[0].id')
+  measure "$label" products 8081 http://localhost:8081/api/products
+  measure "$label" stock 8082 "http://localhost:8082/api/inventory/stock/$product_id"
+  measure "$label" orders 8083 http://localhost:8083/api/orders
+  "${compose[@]}" down -v >/dev/null
+}
+
+run_tree base "$BASE_TREE"
+run_tree current "$ROOT"
+
+printf '\n%-8s %-9s %14s %14s %16s\n' tree endpoint "KiB/request" "GCs/1k req" "GC ms/1k req"
+awk -v n="$REQUESTS" '{
+  printf "%-8s %-9s %14.1f %14.2f %16.2f\n", $1, $2,
+      ($3 - $4) / 1024 / n, ($5 - $6) * 1000 / n, ($7 - $8) * 1000 * 1000 / n
+}' benchmarks/results/read-allocations.txt
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Starts each service from the default and the fast-startup image and prints time to ready,
+# Spring's own application.ready.time and resident memory side by side (median of RUNS).
+#
+# Usage: benchmarks/compare-startup.sh                 (RUNS=3 by default)
+# Requires: docker compose, curl, jq
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS="${RUNS:-3}"
+SERVICES=(product-service:8081 inventory-service:8082 order-service:8083)
+mkdir -p benchmarks/results
+: > benchmarks/results/startup.txt
+
+now_ms() {
+  date +%s%3N
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR ? v[int((NR + 1) / 2)] : "n/a") }'
+}
+
+run_mode() {
+  local mode="$1"; shift
+  local compose=(docker compose -f docker-compose.yml "$@")
+
+  "${compose[@]}" down -v --remove-orphans >/dev/null 2>&1 || true
+  "${compose[@]}" build product-service inventory-service order-service >/dev/null
+  # Services start one at a time; order-service comes last, so the ones it calls are already up
+  "${compose[@]}" up -d --wait postgres
+
+  for run in $(seq "$RUNS"); do
+    for entry in "${SERVICES[@]}"; do
+      local service="${entry%%:*}" port="${entry##*:}"
+      "${compose[@]}" stop "$service" >/dev/null 2>&1 || true
+      local started
+      started=$(now_ms)
+      "${compose[@]}" up -d --no-deps "$service" >/dev/null
+      until curl -fsS "http://localhost:$port/actuator/health" 2>/dev/null | grep -q '"UP"'; do
+        sleep 0.1
+      done
+      local ready=$(( $(now_ms) - started ))
+      local spring
+      spring=$(curl -fsS "http://localhost:$port/actuator/metrics/application.ready.time" |
+          jq -r '.measurements[0].value * 1000 | floor')
+      local rss
+      rss=$("${compose[@]}" exec -T "$service" awk '/VmRSS/ { print int($2 / 1024) }' /proc/1/status)
+      echo "$mode $service $run $ready $spring $rss" >> benchmarks/results/startup.txt
+    done
+  done
+  "${compose[@]}" down -v >/dev/null
+}
+
+run_mode default
+run_mode fast-startup -f docker-compose.fast-startup.yml
+
+column() {
+  awk -v m="$1" -v s="$2" -v c="$3" '$1 == m && $2 == s { print $c }' benchmarks/results/startup.txt | median
+}
+
+printf '\n%-14s %-18s %14s %14s %10s\n' mode service "ready ms" "spring ms" "RSS MiB"
+for mode in default fast-startup; do
+  for entry in "${SERVICES[@]}"; do
+    service="${entry%%:*}"
+    printf '%-14s %-18s %14s %14s %10s\n' "$mode" "$service" \
+        "$(column "$mode" "$service" 4)" "$(column "$mode" "$service" 5)" "$(column "$mode" "$service" 6)"
+  done
+done
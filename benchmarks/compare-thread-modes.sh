@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Runs the same order-creation load against platform-thread and virtual-thread builds
+# of the stack and prints throughput, latency and JVM thread counts side by side.
+#
+# Usage: benchmarks/compare-thread-modes.sh            (VUS=800 DURATION=60s by default)
+# Requires: docker compose, curl, jq
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+VUS="${VUS:-800}"
+DURATION="${DURATION:-60s}"
+mkdir -p benchmarks/results
+
+metric() {
+  curl -fsS "http://localhost:$1/actuator/metrics/$2" | jq -r '.measurements[0].value' 2>/dev/null || echo "n/a"
+}
+
+run_mode() {
+  local mode="$1"; shift
+  local compose=(docker compose -f docker-compose.yml "$@" -f benchmarks/docker-compose.bench.yml)
+
+  "${compose[@]}" down -v --remove-orphans >/dev/null 2>&1 || true
+  "${compose[@]}" up -d --build --wait postgres product-service inventory-service order-service
+  "${compose[@]}" run --rm k6 run --quiet --vus "$VUS" --duration "$DURATION" \
+      --summary-export "/results/$mode.json" /scripts/order-flow.js
+
+  for port in 8081 8082 8083; do
+    echo "$mode $port $(metric "$port" jvm.threads.peak) $(metric "$port" jvm.threads.virtual.pinned)"
+  done > "benchmarks/results/$mode-threads.txt"
+  "${compose[@]}" down -v >/dev/null
+}
+
+run_mode platform
+run_mode virtual -f docker-compose.virtual-threads.yml
+
+printf '\n%-10s %12s %10s %10s %10s\n' mode "orders/s" "p50 ms" "p95 ms" "failed %"
+for mode in platform virtual; do
+  jq -r --arg mode "$mode" '[$mode,
+      (.metrics.iterations.rate | floor),
+      (.metrics.http_req_duration.med | floor),
+      (.metrics.http_req_duration["p(95)"] | floor),
+      (.metrics.http_req_failed.value * 100 | floor)] | @tsv' "benchmarks/results/$mode.json" |
+    awk '{ printf "%-10s %12s %10s %10s %10s\n", $1, $2, $3, $4, $5 }'
+done
+
+printf '\n%-10s %6s %12s %14s\n' mode port "peak thr" "pinned (n)"
+cat benchmarks/results/platform-threads.txt benchmarks/results/virtual-threads.txt |
+  awk '{ printf "%-10s %6s %12s %14s\n", $1, $2, $3, $4 }'
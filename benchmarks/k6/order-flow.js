@@ -0,0 +1,45 @@
+// Drives POST /api/orders directly against order-service, bypassing Kong. Each VU names itself
+// in X-Consumer-Username as key-auth would, so order-service's limiter sees one consumer per VU.
+// Products and stock are seeded once in setup(); every iteration orders 1-3 of them.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const PRODUCT_URL = __ENV.PRODUCT_URL || 'http://product-service:8081';
+const INVENTORY_URL = __ENV.INVENTORY_URL || 'http://inventory-service:8082';
+const ORDER_URL = __ENV.ORDER_URL || 'http://order-service:8083';
+const PRODUCTS = parseInt(__ENV.PRODUCTS || '20');
+
+const json = { headers: { 'Content-Type': 'application/json' } };
+
+export function setup() {
+    const run = Date.now();
+    const productIds = [];
+    for (let i = 0; i < PRODUCTS; i++) {
+        const product = http.post(`${PRODUCT_URL}/api/products`, JSON.stringify({
+            name: `bench-${run}-${i}`,
+            description: 'benchmark product',
+            price: 10 + i,
+            category: 'Benchmark',
+        }), json);
+        const id = product.json('id');
+        http.post(`${INVENTORY_URL}/api/inventory/stock`,
+            JSON.stringify({ productId: id, quantity: 10000000 }), json);
+        productIds.push(id);
+    }
+    return { productIds };
+}
+
+export default function (data) {
+    const lines = 1 + Math.floor(Math.random() * 3);
+    const items = [];
+    for (let i = 0; i < lines; i++) {
+        const productId = data.productIds[Math.floor(Math.random() * data.productIds.length)];
+        if (!items.some((item) => item.productId === productId)) {
+            items.push({ productId, quantity: 1 });
+        }
+    }
+    const res = http.post(`${ORDER_URL}/api/orders`,
+        JSON.stringify({ customerName: `vu-${__VU}`, items }),
+        { headers: { ...json.headers, 'X-Consumer-Username': `k6-vu-${__VU}` } });
+    check(res, { 'order created': (r) => r.status === 201 });
+}
@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+# Runs the JMH micro-benchmarks of a service (src/jmh/java) with the GC profiler.
+#
+# Usage: benchmarks/run-jmh.sh order-service [include-regex]
+#   e.g. benchmarks/run-jmh.sh order-service InternalEncodingBenchmark
+# Requires: JDK 17+, Maven
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+SERVICE="${1:?usage: $0 <service> [include-regex]}"
+INCLUDE="${2:-.*Benchmark.*}"
+
+mvn -B -f "services/$SERVICE/pom.xml" -P benchmarks test-compile exec:exec -Djmh.include="$INCLUDE"
@@ -0,0 +1,46 @@
+package com.lab.inventory.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lab.inventory.monitoring.PoolPressureMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Sheds load at the edge when the primary connection pool saturates; see
+ * {@link AdmissionControlFilter}. The pool is looked up by its Hikari pool name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public PoolPressureMonitor poolPressureMonitor(MeterRegistry meterRegistry,
+                                                   @Value("${admission.pool:primary}") String pool,
+                                                   @Value("${admission.sample-interval:250ms}") Duration sampleInterval) {
+        return new PoolPressureMonitor(meterRegistry, pool, sampleInterval);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            PoolPressureMonitor poolPressureMonitor,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${admission.max-acquire-wait:100ms}") Duration maxAcquireWait,
+            @Value("${admission.write-pressure-limit:1.5}") double writePressureLimit,
+            @Value("${admission.read-pressure-limit:3.0}") double readPressureLimit,
+            @Value("${admission.max-retry-after:30s}") Duration maxRetryAfter) {
+        AdmissionControlFilter filter = new AdmissionControlFilter(poolPressureMonitor, objectMapper, meterRegistry,
+                maxAcquireWait, writePressureLimit, readPressureLimit, maxRetryAfter);
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        // After the observation filter, so rejections still show up in http.server.requests
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
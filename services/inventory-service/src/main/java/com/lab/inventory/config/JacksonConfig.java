@@ -0,0 +1,34 @@
+package com.lab.inventory.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tunes the auto-configured ObjectMapper used for request and response bodies. Blackbird
+ * replaces reflective accessor calls with generated lambdas, and read/write buffers come
+ * from a shared pool rather than a ThreadLocal, so they are reused on virtual threads too.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer pooledBuffers() {
+        return builder -> builder.factory(jsonFactory());
+    }
+
+    public static JsonFactory jsonFactory() {
+        return JsonFactory.builder()
+                .recyclerPool(JsonRecyclerPools.sharedConcurrentDequePool())
+                .build();
+    }
+}
@@ -4,9 +4,11 @@ import com.lab.inventory.dto.AddStockRequest;
 import com.lab.inventory.dto.ReservationResponse;
 import com.lab.inventory.dto.ReserveStockRequest;
 import com.lab.inventory.dto.StockItemResponse;
+import com.lab.inventory.dto.StockLevelResponse;
 import com.lab.inventory.model.Reservation;
 import com.lab.inventory.model.StockItem;
 import com.lab.inventory.service.InventoryService;
+import com.lab.inventory.service.StockStreamBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,9 +18,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -27,9 +32,11 @@ import java.util.UUID;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final StockStreamBroadcaster stockStreamBroadcaster;
 
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService, StockStreamBroadcaster stockStreamBroadcaster) {
         this.inventoryService = inventoryService;
+        this.stockStreamBroadcaster = stockStreamBroadcaster;
     }
 
     @PostMapping("/stock")
@@ -51,11 +58,14 @@ public class InventoryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(StockItemResponse.from(stockItem));
     }
 
-    @PostMapping("/reservations")
+    @PostMapping(value = "/reservations", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     @Operation(summary = "Reserve stock", description = "Reserves inventory stock for a product")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Stock reserved successfully",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReservationResponse.class))),
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = ReservationResponse.class)),
+                            @Content(mediaType = "application/cbor", schema = @Schema(implementation = ReservationResponse.class))
+                    }),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
             @ApiResponse(responseCode = "409", description = "Insufficient stock available"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
@@ -64,14 +74,17 @@ public class InventoryController {
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Stock reservation request",
                     required = true,
-                    content = @Content(schema = @Schema(implementation = ReserveStockRequest.class))
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = ReserveStockRequest.class)),
+                            @Content(mediaType = "application/cbor", schema = @Schema(implementation = ReserveStockRequest.class))
+                    }
             )
             @Valid @RequestBody ReserveStockRequest request) {
         Reservation reservation = inventoryService.reserveStock(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(ReservationResponse.from(reservation));
     }
 
-    @DeleteMapping("/reservations/{id}")
+    @DeleteMapping(value = "/reservations/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     @Operation(summary = "Cancel reservation", description = "Cancels an existing stock reservation")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Reservation cancelled successfully",
@@ -99,7 +112,21 @@ public class InventoryController {
             @PathVariable
             @Parameter(description = "Product ID", example = "550e8400-e29b-41d4-a716-446655440000")
             UUID productId) {
-        StockItem stockItem = inventoryService.getStockForProduct(productId);
-        return ResponseEntity.ok(StockItemResponse.from(stockItem));
+        return ResponseEntity.ok(inventoryService.getStockForProduct(productId));
+    }
+
+    @GetMapping(value = "/stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream stock levels",
+            description = "Server-sent events named 'stock' carrying the latest level of each product whose stock "
+                    + "changed, coalesced over a short window. Only changes after subscribing are sent.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened",
+                    content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = StockLevelResponse.class)))
+    })
+    public SseEmitter streamStock(
+            @RequestParam(required = false)
+            @Parameter(description = "Product IDs to follow; all products when omitted")
+            List<UUID> productId) {
+        return stockStreamBroadcaster.subscribe(productId == null ? List.of() : productId);
     }
 }
@@ -0,0 +1,80 @@
+package com.lab.inventory.controller;
+
+import com.lab.inventory.dto.GrantLeaseRequest;
+import com.lab.inventory.dto.LeaseResponse;
+import com.lab.inventory.dto.SettleLeaseRequest;
+import com.lab.inventory.service.StockLeaseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+// Service-to-service only: the gateway routes /api/inventory, never /internal
+@RequestMapping("/internal/inventory/leases")
+@Tag(name = "Stock leases", description = "Blocks of stock held by order-service instances for hot products")
+public class StockLeaseController {
+
+    private final StockLeaseService leaseService;
+
+    public StockLeaseController(StockLeaseService leaseService) {
+        this.leaseService = leaseService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Grant a lease", description = "Reserves up to the requested units for one order-service instance")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Lease granted, possibly for fewer units",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LeaseResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+            @ApiResponse(responseCode = "404", description = "Stock not found for product"),
+            @ApiResponse(responseCode = "409", description = "No stock available")
+    })
+    public ResponseEntity<LeaseResponse> grantLease(@Valid @RequestBody GrantLeaseRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(LeaseResponse.from(leaseService.grantLease(request)));
+    }
+
+    @PostMapping("/{id}/settlement")
+    @Operation(summary = "Settle a lease",
+            description = "Turns the units used by the listed orders into reservations and releases the rest")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lease settled (or already was)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LeaseResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Lease not found"),
+            @ApiResponse(responseCode = "422", description = "More units reported than the lease held")
+    })
+    public ResponseEntity<LeaseResponse> settleLease(
+            @PathVariable
+            @Parameter(description = "Lease ID", example = "550e8400-e29b-41d4-a716-446655440000")
+            UUID id,
+            @Valid @RequestBody SettleLeaseRequest request) {
+        return ResponseEntity.ok(LeaseResponse.from(leaseService.settleLease(id, request)));
+    }
+
+    @GetMapping
+    @Operation(summary = "List unsettled leases", description = "Active leases that expired before the given time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Up to 100 leases, oldest first",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = LeaseResponse.class))))
+    })
+    public List<LeaseResponse> findUnsettled(
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Only leases that expired before this instant", example = "2026-01-01T12:00:00Z")
+            Instant expiredBefore) {
+        return leaseService.findUnsettled(expiredBefore).stream().map(LeaseResponse::from).toList();
+    }
+}
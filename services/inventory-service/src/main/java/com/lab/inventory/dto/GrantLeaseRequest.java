@@ -0,0 +1,26 @@
+package com.lab.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.util.UUID;
+
+@Schema(description = "Request for a block of stock held for one order-service instance")
+public record GrantLeaseRequest(
+        @Schema(description = "Product unique identifier", example = "550e8400-e29b-41d4-a716-446655440000")
+        @NotNull(message = "Product ID is required")
+        UUID productId,
+
+        @Schema(description = "Instance the lease is held by", example = "order-service-7f9c")
+        @NotBlank(message = "Holder is required")
+        String holder,
+
+        @Schema(description = "Units wanted; fewer may be granted", example = "50")
+        @Positive(message = "Quantity must be positive")
+        int quantity,
+
+        @Schema(description = "Lease duration in seconds; capped by the server", example = "30")
+        @Positive(message = "TTL must be positive")
+        int ttlSeconds
+) {}
@@ -0,0 +1,17 @@
+package com.lab.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.util.UUID;
+
+@Schema(description = "Units of a lease used by one confirmed order")
+public record LeaseConsumption(
+        @Schema(description = "Order unique identifier", example = "770e8400-e29b-41d4-a716-446655440000")
+        @NotNull(message = "Order ID is required")
+        UUID orderId,
+
+        @Schema(description = "Units used", example = "2")
+        @Positive(message = "Quantity must be positive")
+        int quantity
+) {}
@@ -0,0 +1,47 @@
+package com.lab.inventory.dto;
+
+import com.lab.inventory.model.LeaseStatus;
+import com.lab.inventory.model.StockLease;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Stock lease held by an order-service instance")
+public record LeaseResponse(
+        @Schema(description = "Lease unique identifier", example = "550e8400-e29b-41d4-a716-446655440000")
+        UUID id,
+
+        @Schema(description = "Product unique identifier", example = "660e8400-e29b-41d4-a716-446655440000")
+        UUID productId,
+
+        @Schema(description = "Instance the lease is held by", example = "order-service-7f9c")
+        String holder,
+
+        @Schema(description = "Units granted", example = "50")
+        int quantity,
+
+        @Schema(description = "Units used by orders, once settled", example = "42")
+        Integer consumed,
+
+        @Schema(description = "Lease status", example = "ACTIVE")
+        LeaseStatus status,
+
+        @Schema(description = "Grant timestamp")
+        Instant createdAt,
+
+        @Schema(description = "Time after which the holder stops using the lease and settles it")
+        Instant expiresAt
+) {
+    public static LeaseResponse from(StockLease lease) {
+        return new LeaseResponse(
+                lease.getId(),
+                lease.getProductId(),
+                lease.getHolder(),
+                lease.getQuantity(),
+                lease.getConsumed(),
+                lease.getStatus(),
+                lease.getCreatedAt(),
+                lease.getExpiresAt()
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package com.lab.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+@Schema(description = "Final account of a lease; units not listed are returned to stock")
+public record SettleLeaseRequest(
+        @Schema(description = "Confirmed orders that used the lease")
+        @NotNull(message = "Consumed list is required")
+        List<@Valid LeaseConsumption> consumed
+) {}
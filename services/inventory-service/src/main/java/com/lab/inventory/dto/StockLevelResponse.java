@@ -0,0 +1,38 @@
+package com.lab.inventory.dto;
+
+import com.lab.inventory.model.StockItem;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Stock level of a product, as pushed on the stock stream")
+public record StockLevelResponse(
+        @Schema(description = "Product unique identifier", example = "660e8400-e29b-41d4-a716-446655440000")
+        UUID productId,
+
+        @Schema(description = "Quantity of stock available", example = "150")
+        int quantityAvailable,
+
+        @Schema(description = "Quantity of stock reserved for orders", example = "25")
+        int quantityReserved,
+
+        @Schema(description = "Stock item version; higher versions supersede lower ones", example = "42")
+        long version,
+
+        @Schema(description = "Last update timestamp")
+        Instant lastUpdated
+) {
+    public static StockLevelResponse from(StockItem stockItem) {
+        return new StockLevelResponse(
+                stockItem.getProductId(),
+                stockItem.getQuantityAvailable(),
+                stockItem.getQuantityReserved(),
+                stockItem.getVersion() == null ? 0 : stockItem.getVersion(),
+                stockItem.getLastUpdated()
+        );
+    }
+
+    public static StockLevelResponse newer(StockLevelResponse a, StockLevelResponse b) {
+        return b.version() >= a.version() ? b : a;
+    }
+}
@@ -0,0 +1,10 @@
+package com.lab.inventory.exception;
+
+import java.util.UUID;
+
+public class InvalidLeaseSettlementException extends RuntimeException {
+
+    public InvalidLeaseSettlementException(UUID leaseId, int leased, int consumed) {
+        super("Lease " + leaseId + " held " + leased + " units but " + consumed + " were reported consumed");
+    }
+}
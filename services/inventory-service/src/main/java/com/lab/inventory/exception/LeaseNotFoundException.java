@@ -0,0 +1,10 @@
+package com.lab.inventory.exception;
+
+import java.util.UUID;
+
+public class LeaseNotFoundException extends RuntimeException {
+
+    public LeaseNotFoundException(UUID leaseId) {
+        super("Stock lease not found with id: " + leaseId);
+    }
+}
@@ -0,0 +1,6 @@
+package com.lab.inventory.model;
+
+public enum LeaseStatus {
+    ACTIVE,
+    SETTLED
+}
@@ -0,0 +1,7 @@
+package com.lab.inventory.model;
+
+public enum MovementType {
+    RECEIVE,
+    RESERVE,
+    RELEASE
+}
@@ -34,6 +34,19 @@ public class StockItem {
         this.quantityAvailable = quantityAvailable;
     }
 
+    /**
+     * A ledger balance or projected row shaped as a stock item, for responses and events. Not managed; never saved.
+     */
+    public static StockItem ofBalance(UUID id, UUID productId, int quantityAvailable, int quantityReserved,
+                                      long version, Instant lastUpdated) {
+        StockItem balance = new StockItem(productId, quantityAvailable);
+        balance.id = id;
+        balance.quantityReserved = quantityReserved;
+        balance.version = version;
+        balance.lastUpdated = lastUpdated;
+        return balance;
+    }
+
     public void reserveStock(int quantity) {
         if (quantity > quantityAvailable) {
             throw new IllegalArgumentException(
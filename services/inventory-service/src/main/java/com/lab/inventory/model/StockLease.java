@@ -0,0 +1,70 @@
+package com.lab.inventory.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "stock_leases")
+public class StockLease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "stock_item_id", nullable = false)
+    private UUID stockItemId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(nullable = false)
+    private String holder;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    private Integer consumed;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LeaseStatus status;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "settled_at")
+    private Instant settledAt;
+
+    protected StockLease() {}
+
+    public StockLease(UUID stockItemId, UUID productId, String holder, int quantity, Instant createdAt, Instant expiresAt) {
+        this.stockItemId = stockItemId;
+        this.productId = productId;
+        this.holder = holder;
+        this.quantity = quantity;
+        this.status = LeaseStatus.ACTIVE;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public void settle(int consumed) {
+        this.consumed = consumed;
+        this.status = LeaseStatus.SETTLED;
+        this.settledAt = Instant.now();
+    }
+
+    public UUID getId() { return id; }
+    public UUID getStockItemId() { return stockItemId; }
+    public UUID getProductId() { return productId; }
+    public String getHolder() { return holder; }
+    public int getQuantity() { return quantity; }
+    public Integer getConsumed() { return consumed; }
+    public LeaseStatus getStatus() { return status; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public Instant getSettledAt() { return settledAt; }
+}
@@ -0,0 +1,217 @@
+package com.lab.inventory.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Finds the products with the most reservation traffic without keeping a counter per product.
+ * A count-min sketch estimates every product's recent operations in fixed memory, and only the
+ * {@code top-k} highest estimates are tracked individually, with a breakdown by outcome. All
+ * counts are halved every {@code decay-interval}, so a product that turns hot during a sale
+ * climbs the ranking within seconds and drops out again once it cools down.
+ */
+@Component
+public class HotProductTracker {
+
+    public enum Outcome { RESERVED, CANCELLED, INSUFFICIENT, CONFLICT }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final boolean enabled;
+    private final int topK;
+    private final int width;
+    private final long decayIntervalNanos;
+    private final AtomicLongArray[] sketch;
+    private final Map<UUID, Tracked> top = new ConcurrentHashMap<>();
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+    private final AtomicLong nextDecay;
+
+    // Smallest tracked estimate; a product must beat it to enter the top K
+    private volatile long admissionFloor;
+
+    public HotProductTracker(MeterRegistry meterRegistry,
+                             @Value("${inventory.hot-products.enabled:true}") boolean enabled,
+                             @Value("${inventory.hot-products.top-k:10}") int topK,
+                             @Value("${inventory.hot-products.sketch-width:2048}") int width,
+                             @Value("${inventory.hot-products.sketch-depth:4}") int depth,
+                             @Value("${inventory.hot-products.decay-interval:10s}") Duration decayInterval) {
+        this.enabled = enabled;
+        this.topK = topK;
+        this.width = width;
+        this.decayIntervalNanos = decayInterval.toNanos();
+        this.sketch = new AtomicLongArray[depth];
+        for (int row = 0; row < depth; row++) {
+            sketch[row] = new AtomicLongArray(width);
+        }
+        this.nextDecay = new AtomicLong(System.nanoTime() + decayIntervalNanos);
+        for (Outcome outcome : OUTCOMES) {
+            outcomes.put(outcome, Counter.builder("inventory.reservation.outcomes")
+                    .description("Reservation and cancellation outcomes across all products")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        // Tagged by rank, not product, so the number of series stays fixed
+        for (int rank = 1; rank <= topK; rank++) {
+            int index = rank - 1;
+            Gauge.builder("inventory.hot.products.operations", this, tracker -> tracker.valueAt(index, null))
+                    .description("Recent operations on the product at this rank; see /actuator/hotproducts")
+                    .tag("rank", Integer.toString(rank))
+                    .register(meterRegistry);
+            Gauge.builder("inventory.hot.products.conflicts", this, tracker -> tracker.valueAt(index, Outcome.CONFLICT))
+                    .description("Recent lock conflicts on the product at this rank")
+                    .tag("rank", Integer.toString(rank))
+                    .register(meterRegistry);
+        }
+    }
+
+    public void record(UUID productId, Outcome outcome) {
+        record(productId, outcome, System.nanoTime());
+    }
+
+    void record(UUID productId, Outcome outcome, long now) {
+        if (!enabled) {
+            return;
+        }
+        outcomes.get(outcome).increment();
+        decayIfDue(now);
+
+        long estimate = increment(productId);
+        Tracked tracked = top.get(productId);
+        if (tracked == null && (top.size() < topK || estimate > admissionFloor)) {
+            tracked = admit(productId, estimate);
+        }
+        if (tracked != null) {
+            tracked.operations.accumulateAndGet(estimate, Math::max);
+            tracked.outcomes.incrementAndGet(outcome.ordinal());
+        }
+    }
+
+    /**
+     * The tracked products, hottest first.
+     */
+    public List<HotProduct> hottest() {
+        return top.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingLong(HotProduct::operations).reversed())
+                .toList();
+    }
+
+    private long increment(UUID productId) {
+        long h1 = mix(productId.getMostSignificantBits() ^ Long.rotateLeft(productId.getLeastSignificantBits(), 32));
+        long h2 = mix(h1) | 1;
+        int[] slots = new int[sketch.length];
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < sketch.length; row++) {
+            slots[row] = (int) Long.remainderUnsigned(h1 + row * h2, width);
+            min = Math.min(min, sketch[row].get(slots[row]));
+        }
+        // Conservative update: only raise the cells that hold the current minimum
+        long estimate = min + 1;
+        for (int row = 0; row < sketch.length; row++) {
+            sketch[row].accumulateAndGet(slots[row], estimate, Math::max);
+        }
+        return estimate;
+    }
+
+    private synchronized Tracked admit(UUID productId, long estimate) {
+        Tracked existing = top.get(productId);
+        if (existing != null) {
+            return existing;
+        }
+        if (top.size() >= topK) {
+            Map.Entry<UUID, Tracked> coldest = coldest();
+            if (coldest == null || coldest.getValue().operations.get() >= estimate) {
+                return null;
+            }
+            top.remove(coldest.getKey());
+        }
+        Tracked tracked = new Tracked(estimate);
+        top.put(productId, tracked);
+        refreshFloor();
+        return tracked;
+    }
+
+    private void decayIfDue(long now) {
+        long due = nextDecay.get();
+        if (now - due < 0 || !nextDecay.compareAndSet(due, now + decayIntervalNanos)) {
+            return;
+        }
+        for (AtomicLongArray row : sketch) {
+            for (int slot = 0; slot < width; slot++) {
+                row.getAndUpdate(slot, count -> count >> 1);
+            }
+        }
+        synchronized (this) {
+            top.values().removeIf(Tracked::halve);
+            refreshFloor();
+        }
+    }
+
+    private Map.Entry<UUID, Tracked> coldest() {
+        return top.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().operations.get()))
+                .orElse(null);
+    }
+
+    private void refreshFloor() {
+        Map.Entry<UUID, Tracked> coldest = top.size() < topK ? null : coldest();
+        admissionFloor = coldest == null ? 0 : coldest.getValue().operations.get();
+    }
+
+    private double valueAt(int index, Outcome outcome) {
+        List<HotProduct> hottest = hottest();
+        if (index >= hottest.size()) {
+            return 0;
+        }
+        HotProduct product = hottest.get(index);
+        return outcome == null ? product.operations() : product.outcomes().get(outcome);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    public record HotProduct(UUID productId, long operations, Map<Outcome, Long> outcomes) {}
+
+    private static final class Tracked {
+
+        private final AtomicLong operations;
+        private final AtomicLongArray outcomes = new AtomicLongArray(OUTCOMES.length);
+
+        Tracked(long operations) {
+            this.operations = new AtomicLong(operations);
+        }
+
+        /** Halves every count; true once nothing is left. */
+        boolean halve() {
+            long remaining = operations.updateAndGet(count -> count >> 1);
+            for (int i = 0; i < OUTCOMES.length; i++) {
+                outcomes.getAndUpdate(i, count -> count >> 1);
+            }
+            return remaining == 0;
+        }
+
+        HotProduct snapshot(UUID productId) {
+            Map<Outcome, Long> counts = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : OUTCOMES) {
+                counts.put(outcome, outcomes.get(outcome.ordinal()));
+            }
+            return new HotProduct(productId, operations.get(), counts);
+        }
+    }
+}
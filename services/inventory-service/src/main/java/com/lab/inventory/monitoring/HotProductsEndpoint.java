@@ -0,0 +1,28 @@
+package com.lab.inventory.monitoring;
+
+import com.lab.inventory.monitoring.HotProductTracker.HotProduct;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/hotproducts}: the products with the most recent reservation traffic,
+ * hottest first, with how many of their operations ended in each outcome.
+ */
+@Component
+@Endpoint(id = "hotproducts")
+public class HotProductsEndpoint {
+
+    private final HotProductTracker tracker;
+
+    public HotProductsEndpoint(HotProductTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public List<HotProduct> hotProducts() {
+        return tracker.hottest();
+    }
+}
@@ -0,0 +1,27 @@
+package com.lab.inventory.monitoring;
+
+import com.lab.inventory.monitoring.QueryRecorder.SlowQuery;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/slowqueries}: the most recent statements slower than
+ * {@code monitoring.queries.slow-threshold}, newest first, with the repository method that ran
+ * them and the shapes of their bind parameters.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private final QueryRecorder recorder;
+
+    public SlowQueriesEndpoint(QueryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public List<SlowQuery> slowQueries() {
+        return recorder.slowQueries();
+    }
+}
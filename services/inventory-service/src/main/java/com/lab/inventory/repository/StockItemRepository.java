@@ -2,6 +2,7 @@ package com.lab.inventory.repository;
 
 import com.lab.inventory.model.StockItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -11,4 +12,12 @@ public interface StockItemRepository extends JpaRepository<StockItem, UUID> {
     Optional<StockItem> findByProductId(UUID productId);
 
     boolean existsByProductId(UUID productId);
+
+    @Query("""
+            SELECT new com.lab.inventory.repository.StockLevel(i.id, i.productId, i.quantityAvailable,
+                                                               i.quantityReserved, COALESCE(i.version, 0L), i.lastUpdated)
+            FROM StockItem i
+            WHERE i.productId = :productId
+            """)
+    Optional<StockLevel> findLevelByProductId(UUID productId);
 }
@@ -0,0 +1,23 @@
+package com.lab.inventory.repository;
+
+import com.lab.inventory.model.LeaseStatus;
+import com.lab.inventory.model.StockLease;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StockLeaseRepository extends JpaRepository<StockLease, UUID> {
+
+    // Owner and orphan sweeps may settle the same lease at once
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM StockLease l WHERE l.id = :id")
+    Optional<StockLease> findForUpdate(UUID id);
+
+    List<StockLease> findTop100ByStatusAndExpiresAtBeforeOrderByExpiresAtAsc(LeaseStatus status, Instant before);
+}
@@ -0,0 +1,17 @@
+package com.lab.inventory.repository;
+
+import com.lab.inventory.model.StockItem;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The columns of a stock item row, read without loading the entity into the persistence context.
+ */
+public record StockLevel(UUID id, UUID productId, int quantityAvailable, int quantityReserved, long version,
+                         Instant lastUpdated) {
+
+    public StockItem toStockItem() {
+        return StockItem.ofBalance(id, productId, quantityAvailable, quantityReserved, version, lastUpdated);
+    }
+}
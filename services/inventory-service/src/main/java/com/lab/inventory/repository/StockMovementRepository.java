@@ -0,0 +1,133 @@
+package com.lab.inventory.repository;
+
+import com.lab.inventory.model.MovementType;
+import com.lab.inventory.model.StockItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to the append-only stock ledger. Balances are the latest snapshot (or the
+ * {@code stock_items} counters before the first one) plus the movements recorded after it.
+ * <p>
+ * Writers for one stock item serialize on a transaction-scoped advisory lock rather than a row
+ * lock, so nothing is ever updated in place. Holding it until commit also means that once the
+ * compactor has the lock, no movement for that item is still in flight.
+ */
+@Repository
+public class StockMovementRepository {
+
+    private static final String BALANCE = """
+            SELECT i.id, i.product_id,
+                   COALESCE(s.quantity_available, i.quantity_available) + COALESCE(SUM(m.available_delta), 0) AS available,
+                   COALESCE(s.quantity_reserved, i.quantity_reserved) + COALESCE(SUM(m.reserved_delta), 0) AS reserved,
+                   COALESCE(MAX(m.id), s.last_movement_id, 0) AS last_movement_id,
+                   COALESCE(MAX(m.created_at), s.last_movement_at, i.last_updated) AS last_movement_at
+            FROM stock_items i
+            LEFT JOIN stock_snapshots s ON s.stock_item_id = i.id
+            LEFT JOIN stock_movements m ON m.stock_item_id = i.id AND m.id > COALESCE(s.last_movement_id, 0)
+            WHERE %s = ?
+            GROUP BY i.id, s.stock_item_id
+            """;
+
+    private static final String APPEND = """
+            INSERT INTO stock_movements (stock_item_id, movement_type, available_delta, reserved_delta, order_id)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (stock_item_id, order_id, movement_type) WHERE order_id IS NOT NULL DO NOTHING
+            """;
+
+    private static final String SNAPSHOT = """
+            INSERT INTO stock_snapshots (stock_item_id, quantity_available, quantity_reserved,
+                                         last_movement_id, last_movement_at, taken_at)
+            SELECT b.id, b.available, b.reserved, b.last_movement_id, b.last_movement_at, now()
+            FROM (%s) b
+            ON CONFLICT (stock_item_id) DO UPDATE
+            SET quantity_available = EXCLUDED.quantity_available,
+                quantity_reserved = EXCLUDED.quantity_reserved,
+                last_movement_id = EXCLUDED.last_movement_id,
+                last_movement_at = EXCLUDED.last_movement_at,
+                taken_at = EXCLUDED.taken_at
+            """.formatted(BALANCE.formatted("i.id"));
+
+    private static final RowMapper<StockItem> BALANCE_MAPPER = (rs, rowNum) -> {
+        Timestamp lastMovementAt = rs.getTimestamp("last_movement_at");
+        return StockItem.ofBalance(
+                rs.getObject("id", UUID.class),
+                rs.getObject("product_id", UUID.class),
+                rs.getInt("available"),
+                rs.getInt("reserved"),
+                rs.getLong("last_movement_id"),
+                lastMovementAt == null ? null : lastMovementAt.toInstant());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockMovementRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Blocks until no other transaction is writing movements for the item. Released at commit.
+     */
+    public void lockItem(UUID stockItemId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtextextended(?::text, 0))",
+                (RowCallbackHandler) rs -> { }, stockItemId);
+    }
+
+    public Optional<StockItem> findBalance(UUID stockItemId) {
+        return jdbcTemplate.query(BALANCE.formatted("i.id"), BALANCE_MAPPER, stockItemId).stream().findFirst();
+    }
+
+    public Optional<StockItem> findBalanceByProductId(UUID productId) {
+        return jdbcTemplate.query(BALANCE.formatted("i.product_id"), BALANCE_MAPPER, productId).stream().findFirst();
+    }
+
+    /**
+     * Records a movement. Returns false if the order already has a movement of this type for the item.
+     */
+    public boolean append(UUID stockItemId, MovementType type, int availableDelta, int reservedDelta, UUID orderId) {
+        return jdbcTemplate.update(APPEND, stockItemId, type.name(), availableDelta, reservedDelta, orderId) > 0;
+    }
+
+    /**
+     * Rolls the item's snapshot forward to its latest movement. Call while holding {@link #lockItem}.
+     */
+    public void snapshot(UUID stockItemId) {
+        jdbcTemplate.update(SNAPSHOT, stockItemId);
+    }
+
+    public long maxMovementId() {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM stock_movements", Long.class);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * Movement id up to which every moved item has been snapshotted, as recorded by {@link #markCompacted}.
+     */
+    public long compactedUpTo() {
+        Long upTo = jdbcTemplate.queryForObject("SELECT last_movement_id FROM ledger_compaction WHERE id = 1", Long.class);
+        return upTo == null ? 0 : upTo;
+    }
+
+    /**
+     * Moves the compaction watermark forward. Never moves it back, so an instance finishing an
+     * older run after another instance cannot undo its progress.
+     */
+    public void markCompacted(long upToId) {
+        jdbcTemplate.update(
+                "UPDATE ledger_compaction SET last_movement_id = GREATEST(last_movement_id, ?), compacted_at = now() WHERE id = 1",
+                upToId);
+    }
+
+    public List<UUID> findItemsMovedBetween(long afterId, long upToId) {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT stock_item_id FROM stock_movements WHERE id > ? AND id <= ?",
+                UUID.class, afterId, upToId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.exception.InsufficientStockException;
+import com.lab.inventory.model.StockItem;
+import com.lab.inventory.repository.StockItemRepository;
+import com.lab.inventory.repository.StockLevel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps quantities as counters on the stock item row, guarded by its optimistic {@code version}.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.storage.mode", havingValue = "counters", matchIfMissing = true)
+public class CounterStockStore implements StockStore {
+
+    private final StockItemRepository stockItemRepository;
+
+    public CounterStockStore(StockItemRepository stockItemRepository) {
+        this.stockItemRepository = stockItemRepository;
+    }
+
+    @Override
+    public Optional<StockItem> findByProductId(UUID productId) {
+        return stockItemRepository.findLevelByProductId(productId).map(StockLevel::toStockItem);
+    }
+
+    @Override
+    public StockItem receive(UUID productId, int quantity) {
+        Optional<StockItem> existing = stockItemRepository.findByProductId(productId);
+        if (existing.isPresent()) {
+            StockItem stockItem = existing.get();
+            stockItem.setQuantityAvailable(stockItem.getQuantityAvailable() + quantity);
+            return stockItemRepository.save(stockItem);
+        }
+        return stockItemRepository.save(new StockItem(productId, quantity));
+    }
+
+    @Override
+    public StockItem reserve(StockItem stockItem, UUID orderId, int quantity) {
+        try {
+            stockItem.reserveStock(quantity);
+        } catch (IllegalArgumentException e) {
+            throw new InsufficientStockException(
+                    stockItem.getProductId(), quantity, stockItem.getQuantityAvailable());
+        }
+        return stockItemRepository.save(stockItem);
+    }
+
+    @Override
+    public StockItem release(StockItem stockItem, UUID orderId, int quantity) {
+        stockItem.releaseStock(quantity);
+        return stockItemRepository.save(stockItem);
+    }
+}
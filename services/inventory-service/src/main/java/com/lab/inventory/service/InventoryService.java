@@ -2,16 +2,23 @@ package com.lab.inventory.service;
 
 import com.lab.inventory.dto.AddStockRequest;
 import com.lab.inventory.dto.ReserveStockRequest;
+import com.lab.inventory.dto.StockItemResponse;
 import com.lab.inventory.exception.InsufficientStockException;
 import com.lab.inventory.exception.ReservationNotFoundException;
 import com.lab.inventory.exception.StockItemNotFoundException;
 import com.lab.inventory.model.Reservation;
 import com.lab.inventory.model.ReservationStatus;
 import com.lab.inventory.model.StockItem;
+import com.lab.inventory.monitoring.HotProductTracker;
+import com.lab.inventory.monitoring.HotProductTracker.Outcome;
 import com.lab.inventory.repository.ReservationRepository;
 import com.lab.inventory.repository.StockItemRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -22,23 +29,28 @@ public class InventoryService {
 
     private final StockItemRepository stockItemRepository;
     private final ReservationRepository reservationRepository;
+    private final StockStore stockStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockSnapshotCache stockSnapshotCache;
+    private final HotProductTracker hotProductTracker;
 
     public InventoryService(StockItemRepository stockItemRepository,
-                            ReservationRepository reservationRepository) {
+                            ReservationRepository reservationRepository,
+                            StockStore stockStore,
+                            ApplicationEventPublisher eventPublisher,
+                            StockSnapshotCache stockSnapshotCache,
+                            HotProductTracker hotProductTracker) {
         this.stockItemRepository = stockItemRepository;
         this.reservationRepository = reservationRepository;
+        this.stockStore = stockStore;
+        this.eventPublisher = eventPublisher;
+        this.stockSnapshotCache = stockSnapshotCache;
+        this.hotProductTracker = hotProductTracker;
     }
 
     @Transactional
     public StockItem addStock(AddStockRequest request) {
-        Optional<StockItem> existing = stockItemRepository.findByProductId(request.productId());
-        if (existing.isPresent()) {
-            StockItem stockItem = existing.get();
-            stockItem.setQuantityAvailable(stockItem.getQuantityAvailable() + request.quantity());
-            return stockItemRepository.save(stockItem);
-        }
-        StockItem stockItem = new StockItem(request.productId(), request.quantity());
-        return stockItemRepository.save(stockItem);
+        return stockChanged(stockStore.receive(request.productId(), request.quantity()));
     }
 
     @Transactional
@@ -54,13 +66,12 @@ public class InventoryService {
         }
 
         try {
-            stockItem.reserveStock(request.quantity());
-        } catch (IllegalArgumentException e) {
-            throw new InsufficientStockException(
-                    request.productId(), request.quantity(), stockItem.getQuantityAvailable());
+            stockChanged(stockStore.reserve(stockItem, request.orderId(), request.quantity()));
+        } catch (InsufficientStockException ex) {
+            hotProductTracker.record(request.productId(), Outcome.INSUFFICIENT);
+            throw ex;
         }
-
-        stockItemRepository.save(stockItem);
+        trackOutcome(request.productId(), Outcome.RESERVED);
 
         Reservation reservation = new Reservation(stockItem.getId(), request.orderId(), request.quantity());
         return reservationRepository.save(reservation);
@@ -74,17 +85,37 @@ public class InventoryService {
         StockItem stockItem = stockItemRepository.findById(reservation.getStockItemId())
                 .orElseThrow(() -> new StockItemNotFoundException(reservation.getStockItemId()));
 
-        stockItem.releaseStock(reservation.getQuantity());
+        stockChanged(stockStore.release(stockItem, reservation.getOrderId(), reservation.getQuantity()));
+        trackOutcome(stockItem.getProductId(), Outcome.CANCELLED);
         reservation.setStatus(ReservationStatus.CANCELLED);
-
-        stockItemRepository.save(stockItem);
         reservationRepository.save(reservation);
 
         return reservation;
     }
 
-    public StockItem getStockForProduct(UUID productId) {
-        return stockItemRepository.findByProductId(productId)
-                .orElseThrow(() -> new StockItemNotFoundException(productId));
+    // No transaction of its own: cache hits never take a connection, misses load through the repository's
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public StockItemResponse getStockForProduct(UUID productId) {
+        return stockSnapshotCache.get(productId, id -> stockStore.findByProductId(id)
+                .orElseThrow(() -> new StockItemNotFoundException(id)));
+    }
+
+    private StockItem stockChanged(StockItem stockItem) {
+        eventPublisher.publishEvent(new StockChangedEvent(stockItem));
+        return stockItem;
+    }
+
+    // The version check runs when the transaction flushes, so the outcome is only known after it
+    private void trackOutcome(UUID productId, Outcome committed) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            hotProductTracker.record(productId, committed);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                hotProductTracker.record(productId, status == STATUS_COMMITTED ? committed : Outcome.CONFLICT);
+            }
+        });
     }
 }
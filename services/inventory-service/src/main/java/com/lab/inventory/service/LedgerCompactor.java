@@ -0,0 +1,111 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.repository.StockMovementRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolls ledger snapshots forward on a background thread, so a balance never has to sum more
+ * than about one compaction interval of movements. Each run snapshots the items that had
+ * movements since the previous run, one short transaction per item under its ledger lock.
+ * Movements are kept; snapshots only move the starting point. The watermark of the last
+ * completed run is stored in {@code ledger_compaction}, so a restart picks up where it left off.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.storage.mode", havingValue = "ledger")
+public class LedgerCompactor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerCompactor.class);
+
+    private final StockMovementRepository movementRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration interval;
+    private final Timer compactionTimer;
+    private final Counter snapshots;
+
+    private ScheduledExecutorService scheduler;
+
+    public LedgerCompactor(StockMovementRepository movementRepository,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${inventory.ledger.compaction-interval:30s}") Duration interval) {
+        this.movementRepository = movementRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.interval = interval;
+        this.compactionTimer = Timer.builder("inventory.ledger.compaction")
+                .description("Time spent rolling ledger snapshots forward")
+                .register(meterRegistry);
+        this.snapshots = Counter.builder("inventory.ledger.snapshots")
+                .description("Stock item snapshots written by the ledger compactor")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Snapshots every item with movements since the last run. A movement still uncommitted
+     * when the run starts is not lost: it stays in the balance and gets folded in the next time
+     * its item moves. A run that fails part-way leaves the watermark alone and is repeated.
+     */
+    public void compact() {
+        long from = movementRepository.compactedUpTo();
+        long upTo = movementRepository.maxMovementId();
+        if (upTo <= from) {
+            return;
+        }
+        compactionTimer.record(() -> {
+            List<UUID> items = movementRepository.findItemsMovedBetween(from, upTo);
+            for (UUID stockItemId : items) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    movementRepository.lockItem(stockItemId);
+                    movementRepository.snapshot(stockItemId);
+                });
+                snapshots.increment();
+            }
+        });
+        movementRepository.markCompacted(upTo);
+    }
+
+    @Override
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (RuntimeException ex) {
+                log.warn("Ledger compaction failed, retrying in {}", interval, ex);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+}
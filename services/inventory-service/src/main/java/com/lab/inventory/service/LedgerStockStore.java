@@ -0,0 +1,70 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.exception.InsufficientStockException;
+import com.lab.inventory.exception.StockItemNotFoundException;
+import com.lab.inventory.model.MovementType;
+import com.lab.inventory.model.StockItem;
+import com.lab.inventory.repository.StockItemRepository;
+import com.lab.inventory.repository.StockMovementRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Records every change as a row in {@code stock_movements} and derives quantities from the
+ * latest snapshot plus later movements. The {@code stock_items} row is only created, never
+ * updated; its counters serve as the opening balance when switching over from counters mode.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.storage.mode", havingValue = "ledger")
+public class LedgerStockStore implements StockStore {
+
+    private final StockItemRepository stockItemRepository;
+    private final StockMovementRepository movementRepository;
+
+    public LedgerStockStore(StockItemRepository stockItemRepository, StockMovementRepository movementRepository) {
+        this.stockItemRepository = stockItemRepository;
+        this.movementRepository = movementRepository;
+    }
+
+    @Override
+    public Optional<StockItem> findByProductId(UUID productId) {
+        return movementRepository.findBalanceByProductId(productId);
+    }
+
+    @Override
+    public StockItem receive(UUID productId, int quantity) {
+        // Flushed right away: the movement is inserted over JDBC and references the row
+        StockItem stockItem = stockItemRepository.findByProductId(productId)
+                .orElseGet(() -> stockItemRepository.saveAndFlush(new StockItem(productId, 0)));
+        movementRepository.lockItem(stockItem.getId());
+        movementRepository.append(stockItem.getId(), MovementType.RECEIVE, quantity, 0, null);
+        return balance(stockItem);
+    }
+
+    @Override
+    public StockItem reserve(StockItem stockItem, UUID orderId, int quantity) {
+        movementRepository.lockItem(stockItem.getId());
+        int available = balance(stockItem).getQuantityAvailable();
+        if (quantity > available) {
+            throw new InsufficientStockException(stockItem.getProductId(), quantity, available);
+        }
+        movementRepository.append(stockItem.getId(), MovementType.RESERVE, -quantity, quantity, orderId);
+        return balance(stockItem);
+    }
+
+    @Override
+    public StockItem release(StockItem stockItem, UUID orderId, int quantity) {
+        movementRepository.lockItem(stockItem.getId());
+        // A repeated cancel finds the release already recorded and changes nothing
+        movementRepository.append(stockItem.getId(), MovementType.RELEASE, quantity, -quantity, orderId);
+        return balance(stockItem);
+    }
+
+    private StockItem balance(StockItem stockItem) {
+        return movementRepository.findBalance(stockItem.getId())
+                .orElseThrow(() -> new StockItemNotFoundException(stockItem.getProductId()));
+    }
+}
@@ -0,0 +1,10 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.model.StockItem;
+
+/**
+ * Published whenever a stock item's quantities change. Listeners should read it after
+ * commit: the entity's {@code version} and {@code lastUpdated} are only set once it is flushed.
+ */
+public record StockChangedEvent(StockItem stockItem) {
+}
@@ -0,0 +1,135 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.dto.GrantLeaseRequest;
+import com.lab.inventory.dto.LeaseConsumption;
+import com.lab.inventory.dto.SettleLeaseRequest;
+import com.lab.inventory.exception.InsufficientStockException;
+import com.lab.inventory.exception.InvalidLeaseSettlementException;
+import com.lab.inventory.exception.LeaseNotFoundException;
+import com.lab.inventory.exception.StockItemNotFoundException;
+import com.lab.inventory.model.LeaseStatus;
+import com.lab.inventory.model.Reservation;
+import com.lab.inventory.model.StockItem;
+import com.lab.inventory.model.StockLease;
+import com.lab.inventory.repository.ReservationRepository;
+import com.lab.inventory.repository.StockItemRepository;
+import com.lab.inventory.repository.StockLeaseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Leases blocks of stock to order-service instances so they can confirm orders for hot
+ * products without a reservation call each. Granted units are reserved up front, so a holder
+ * can never confirm more than inventory had. The holder settles after the lease expires by
+ * listing the confirmed orders that used it: those become ordinary reservations and the rest
+ * is released. Unsettled leases keep their units reserved until someone settles them.
+ */
+@Service
+@Transactional(readOnly = true)
+public class StockLeaseService {
+
+    private final StockItemRepository stockItemRepository;
+    private final ReservationRepository reservationRepository;
+    private final StockLeaseRepository leaseRepository;
+    private final StockStore stockStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxQuantity;
+    private final Duration maxTtl;
+
+    public StockLeaseService(StockItemRepository stockItemRepository,
+                             ReservationRepository reservationRepository,
+                             StockLeaseRepository leaseRepository,
+                             StockStore stockStore,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${inventory.leases.max-quantity:500}") int maxQuantity,
+                             @Value("${inventory.leases.max-ttl:2m}") Duration maxTtl) {
+        this.stockItemRepository = stockItemRepository;
+        this.reservationRepository = reservationRepository;
+        this.leaseRepository = leaseRepository;
+        this.stockStore = stockStore;
+        this.eventPublisher = eventPublisher;
+        this.maxQuantity = maxQuantity;
+        this.maxTtl = maxTtl;
+    }
+
+    /**
+     * Grants up to the requested quantity, limited by what is available.
+     *
+     * @throws InsufficientStockException if nothing is available
+     */
+    @Transactional
+    public StockLease grantLease(GrantLeaseRequest request) {
+        StockItem stockItem = stockItemRepository.findByProductId(request.productId())
+                .orElseThrow(() -> new StockItemNotFoundException(request.productId()));
+        int available = stockStore.findByProductId(request.productId())
+                .map(StockItem::getQuantityAvailable)
+                .orElse(0);
+        int granted = Math.min(Math.min(request.quantity(), maxQuantity), available);
+        if (granted <= 0) {
+            throw new InsufficientStockException(request.productId(), request.quantity(), available);
+        }
+
+        Instant now = Instant.now();
+        Duration ttl = Duration.ofSeconds(request.ttlSeconds());
+        StockLease lease = leaseRepository.save(new StockLease(stockItem.getId(), request.productId(),
+                request.holder(), granted, now, now.plus(ttl.compareTo(maxTtl) < 0 ? ttl : maxTtl)));
+        // Re-checks availability under the store's own guard; a race just fails the grant
+        eventPublisher.publishEvent(new StockChangedEvent(stockStore.reserve(stockItem, lease.getId(), granted)));
+        return lease;
+    }
+
+    /**
+     * Records which orders used the lease and returns the rest to stock. Settling an already
+     * settled lease changes nothing.
+     */
+    @Transactional
+    public StockLease settleLease(UUID leaseId, SettleLeaseRequest request) {
+        StockLease lease = leaseRepository.findForUpdate(leaseId)
+                .orElseThrow(() -> new LeaseNotFoundException(leaseId));
+        if (lease.getStatus() == LeaseStatus.SETTLED) {
+            return lease;
+        }
+
+        // An order with several lines for the product becomes one reservation
+        Map<UUID, Integer> byOrder = new LinkedHashMap<>();
+        for (LeaseConsumption consumption : request.consumed()) {
+            byOrder.merge(consumption.orderId(), consumption.quantity(), Integer::sum);
+        }
+        int consumed = byOrder.values().stream().mapToInt(Integer::intValue).sum();
+        if (consumed > lease.getQuantity()) {
+            throw new InvalidLeaseSettlementException(leaseId, lease.getQuantity(), consumed);
+        }
+
+        // The units are already reserved under the lease; this only attributes them to orders
+        byOrder.forEach((orderId, quantity) -> {
+            if (reservationRepository.findByStockItemIdAndOrderId(lease.getStockItemId(), orderId).isEmpty()) {
+                reservationRepository.save(new Reservation(lease.getStockItemId(), orderId, quantity));
+            }
+        });
+
+        int unused = lease.getQuantity() - consumed;
+        if (unused > 0) {
+            StockItem stockItem = stockItemRepository.findById(lease.getStockItemId())
+                    .orElseThrow(() -> new StockItemNotFoundException(lease.getProductId()));
+            eventPublisher.publishEvent(new StockChangedEvent(stockStore.release(stockItem, leaseId, unused)));
+        }
+        lease.settle(consumed);
+        return leaseRepository.save(lease);
+    }
+
+    /**
+     * Active leases that expired before the given time, oldest first; their holders may be gone.
+     */
+    public List<StockLease> findUnsettled(Instant expiredBefore) {
+        return leaseRepository.findTop100ByStatusAndExpiresAtBeforeOrderByExpiresAtAsc(LeaseStatus.ACTIVE, expiredBefore);
+    }
+}
@@ -0,0 +1,135 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.dto.StockItemResponse;
+import com.lab.inventory.model.StockItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-process snapshots of stock levels for the read endpoint. Committed changes made by this
+ * instance are written through as they happen; changes made by other instances are picked up
+ * when an entry is older than {@code ttl}, so a served snapshot is never more than {@code ttl}
+ * behind the database it was read from.
+ * <p>
+ * Every write carries the stock item version and only replaces an entry with the same or an
+ * older version, so a slow reload or a lagging replica can't overwrite a newer snapshot.
+ * Concurrent misses for one product share a single load.
+ */
+@Component
+public class StockSnapshotCache {
+
+    private final Map<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Snapshot>> loading = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public StockSnapshotCache(MeterRegistry meterRegistry,
+                              @Value("${inventory.cache.enabled:true}") boolean enabled,
+                              @Value("${inventory.cache.ttl:1s}") Duration ttl,
+                              @Value("${inventory.cache.max-entries:100000}") int maxEntries) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        meterRegistry.gauge("inventory.cache.size", snapshots, Map::size);
+    }
+
+    /**
+     * Returns the cached stock for the product, or loads it when missing or older than the TTL.
+     * Exceptions thrown by {@code loader} (e.g. not found) are passed on and nothing is cached.
+     */
+    public StockItemResponse get(UUID productId, Function<UUID, StockItem> loader) {
+        if (!enabled) {
+            return StockItemResponse.from(loader.apply(productId));
+        }
+        long now = System.nanoTime();
+        Snapshot cached = snapshots.get(productId);
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            hits.increment();
+            return cached.stock();
+        }
+
+        misses.increment();
+        CompletableFuture<Snapshot> load = new CompletableFuture<>();
+        CompletableFuture<Snapshot> inFlight = loading.putIfAbsent(productId, load);
+        if (inFlight != null) {
+            return await(inFlight).stock();
+        }
+        try {
+            // Stamped with the time the read started, so the TTL also covers the load itself
+            Snapshot snapshot = store(Snapshot.of(loader.apply(productId), now));
+            load.complete(snapshot);
+            return snapshot.stock();
+        } catch (RuntimeException ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loading.remove(productId, load);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (enabled) {
+            store(Snapshot.of(event.stockItem(), System.nanoTime()));
+        }
+    }
+
+    int size() {
+        return snapshots.size();
+    }
+
+    private Snapshot store(Snapshot snapshot) {
+        UUID productId = snapshot.stock().productId();
+        if (snapshots.size() >= maxEntries && !snapshots.containsKey(productId)) {
+            long now = System.nanoTime();
+            snapshots.values().removeIf(existing -> now - existing.loadedAt() >= ttlNanos);
+            if (snapshots.size() >= maxEntries) {
+                return snapshot;
+            }
+        }
+        return snapshots.merge(productId, snapshot,
+                (existing, fresh) -> fresh.version() >= existing.version() ? fresh : existing);
+    }
+
+    private static Snapshot await(CompletableFuture<Snapshot> load) {
+        try {
+            return load.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("inventory.cache.requests")
+                .description("Stock reads served from the snapshot cache (hit) or the database (miss)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Snapshot(StockItemResponse stock, long version, long loadedAt) {
+
+        static Snapshot of(StockItem stockItem, long loadedAt) {
+            long version = stockItem.getVersion() == null ? 0 : stockItem.getVersion();
+            return new Snapshot(StockItemResponse.from(stockItem), version, loadedAt);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.exception.InsufficientStockException;
+import com.lab.inventory.model.StockItem;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * How stock quantities are kept, selected with {@code inventory.storage.mode}: mutable counters
+ * on {@code stock_items} ({@code counters}, the default) or an append-only movement ledger
+ * ({@code ledger}). All methods run inside the caller's transaction and return the item's
+ * quantities after the change.
+ */
+public interface StockStore {
+
+    /**
+     * The item's current quantities as a detached copy, for reads; never modify or save it.
+     */
+    Optional<StockItem> findByProductId(UUID productId);
+
+    StockItem receive(UUID productId, int quantity);
+
+    /**
+     * @throws InsufficientStockException if fewer than {@code quantity} units are available
+     */
+    StockItem reserve(StockItem stockItem, UUID orderId, int quantity);
+
+    StockItem release(StockItem stockItem, UUID orderId, int quantity);
+}
@@ -0,0 +1,283 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.dto.StockLevelResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed stock changes to SSE subscribers. Changes are collected per product and
+ * sent once per {@code coalesce-window}, so a burst of reservations on one product becomes a
+ * single event carrying the latest level.
+ * <p>
+ * Each subscriber keeps only the latest pending level per product it follows and is written
+ * to by one sender thread at a time, so a slow client never holds up the others. A client
+ * that falls more than {@code max-pending} products behind, or whose send has been blocked for
+ * longer than {@code send-timeout}, is disconnected; it should reconnect and re-read current
+ * stock. {@code server.tomcat.connection-timeout} bounds the blocked write itself, so the
+ * sender thread is released at about the same time.
+ */
+@Component
+public class StockStreamBroadcaster implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StockStreamBroadcaster.class);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, StockLevelResponse> changes = new ConcurrentHashMap<>();
+    private final Duration coalesceWindow;
+    private final long heartbeatNanos;
+    private final Duration timeout;
+    private final int maxPending;
+    private final long sendTimeoutNanos;
+    private final int senderThreads;
+    private final Counter sent;
+    private final Counter dropped;
+
+    private long lastHeartbeat = System.nanoTime();
+    private ScheduledExecutorService ticker;
+    private ExecutorService senders;
+
+    public StockStreamBroadcaster(MeterRegistry meterRegistry,
+                                  @Value("${inventory.stream.coalesce-window:250ms}") Duration coalesceWindow,
+                                  @Value("${inventory.stream.heartbeat:15s}") Duration heartbeat,
+                                  @Value("${inventory.stream.timeout:30m}") Duration timeout,
+                                  @Value("${inventory.stream.max-pending:1000}") int maxPending,
+                                  @Value("${inventory.stream.send-timeout:5s}") Duration sendTimeout,
+                                  @Value("${inventory.stream.sender-threads:4}") int senderThreads) {
+        this.coalesceWindow = coalesceWindow;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.timeout = timeout;
+        this.maxPending = maxPending;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.senderThreads = senderThreads;
+        this.sent = Counter.builder("inventory.stream.events.sent")
+                .description("Stock level events written to stream subscribers")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("inventory.stream.subscribers.dropped")
+                .description("Stream subscribers disconnected for falling too far behind or stalling a send")
+                .register(meterRegistry);
+        meterRegistry.gauge("inventory.stream.subscribers", subscribers, Set::size);
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        StockLevelResponse level = StockLevelResponse.from(event.stockItem());
+        changes.merge(level.productId(), level, StockLevelResponse::newer);
+    }
+
+    /**
+     * Opens a stream of stock levels for the given products, or for every product when empty.
+     */
+    public SseEmitter subscribe(Collection<UUID> productIds) {
+        return subscribe(productIds, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Collection<UUID> productIds, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(productIds));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    void flush() {
+        flush(System.nanoTime());
+    }
+
+    void flush(long now) {
+        List<StockLevelResponse> batch = new ArrayList<>(changes.size());
+        for (UUID productId : changes.keySet()) {
+            StockLevelResponse level = changes.remove(productId);
+            if (level != null) {
+                batch.add(level);
+            }
+        }
+        boolean heartbeat = now - lastHeartbeat >= heartbeatNanos;
+        if (heartbeat) {
+            lastHeartbeat = now;
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.stalled(now) || !subscriber.offer(batch)) {
+                disconnect(subscriber);
+                continue;
+            }
+            if (heartbeat) {
+                subscriber.heartbeatDue = true;
+            }
+            if (subscriber.hasWork() && subscriber.scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(subscriber::drain);
+                } catch (RejectedExecutionException ex) {
+                    // Shutting down
+                    subscriber.scheduled.set(false);
+                }
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            dropped.increment();
+            log.debug("Disconnecting stock stream subscriber with {} pending products", subscriber.pending.size());
+            subscriber.close();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stock-stream-send-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-stream-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = coalesceWindow.toMillis();
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException ex) {
+                log.warn("Stock stream flush failed", ex);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (ticker == null) {
+            return;
+        }
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        ticker = null;
+        senders = null;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return ticker != null;
+    }
+
+    private final class Subscriber {
+
+        final SseEmitter emitter;
+        final Set<UUID> productIds;
+        // Latest unsent level per product; bounded by maxPending
+        final Map<UUID, StockLevelResponse> pending = new ConcurrentHashMap<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean heartbeatDue;
+        volatile boolean closed;
+        // System.nanoTime() when the current send started, 0 between sends
+        volatile long sendingSince;
+
+        Subscriber(SseEmitter emitter, Set<UUID> productIds) {
+            this.emitter = emitter;
+            this.productIds = productIds;
+        }
+
+        boolean offer(List<StockLevelResponse> batch) {
+            for (StockLevelResponse level : batch) {
+                if (productIds.isEmpty() || productIds.contains(level.productId())) {
+                    pending.merge(level.productId(), level, StockLevelResponse::newer);
+                }
+            }
+            return pending.size() <= maxPending;
+        }
+
+        boolean hasWork() {
+            return heartbeatDue || !pending.isEmpty();
+        }
+
+        boolean stalled(long now) {
+            long since = sendingSince;
+            return since != 0 && now - since > sendTimeoutNanos;
+        }
+
+        /**
+         * Completes the emitter, or leaves that to the running drain: the emitter's send and
+         * complete share a lock, so completing under a blocked send would block the caller too.
+         */
+        void close() {
+            closed = true;
+            if (scheduled.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+
+        void drain() {
+            try {
+                for (UUID productId : pending.keySet()) {
+                    StockLevelResponse level = pending.remove(productId);
+                    if (level != null && !closed) {
+                        send(SseEmitter.event().name("stock").data(level, MediaType.APPLICATION_JSON));
+                        sent.increment();
+                    }
+                }
+                if (heartbeatDue && !closed) {
+                    heartbeatDue = false;
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away or the emitter already completed; the container cleans up the request
+                subscribers.remove(this);
+            } finally {
+                if (closed) {
+                    emitter.complete();
+                } else {
+                    scheduled.set(false);
+                    // close() may have lost the race for the flag after the closed check above
+                    if (closed && scheduled.compareAndSet(false, true)) {
+                        emitter.complete();
+                    }
+                }
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendingSince = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                sendingSince = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+-- Append-only stock ledger used when inventory.storage.mode=ledger. A balance is the item's
+-- latest snapshot (or, before the first one, the stock_items counters as opening balance)
+-- plus every movement after the snapshot's last_movement_id.
+CREATE TABLE stock_movements (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    stock_item_id UUID NOT NULL REFERENCES stock_items(id),
+    movement_type VARCHAR(10) NOT NULL,
+    available_delta INTEGER NOT NULL,
+    reserved_delta INTEGER NOT NULL,
+    order_id UUID,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_stock_movements_item ON stock_movements (stock_item_id, id);
+
+-- One reserve and one release per order and item, so a repeated cancel can't release twice
+CREATE UNIQUE INDEX uq_stock_movements_order ON stock_movements (stock_item_id, order_id, movement_type)
+    WHERE order_id IS NOT NULL;
+
+CREATE TABLE stock_snapshots (
+    stock_item_id UUID PRIMARY KEY REFERENCES stock_items(id),
+    quantity_available INTEGER NOT NULL,
+    quantity_reserved INTEGER NOT NULL,
+    last_movement_id BIGINT NOT NULL,
+    last_movement_at TIMESTAMP WITH TIME ZONE,
+    taken_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
@@ -0,0 +1,17 @@
+-- Blocks of stock held for one order-service instance. The leased units are reserved on the
+-- stock item while the lease is ACTIVE; settling turns the consumed part into per-order
+-- reservations and releases the rest.
+CREATE TABLE stock_leases (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    stock_item_id UUID NOT NULL REFERENCES stock_items(id),
+    product_id UUID NOT NULL,
+    holder VARCHAR(255) NOT NULL,
+    quantity INTEGER NOT NULL,
+    consumed INTEGER,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    settled_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX idx_stock_leases_active_expiry ON stock_leases (expires_at) WHERE status = 'ACTIVE';
@@ -0,0 +1,10 @@
+-- Highest movement id the ledger compactor has folded into snapshots, so a restarted instance
+-- resumes from there instead of rescanning the whole ledger. Seeded from existing snapshots.
+CREATE TABLE ledger_compaction (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    last_movement_id BIGINT NOT NULL,
+    compacted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+INSERT INTO ledger_compaction (id, last_movement_id)
+SELECT 1, COALESCE(MAX(last_movement_id), 0) FROM stock_snapshots;
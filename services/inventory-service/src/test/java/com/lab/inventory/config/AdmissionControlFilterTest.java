@@ -0,0 +1,100 @@
+package com.lab.inventory.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lab.inventory.monitoring.PoolPressureMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlFilterTest {
+
+    @Mock
+    private PoolPressureMonitor monitor;
+
+    @Mock
+    private FilterChain chain;
+
+    private MeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(monitor, new ObjectMapper(), meterRegistry, Duration.ofMillis(100),
+                1.5, 3.0, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void should_PassRequest_When_PoolIsHealthy() throws Exception {
+        when(monitor.current()).thenReturn(new PoolPressureMonitor.Sample(4, 0, 10, Duration.ofMillis(2)));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/inventory/reservations");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void should_RejectWriteWithRetryAfter_When_AcquireWaitIsTooHigh() throws Exception {
+        when(monitor.current()).thenReturn(new PoolPressureMonitor.Sample(10, 10, 10, Duration.ofMillis(1500)));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/inventory/reservations");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(request, response);
+        assertThat(response.getStatus()).isEqualTo(503);
+        // 1.5s wait scaled by pressure 2.0
+        assertThat(response.getHeader("Retry-After")).isEqualTo("3");
+        assertThat(response.getContentType()).isEqualTo("application/problem+json");
+        assertThat(meterRegistry.counter("admission.rejected", "kind", "write").count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_LetReadsThrough_When_OnlyWritesAreShed() throws Exception {
+        when(monitor.current()).thenReturn(new PoolPressureMonitor.Sample(10, 10, 10, Duration.ofMillis(1500)));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/inventory/stock/42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void should_RejectRead_When_PressureReachesReadLimit() throws Exception {
+        when(monitor.current()).thenReturn(new PoolPressureMonitor.Sample(10, 25, 10, Duration.ofMillis(200)));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/inventory/stock/42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.counter("admission.rejected", "kind", "read").count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_CapRetryAfter_When_QueueIsVeryLong() {
+        PoolPressureMonitor.Sample sample = new PoolPressureMonitor.Sample(10, 90, 10, Duration.ofSeconds(20));
+
+        assertThat(filter.retryAfterSeconds(sample)).isEqualTo(30);
+    }
+}
@@ -3,11 +3,13 @@ package com.lab.inventory.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lab.inventory.dto.AddStockRequest;
 import com.lab.inventory.dto.ReserveStockRequest;
+import com.lab.inventory.dto.StockItemResponse;
 import com.lab.inventory.exception.GlobalExceptionHandler;
 import com.lab.inventory.exception.InsufficientStockException;
 import com.lab.inventory.model.Reservation;
 import com.lab.inventory.model.StockItem;
 import com.lab.inventory.service.InventoryService;
+import com.lab.inventory.service.StockStreamBroadcaster;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -15,7 +17,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +40,9 @@ class InventoryControllerTest {
     @MockBean
     private InventoryService inventoryService;
 
+    @MockBean
+    private StockStreamBroadcaster stockStreamBroadcaster;
+
     @Test
     void should_Return201_When_StockReserved() throws Exception {
         UUID productId = UUID.randomUUID();
@@ -91,11 +98,30 @@ class InventoryControllerTest {
         UUID productId = UUID.randomUUID();
         var stockItem = new StockItem(productId, 75);
 
-        when(inventoryService.getStockForProduct(productId)).thenReturn(stockItem);
+        when(inventoryService.getStockForProduct(productId)).thenReturn(StockItemResponse.from(stockItem));
 
         mockMvc.perform(get("/api/inventory/stock/{productId}", productId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.productId").value(productId.toString()))
                 .andExpect(jsonPath("$.quantityAvailable").value(75));
     }
+
+    @Test
+    void should_OpenStockStream_When_ProductFilterGiven() throws Exception {
+        UUID productId = UUID.randomUUID();
+        when(stockStreamBroadcaster.subscribe(List.of(productId))).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/inventory/stock/stream")
+                        .param("productId", productId.toString())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void should_StreamAllProducts_When_NoFilterGiven() throws Exception {
+        when(stockStreamBroadcaster.subscribe(List.of())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/inventory/stock/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
 }
@@ -0,0 +1,115 @@
+package com.lab.inventory.monitoring;
+
+import com.lab.inventory.monitoring.HotProductTracker.HotProduct;
+import com.lab.inventory.monitoring.HotProductTracker.Outcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotProductTrackerTest {
+
+    private static final Duration DECAY = Duration.ofSeconds(10);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void should_RankProductsByRecentOperations() {
+        HotProductTracker tracker = tracker(10);
+        UUID hot = UUID.randomUUID();
+        UUID warm = UUID.randomUUID();
+        UUID cold = UUID.randomUUID();
+
+        record(tracker, cold, Outcome.RESERVED, 1);
+        record(tracker, warm, Outcome.RESERVED, 10);
+        record(tracker, hot, Outcome.RESERVED, 40);
+        record(tracker, hot, Outcome.CONFLICT, 10);
+
+        assertThat(tracker.hottest()).extracting(HotProduct::productId).containsExactly(hot, warm, cold);
+        HotProduct hottest = tracker.hottest().get(0);
+        assertThat(hottest.operations()).isEqualTo(50);
+        assertThat(hottest.outcomes()).containsEntry(Outcome.RESERVED, 40L).containsEntry(Outcome.CONFLICT, 10L);
+    }
+
+    @Test
+    void should_TrackOnlyTopK_When_ManyProductsSeen() {
+        HotProductTracker tracker = tracker(3);
+        UUID[] heavy = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+
+        for (int i = 0; i < 500; i++) {
+            record(tracker, UUID.randomUUID(), Outcome.RESERVED, 1);
+            if (i % 10 == 0) {
+                for (UUID product : heavy) {
+                    record(tracker, product, Outcome.RESERVED, 2);
+                }
+            }
+        }
+
+        assertThat(tracker.hottest()).extracting(HotProduct::productId).containsExactlyInAnyOrder(heavy);
+    }
+
+    @Test
+    void should_HalveCounts_When_DecayIntervalPasses() {
+        HotProductTracker tracker = tracker(10);
+        UUID product = UUID.randomUUID();
+        record(tracker, product, Outcome.CANCELLED, 8);
+
+        tracker.record(product, Outcome.CANCELLED, System.nanoTime() + DECAY.toNanos() + 1);
+
+        HotProduct tracked = tracker.hottest().get(0);
+        assertThat(tracked.operations()).isEqualTo(5);
+        assertThat(tracked.outcomes()).containsEntry(Outcome.CANCELLED, 5L);
+    }
+
+    @Test
+    void should_ReplaceCooledProduct_When_AnotherTurnsHot() {
+        HotProductTracker tracker = tracker(1);
+        UUID old = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        record(tracker, old, Outcome.RESERVED, 4);
+
+        long now = System.nanoTime();
+        for (int decay = 1; decay <= 3; decay++) {
+            now += DECAY.toNanos() + 1;
+            tracker.record(fresh, Outcome.RESERVED, now);
+        }
+        tracker.record(fresh, Outcome.RESERVED, now);
+
+        assertThat(tracker.hottest()).extracting(HotProduct::productId).containsExactly(fresh);
+    }
+
+    @Test
+    void should_ExposeRankedGauges_When_Scraped() {
+        HotProductTracker tracker = tracker(2);
+        record(tracker, UUID.randomUUID(), Outcome.RESERVED, 7);
+        record(tracker, UUID.randomUUID(), Outcome.CONFLICT, 3);
+
+        assertThat(meterRegistry.get("inventory.hot.products.operations").tag("rank", "1").gauge().value()).isEqualTo(7);
+        assertThat(meterRegistry.get("inventory.hot.products.conflicts").tag("rank", "2").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("inventory.reservation.outcomes").tag("outcome", "conflict").counter().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.find("inventory.hot.products.operations").gauges()).hasSize(2);
+    }
+
+    @Test
+    void should_RecordNothing_When_Disabled() {
+        HotProductTracker tracker = new HotProductTracker(meterRegistry, false, 10, 256, 4, DECAY);
+
+        record(tracker, UUID.randomUUID(), Outcome.RESERVED, 5);
+
+        assertThat(tracker.hottest()).isEmpty();
+    }
+
+    private HotProductTracker tracker(int topK) {
+        return new HotProductTracker(meterRegistry, true, topK, 1024, 4, DECAY);
+    }
+
+    private static void record(HotProductTracker tracker, UUID productId, Outcome outcome, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(productId, outcome);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.lab.inventory.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PoolPressureMonitorTest {
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger max = new AtomicInteger(10);
+    private MeterRegistry meterRegistry;
+    private Timer acquire;
+    private PoolPressureMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.gauge("hikaricp.connections.active", Tags.of("pool", "primary"), active);
+        meterRegistry.gauge("hikaricp.connections.pending", Tags.of("pool", "primary"), pending);
+        meterRegistry.gauge("hikaricp.connections.max", Tags.of("pool", "primary"), max);
+        acquire = meterRegistry.timer("hikaricp.connections.acquire", "pool", "primary");
+        monitor = new PoolPressureMonitor(meterRegistry, "primary", Duration.ofMillis(250));
+    }
+
+    @Test
+    void should_ReportIdle_When_PoolMetricsAreMissing() {
+        PoolPressureMonitor other = new PoolPressureMonitor(meterRegistry, "replica-1", Duration.ofMillis(250));
+
+        other.sample();
+
+        assertThat(other.current().pressure()).isZero();
+        assertThat(other.current().acquireWait()).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void should_AverageAcquireWaitOverInterval_When_ConnectionsWereAcquired() {
+        acquire.record(Duration.ofMillis(400));
+        monitor.sample();
+
+        acquire.record(Duration.ofMillis(10));
+        acquire.record(Duration.ofMillis(30));
+        active.set(10);
+        pending.set(5);
+        monitor.sample();
+
+        assertThat(monitor.current().acquireWait()).isEqualTo(Duration.ofMillis(20));
+        assertThat(monitor.current().pressure()).isEqualTo(1.5);
+        assertThat(meterRegistry.get("admission.pool.pressure").gauge().value()).isEqualTo(1.5);
+    }
+
+    @Test
+    void should_GrowAcquireWait_When_WaitersGetNoConnection() {
+        active.set(10);
+        pending.set(3);
+
+        monitor.sample();
+        monitor.sample();
+
+        assertThat(monitor.current().acquireWait()).isEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void should_ResetAcquireWait_When_NothingIsWaiting() {
+        pending.set(3);
+        monitor.sample();
+
+        pending.set(0);
+        monitor.sample();
+
+        assertThat(monitor.current().acquireWait()).isEqualTo(Duration.ZERO);
+    }
+}
@@ -66,6 +66,20 @@ class InventoryRepositoryIntegrationTest {
         assertThat(found.get().getQuantityReserved()).isEqualTo(0);
     }
 
+    @Test
+    void should_ReadStockLevel_When_ProjectedByProductId() {
+        UUID productId = UUID.randomUUID();
+        StockItem saved = stockItemRepository.save(new StockItem(productId, 100));
+
+        Optional<StockLevel> level = stockItemRepository.findLevelByProductId(productId);
+
+        assertThat(level).isPresent();
+        assertThat(level.get().id()).isEqualTo(saved.getId());
+        assertThat(level.get().quantityAvailable()).isEqualTo(100);
+        assertThat(level.get().version()).isZero();
+        assertThat(stockItemRepository.findLevelByProductId(UUID.randomUUID())).isEmpty();
+    }
+
     @Test
     void should_EnforceOptimisticLocking() {
         UUID productId = UUID.randomUUID();
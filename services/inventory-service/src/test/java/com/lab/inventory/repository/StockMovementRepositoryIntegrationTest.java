@@ -0,0 +1,122 @@
+package com.lab.inventory.repository;
+
+import com.lab.inventory.model.MovementType;
+import com.lab.inventory.model.StockItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StockMovementRepository.class)
+class StockMovementRepositoryIntegrationTest {
+
+    @SuppressWarnings("resource")
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("inventory_db")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private StockItemRepository stockItemRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Test
+    void should_UseCountersAsOpeningBalance_When_NoMovements() {
+        StockItem stockItem = stockItemRepository.saveAndFlush(new StockItem(UUID.randomUUID(), 40));
+
+        StockItem balance = movementRepository.findBalance(stockItem.getId()).orElseThrow();
+
+        assertThat(balance.getQuantityAvailable()).isEqualTo(40);
+        assertThat(balance.getQuantityReserved()).isZero();
+        assertThat(balance.getVersion()).isZero();
+    }
+
+    @Test
+    void should_SumMovementsOntoOpeningBalance() {
+        StockItem stockItem = stockItemRepository.saveAndFlush(new StockItem(UUID.randomUUID(), 0));
+        UUID orderId = UUID.randomUUID();
+
+        movementRepository.lockItem(stockItem.getId());
+        movementRepository.append(stockItem.getId(), MovementType.RECEIVE, 100, 0, null);
+        movementRepository.append(stockItem.getId(), MovementType.RESERVE, -30, 30, orderId);
+
+        StockItem balance = movementRepository.findBalanceByProductId(stockItem.getProductId()).orElseThrow();
+        assertThat(balance.getId()).isEqualTo(stockItem.getId());
+        assertThat(balance.getQuantityAvailable()).isEqualTo(70);
+        assertThat(balance.getQuantityReserved()).isEqualTo(30);
+        assertThat(balance.getVersion()).isEqualTo(movementRepository.maxMovementId());
+    }
+
+    @Test
+    void should_IgnoreSecondRelease_When_OrderAlreadyReleased() {
+        StockItem stockItem = stockItemRepository.saveAndFlush(new StockItem(UUID.randomUUID(), 0));
+        UUID orderId = UUID.randomUUID();
+        movementRepository.append(stockItem.getId(), MovementType.RECEIVE, 10, 0, null);
+        movementRepository.append(stockItem.getId(), MovementType.RESERVE, -4, 4, orderId);
+
+        boolean first = movementRepository.append(stockItem.getId(), MovementType.RELEASE, 4, -4, orderId);
+        boolean second = movementRepository.append(stockItem.getId(), MovementType.RELEASE, 4, -4, orderId);
+
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(movementRepository.findBalance(stockItem.getId()).orElseThrow().getQuantityAvailable()).isEqualTo(10);
+    }
+
+    @Test
+    void should_KeepBalance_When_SnapshotRolledForward() {
+        StockItem stockItem = stockItemRepository.saveAndFlush(new StockItem(UUID.randomUUID(), 5));
+        movementRepository.append(stockItem.getId(), MovementType.RECEIVE, 20, 0, null);
+        movementRepository.append(stockItem.getId(), MovementType.RESERVE, -8, 8, UUID.randomUUID());
+
+        movementRepository.snapshot(stockItem.getId());
+        movementRepository.append(stockItem.getId(), MovementType.RECEIVE, 3, 0, null);
+
+        StockItem balance = movementRepository.findBalance(stockItem.getId()).orElseThrow();
+        assertThat(balance.getQuantityAvailable()).isEqualTo(20);
+        assertThat(balance.getQuantityReserved()).isEqualTo(8);
+    }
+
+    @Test
+    void should_ListItemsMovedInRange() {
+        StockItem moved = stockItemRepository.saveAndFlush(new StockItem(UUID.randomUUID(), 0));
+        long before = movementRepository.maxMovementId();
+        movementRepository.append(moved.getId(), MovementType.RECEIVE, 1, 0, null);
+        movementRepository.append(moved.getId(), MovementType.RECEIVE, 1, 0, null);
+
+        assertThat(movementRepository.findItemsMovedBetween(before, movementRepository.maxMovementId()))
+                .containsExactly(moved.getId());
+    }
+
+    @Test
+    void should_OnlyMoveCompactionWatermarkForward() {
+        long start = movementRepository.compactedUpTo();
+
+        movementRepository.markCompacted(start + 10);
+        movementRepository.markCompacted(start + 4);
+
+        assertThat(movementRepository.compactedUpTo()).isEqualTo(start + 10);
+    }
+}
@@ -6,15 +6,21 @@ import com.lab.inventory.exception.InsufficientStockException;
 import com.lab.inventory.model.Reservation;
 import com.lab.inventory.model.ReservationStatus;
 import com.lab.inventory.model.StockItem;
+import com.lab.inventory.monitoring.HotProductTracker;
+import com.lab.inventory.monitoring.HotProductTracker.Outcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.lab.inventory.repository.ReservationRepository;
 import com.lab.inventory.repository.StockItemRepository;
+import com.lab.inventory.repository.StockLevel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -32,11 +38,20 @@ class InventoryServiceTest {
     @Mock
     private ReservationRepository reservationRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private HotProductTracker hotProductTracker;
+
     private InventoryService inventoryService;
 
     @BeforeEach
     void setUp() {
-        inventoryService = new InventoryService(stockItemRepository, reservationRepository);
+        hotProductTracker = new HotProductTracker(new SimpleMeterRegistry(), true, 10, 256, 4, Duration.ofMinutes(1));
+        inventoryService = new InventoryService(stockItemRepository, reservationRepository,
+                new CounterStockStore(stockItemRepository), eventPublisher,
+                new StockSnapshotCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 100),
+                hotProductTracker);
     }
 
     @Test
@@ -61,6 +76,7 @@ class InventoryServiceTest {
         verify(stockItemRepository).save(stockCaptor.capture());
         assertThat(stockCaptor.getValue().getQuantityAvailable()).isEqualTo(90);
         assertThat(stockCaptor.getValue().getQuantityReserved()).isEqualTo(10);
+        verify(eventPublisher).publishEvent(new StockChangedEvent(stockItem));
     }
 
     @Test
@@ -78,6 +94,28 @@ class InventoryServiceTest {
                 .hasMessageContaining("Insufficient stock");
 
         verify(reservationRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void should_TrackReservationOutcomes_When_Reserving() {
+        UUID productId = UUID.randomUUID();
+        StockItem stockItem = new StockItem(productId, 10);
+
+        when(stockItemRepository.findByProductId(productId)).thenReturn(Optional.of(stockItem));
+        when(reservationRepository.findByStockItemIdAndOrderId(any(), any())).thenReturn(Optional.empty());
+        when(stockItemRepository.save(any(StockItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        inventoryService.reserveStock(new ReserveStockRequest(productId, UUID.randomUUID(), 8));
+        assertThatThrownBy(() -> inventoryService.reserveStock(new ReserveStockRequest(productId, UUID.randomUUID(), 8)))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(hotProductTracker.hottest()).singleElement().satisfies(hot -> {
+            assertThat(hot.productId()).isEqualTo(productId);
+            assertThat(hot.operations()).isEqualTo(2);
+            assertThat(hot.outcomes()).containsEntry(Outcome.RESERVED, 1L).containsEntry(Outcome.INSUFFICIENT, 1L);
+        });
     }
 
     @Test
@@ -98,6 +136,7 @@ class InventoryServiceTest {
         assertThat(result).isSameAs(existingReservation);
         verify(stockItemRepository, never()).save(any());
         verify(reservationRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -124,6 +163,7 @@ class InventoryServiceTest {
         verify(stockItemRepository).save(stockCaptor.capture());
         assertThat(stockCaptor.getValue().getQuantityAvailable()).isEqualTo(90);
         assertThat(stockCaptor.getValue().getQuantityReserved()).isEqualTo(0);
+        verify(eventPublisher).publishEvent(new StockChangedEvent(stockItem));
     }
 
     @Test
@@ -161,5 +201,20 @@ class InventoryServiceTest {
         ArgumentCaptor<StockItem> captor = ArgumentCaptor.forClass(StockItem.class);
         verify(stockItemRepository).save(captor.capture());
         assertThat(captor.getValue().getQuantityAvailable()).isEqualTo(50);
+        verify(eventPublisher).publishEvent(new StockChangedEvent(existingItem));
+    }
+
+    @Test
+    void should_ServeStockFromCache_When_ReadAgainWithinTtl() {
+        UUID productId = UUID.randomUUID();
+        when(stockItemRepository.findLevelByProductId(productId))
+                .thenReturn(Optional.of(new StockLevel(UUID.randomUUID(), productId, 40, 0, 0, null)));
+
+        inventoryService.getStockForProduct(productId);
+        var result = inventoryService.getStockForProduct(productId);
+
+        assertThat(result.quantityAvailable()).isEqualTo(40);
+        verify(stockItemRepository, times(1)).findLevelByProductId(productId);
+        verify(stockItemRepository, never()).findByProductId(productId);
     }
 }
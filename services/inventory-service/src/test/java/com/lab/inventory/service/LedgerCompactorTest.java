@@ -0,0 +1,75 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.repository.StockMovementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerCompactorTest {
+
+    @Mock
+    private StockMovementRepository movementRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LedgerCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        compactor = new LedgerCompactor(movementRepository, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void should_ResumeFromStoredWatermark_When_Restarted() {
+        UUID stockItemId = UUID.randomUUID();
+        when(movementRepository.compactedUpTo()).thenReturn(900L);
+        when(movementRepository.maxMovementId()).thenReturn(950L);
+        when(movementRepository.findItemsMovedBetween(900L, 950L)).thenReturn(List.of(stockItemId));
+
+        compactor.compact();
+
+        verify(movementRepository).snapshot(stockItemId);
+        verify(movementRepository).markCompacted(950L);
+    }
+
+    @Test
+    void should_SkipRun_When_NothingMovedSinceWatermark() {
+        when(movementRepository.compactedUpTo()).thenReturn(950L);
+        when(movementRepository.maxMovementId()).thenReturn(950L);
+
+        compactor.compact();
+
+        verify(movementRepository, never()).findItemsMovedBetween(anyLong(), anyLong());
+        verify(movementRepository, never()).markCompacted(anyLong());
+    }
+
+    @Test
+    void should_KeepWatermark_When_RunFails() {
+        UUID stockItemId = UUID.randomUUID();
+        when(movementRepository.compactedUpTo()).thenReturn(900L);
+        when(movementRepository.maxMovementId()).thenReturn(950L);
+        when(movementRepository.findItemsMovedBetween(900L, 950L)).thenReturn(List.of(stockItemId));
+        doThrow(new DataAccessResourceFailureException("Connection reset")).when(movementRepository).snapshot(stockItemId);
+
+        assertThatThrownBy(compactor::compact).isInstanceOf(DataAccessResourceFailureException.class);
+
+        verify(movementRepository, never()).markCompacted(anyLong());
+    }
+}
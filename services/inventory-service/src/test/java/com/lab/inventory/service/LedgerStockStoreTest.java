@@ -0,0 +1,103 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.exception.InsufficientStockException;
+import com.lab.inventory.model.MovementType;
+import com.lab.inventory.model.StockItem;
+import com.lab.inventory.repository.StockItemRepository;
+import com.lab.inventory.repository.StockMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerStockStoreTest {
+
+    @Mock
+    private StockItemRepository stockItemRepository;
+
+    @Mock
+    private StockMovementRepository movementRepository;
+
+    private LedgerStockStore store;
+
+    private final UUID stockItemId = UUID.randomUUID();
+    private final UUID productId = UUID.randomUUID();
+    private final UUID orderId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        store = new LedgerStockStore(stockItemRepository, movementRepository);
+    }
+
+    @Test
+    void should_AppendReserveMovementUnderLock_When_EnoughAvailable() {
+        when(movementRepository.findBalance(stockItemId))
+                .thenReturn(Optional.of(balance(100, 0, 1)), Optional.of(balance(90, 10, 2)));
+
+        StockItem result = store.reserve(stockItem(), orderId, 10);
+
+        assertThat(result.getQuantityAvailable()).isEqualTo(90);
+        assertThat(result.getQuantityReserved()).isEqualTo(10);
+        assertThat(result.getVersion()).isEqualTo(2L);
+        InOrder inOrder = inOrder(movementRepository);
+        inOrder.verify(movementRepository).lockItem(stockItemId);
+        inOrder.verify(movementRepository).findBalance(stockItemId);
+        inOrder.verify(movementRepository).append(stockItemId, MovementType.RESERVE, -10, 10, orderId);
+        verify(stockItemRepository, never()).save(any());
+    }
+
+    @Test
+    void should_ThrowInsufficientStockAndAppendNothing_When_NotEnoughAvailable() {
+        when(movementRepository.findBalance(stockItemId)).thenReturn(Optional.of(balance(5, 0, 1)));
+
+        assertThatThrownBy(() -> store.reserve(stockItem(), orderId, 10))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("available 5");
+
+        verify(movementRepository, never()).append(any(), any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void should_AppendReleaseMovement_When_Released() {
+        when(movementRepository.findBalance(stockItemId)).thenReturn(Optional.of(balance(100, 0, 3)));
+
+        StockItem result = store.release(stockItem(), orderId, 10);
+
+        assertThat(result.getQuantityAvailable()).isEqualTo(100);
+        verify(movementRepository).lockItem(stockItemId);
+        verify(movementRepository).append(stockItemId, MovementType.RELEASE, 10, -10, orderId);
+    }
+
+    @Test
+    void should_CreateItemAndAppendReceive_When_NewProduct() {
+        when(stockItemRepository.findByProductId(productId)).thenReturn(Optional.empty());
+        when(stockItemRepository.saveAndFlush(any(StockItem.class))).thenReturn(stockItem());
+        when(movementRepository.findBalance(stockItemId)).thenReturn(Optional.of(balance(50, 0, 1)));
+
+        StockItem result = store.receive(productId, 50);
+
+        assertThat(result.getQuantityAvailable()).isEqualTo(50);
+        verify(stockItemRepository).saveAndFlush(argThat(item -> item.getQuantityAvailable() == 0));
+        verify(movementRepository).append(stockItemId, MovementType.RECEIVE, 50, 0, null);
+    }
+
+    private StockItem stockItem() {
+        return StockItem.ofBalance(stockItemId, productId, 0, 0, 0, Instant.now());
+    }
+
+    private StockItem balance(int available, int reserved, long version) {
+        return StockItem.ofBalance(stockItemId, productId, available, reserved, version, Instant.now());
+    }
+}
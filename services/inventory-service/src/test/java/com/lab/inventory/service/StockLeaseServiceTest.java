@@ -0,0 +1,164 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.dto.GrantLeaseRequest;
+import com.lab.inventory.dto.LeaseConsumption;
+import com.lab.inventory.dto.SettleLeaseRequest;
+import com.lab.inventory.exception.InsufficientStockException;
+import com.lab.inventory.exception.InvalidLeaseSettlementException;
+import com.lab.inventory.model.LeaseStatus;
+import com.lab.inventory.model.Reservation;
+import com.lab.inventory.model.StockItem;
+import com.lab.inventory.model.StockLease;
+import com.lab.inventory.repository.ReservationRepository;
+import com.lab.inventory.repository.StockItemRepository;
+import com.lab.inventory.repository.StockLeaseRepository;
+import com.lab.inventory.repository.StockLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLeaseServiceTest {
+
+    @Mock
+    private StockItemRepository stockItemRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private StockLeaseRepository leaseRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private StockLeaseService leaseService;
+
+    private final UUID productId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        leaseService = new StockLeaseService(stockItemRepository, reservationRepository, leaseRepository,
+                new CounterStockStore(stockItemRepository), eventPublisher, 500, Duration.ofMinutes(2));
+    }
+
+    @Test
+    void should_GrantOnlyWhatIsAvailable_When_MoreRequested() {
+        StockItem stockItem = new StockItem(productId, 20);
+        when(stockItemRepository.findByProductId(productId)).thenReturn(Optional.of(stockItem));
+        when(stockItemRepository.findLevelByProductId(productId)).thenReturn(Optional.of(level(stockItem)));
+        when(leaseRepository.save(any(StockLease.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(stockItemRepository.save(any(StockItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StockLease lease = leaseService.grantLease(new GrantLeaseRequest(productId, "order-1", 50, 30));
+
+        assertThat(lease.getQuantity()).isEqualTo(20);
+        assertThat(lease.getStatus()).isEqualTo(LeaseStatus.ACTIVE);
+        assertThat(stockItem.getQuantityAvailable()).isZero();
+        assertThat(stockItem.getQuantityReserved()).isEqualTo(20);
+        verify(eventPublisher).publishEvent(new StockChangedEvent(stockItem));
+    }
+
+    @Test
+    void should_CapTtl_When_LongerThanMaximum() {
+        StockItem stockItem = new StockItem(productId, 20);
+        when(stockItemRepository.findByProductId(productId)).thenReturn(Optional.of(stockItem));
+        when(stockItemRepository.findLevelByProductId(productId)).thenReturn(Optional.of(level(stockItem)));
+        when(leaseRepository.save(any(StockLease.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StockLease lease = leaseService.grantLease(new GrantLeaseRequest(productId, "order-1", 5, 3600));
+
+        assertThat(Duration.between(lease.getCreatedAt(), lease.getExpiresAt())).isEqualTo(Duration.ofMinutes(2));
+    }
+
+    @Test
+    void should_RefuseLease_When_NothingAvailable() {
+        StockItem stockItem = new StockItem(productId, 0);
+        when(stockItemRepository.findByProductId(productId)).thenReturn(Optional.of(stockItem));
+        when(stockItemRepository.findLevelByProductId(productId)).thenReturn(Optional.of(level(stockItem)));
+
+        assertThatThrownBy(() -> leaseService.grantLease(new GrantLeaseRequest(productId, "order-1", 50, 30)))
+                .isInstanceOf(InsufficientStockException.class);
+        verify(leaseRepository, never()).save(any());
+    }
+
+    @Test
+    void should_ReserveConsumedAndReleaseRest_When_Settled() {
+        StockItem stockItem = new StockItem(productId, 100);
+        stockItem.reserveStock(50);
+        StockLease lease = activeLease(stockItem, 50);
+        UUID orderA = UUID.randomUUID();
+        UUID orderB = UUID.randomUUID();
+        when(leaseRepository.findForUpdate(lease.getId())).thenReturn(Optional.of(lease));
+        when(stockItemRepository.findById(lease.getStockItemId())).thenReturn(Optional.of(stockItem));
+        when(reservationRepository.findByStockItemIdAndOrderId(any(), any())).thenReturn(Optional.empty());
+        when(leaseRepository.save(lease)).thenReturn(lease);
+
+        StockLease settled = leaseService.settleLease(lease.getId(), new SettleLeaseRequest(List.of(
+                new LeaseConsumption(orderA, 3), new LeaseConsumption(orderB, 5), new LeaseConsumption(orderA, 2))));
+
+        assertThat(settled.getStatus()).isEqualTo(LeaseStatus.SETTLED);
+        assertThat(settled.getConsumed()).isEqualTo(10);
+        ArgumentCaptor<Reservation> reservations = ArgumentCaptor.forClass(Reservation.class);
+        verify(reservationRepository, times(2)).save(reservations.capture());
+        assertThat(reservations.getAllValues())
+                .extracting(Reservation::getOrderId, Reservation::getQuantity)
+                .containsExactly(tuple(orderA, 5), tuple(orderB, 5));
+        // 40 unused units go back; the 10 consumed stay reserved for their orders
+        assertThat(stockItem.getQuantityAvailable()).isEqualTo(90);
+        assertThat(stockItem.getQuantityReserved()).isEqualTo(10);
+    }
+
+    @Test
+    void should_ChangeNothing_When_LeaseAlreadySettled() {
+        StockLease lease = activeLease(new StockItem(productId, 10), 10);
+        lease.settle(4);
+        when(leaseRepository.findForUpdate(lease.getId())).thenReturn(Optional.of(lease));
+
+        StockLease result = leaseService.settleLease(lease.getId(), new SettleLeaseRequest(List.of()));
+
+        assertThat(result.getConsumed()).isEqualTo(4);
+        verifyNoInteractions(reservationRepository, eventPublisher);
+    }
+
+    @Test
+    void should_RejectSettlement_When_MoreConsumedThanLeased() {
+        StockLease lease = activeLease(new StockItem(productId, 10), 5);
+        when(leaseRepository.findForUpdate(lease.getId())).thenReturn(Optional.of(lease));
+
+        assertThatThrownBy(() -> leaseService.settleLease(lease.getId(),
+                new SettleLeaseRequest(List.of(new LeaseConsumption(UUID.randomUUID(), 6)))))
+                .isInstanceOf(InvalidLeaseSettlementException.class);
+        verifyNoInteractions(reservationRepository);
+    }
+
+    private StockLease activeLease(StockItem stockItem, int quantity) {
+        Instant now = Instant.now();
+        StockLease lease = new StockLease(UUID.randomUUID(), stockItem.getProductId(), "order-1", quantity,
+                now, now.plusSeconds(30));
+        ReflectionTestUtils.setField(lease, "id", UUID.randomUUID());
+        return lease;
+    }
+
+    private static StockLevel level(StockItem stockItem) {
+        return new StockLevel(stockItem.getId(), stockItem.getProductId(), stockItem.getQuantityAvailable(),
+                stockItem.getQuantityReserved(), 0, stockItem.getLastUpdated());
+    }
+}
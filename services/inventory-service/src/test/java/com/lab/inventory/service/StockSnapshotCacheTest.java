@@ -0,0 +1,147 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.exception.StockItemNotFoundException;
+import com.lab.inventory.model.StockItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StockSnapshotCacheTest {
+
+    private final UUID productId = UUID.randomUUID();
+
+    @Test
+    void should_ReturnWrittenThroughSnapshot_When_StockChangeCommitted() {
+        StockSnapshotCache cache = cache(Duration.ofMinutes(1), 100);
+
+        cache.onStockChanged(new StockChangedEvent(stockItem(30, 2)));
+
+        assertThat(cache.get(productId, failingLoader()).quantityAvailable()).isEqualTo(30);
+    }
+
+    @Test
+    void should_KeepNewerSnapshot_When_OlderVersionWrittenLater() {
+        StockSnapshotCache cache = cache(Duration.ofMinutes(1), 100);
+
+        cache.onStockChanged(new StockChangedEvent(stockItem(20, 5)));
+        cache.onStockChanged(new StockChangedEvent(stockItem(50, 4)));
+
+        assertThat(cache.get(productId, failingLoader()).quantityAvailable()).isEqualTo(20);
+    }
+
+    @Test
+    void should_ReloadFromDatabase_When_SnapshotOlderThanTtl() {
+        StockSnapshotCache cache = cache(Duration.ZERO, 100);
+        cache.onStockChanged(new StockChangedEvent(stockItem(20, 1)));
+
+        var result = cache.get(productId, id -> stockItem(15, 2));
+
+        assertThat(result.quantityAvailable()).isEqualTo(15);
+    }
+
+    @Test
+    void should_NotReplaceNewerSnapshot_When_LoaderReturnsStaleVersion() {
+        StockSnapshotCache cache = cache(Duration.ZERO, 100);
+        cache.onStockChanged(new StockChangedEvent(stockItem(20, 7)));
+
+        // e.g. a lagging read replica
+        var result = cache.get(productId, id -> stockItem(60, 6));
+
+        assertThat(result.quantityAvailable()).isEqualTo(20);
+    }
+
+    @Test
+    void should_PropagateAndNotCache_When_LoaderFails() {
+        StockSnapshotCache cache = cache(Duration.ofMinutes(1), 100);
+
+        assertThatThrownBy(() -> cache.get(productId, failingLoader()))
+                .isInstanceOf(StockItemNotFoundException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void should_LoadOnce_When_ConcurrentMissesForSameProduct() throws Exception {
+        StockSnapshotCache cache = cache(Duration.ofMinutes(1), 100);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<UUID, StockItem> slowLoader = id -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return stockItem(10, 1);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> cache.get(productId, slowLoader));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> second = executor.submit(() -> cache.get(productId, slowLoader));
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void should_SkipCaching_When_Full() {
+        StockSnapshotCache cache = cache(Duration.ofMinutes(1), 1);
+        cache.get(UUID.randomUUID(), id -> new StockItem(id, 1));
+
+        cache.get(productId, id -> stockItem(10, 1));
+
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void should_AlwaysLoad_When_Disabled() {
+        StockSnapshotCache cache = new StockSnapshotCache(new SimpleMeterRegistry(), false, Duration.ofMinutes(1), 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(productId, id -> { loads.incrementAndGet(); return stockItem(10, 1); });
+        cache.get(productId, id -> { loads.incrementAndGet(); return stockItem(10, 1); });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private static StockSnapshotCache cache(Duration ttl, int maxEntries) {
+        return new StockSnapshotCache(new SimpleMeterRegistry(), true, ttl, maxEntries);
+    }
+
+    private StockItem stockItem(int available, long version) {
+        StockItem stockItem = new StockItem(productId, available);
+        ReflectionTestUtils.setField(stockItem, "version", version);
+        return stockItem;
+    }
+
+    private static Function<UUID, StockItem> failingLoader() {
+        return id -> {
+            throw new StockItemNotFoundException(id);
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
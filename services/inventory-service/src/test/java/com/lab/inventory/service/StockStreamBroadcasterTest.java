@@ -0,0 +1,190 @@
+package com.lab.inventory.service;
+
+import com.lab.inventory.dto.StockLevelResponse;
+import com.lab.inventory.model.StockItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockStreamBroadcasterTest {
+
+    private StockStreamBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+    }
+
+    @Test
+    void should_SendLatestLevelOnce_When_ProductChangesWithinWindow() throws Exception {
+        broadcaster = startBroadcaster(100);
+        UUID productId = UUID.randomUUID();
+        RecordingEmitter emitter = new RecordingEmitter(1);
+        broadcaster.subscribe(List.of(), emitter);
+
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(productId, 90, 1)));
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(productId, 80, 2)));
+        broadcaster.flush();
+
+        assertThat(emitter.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.levels).singleElement().satisfies(level -> {
+            assertThat(level.quantityAvailable()).isEqualTo(80);
+            assertThat(level.version()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void should_KeepNewerVersion_When_ChangesArriveOutOfOrder() throws Exception {
+        broadcaster = startBroadcaster(100);
+        UUID productId = UUID.randomUUID();
+        RecordingEmitter emitter = new RecordingEmitter(1);
+        broadcaster.subscribe(List.of(), emitter);
+
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(productId, 70, 5)));
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(productId, 90, 4)));
+        broadcaster.flush();
+
+        assertThat(emitter.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.levels).singleElement().extracting(StockLevelResponse::version).isEqualTo(5L);
+    }
+
+    @Test
+    void should_OnlySendFollowedProducts_When_SubscribedWithFilter() throws Exception {
+        broadcaster = startBroadcaster(100);
+        UUID followed = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        RecordingEmitter emitter = new RecordingEmitter(1);
+        broadcaster.subscribe(Set.of(followed), emitter);
+
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(other, 10, 1)));
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(followed, 20, 1)));
+        broadcaster.flush();
+
+        assertThat(emitter.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.levels).extracting(StockLevelResponse::productId).containsExactly(followed);
+    }
+
+    @Test
+    void should_DisconnectSubscriber_When_PendingProductsExceedLimit() throws Exception {
+        broadcaster = startBroadcaster(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingEmitter slow = new BlockingEmitter(release);
+        broadcaster.subscribe(List.of(), slow);
+
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(UUID.randomUUID(), 10, 1)));
+        broadcaster.flush();
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The first send is stuck; two more products back up behind it
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(UUID.randomUUID(), 10, 1)));
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(UUID.randomUUID(), 10, 1)));
+        broadcaster.flush();
+
+        // Dropped without waiting on the stuck send; the sender completes the emitter once it returns
+        assertThat(broadcaster.subscriberCount()).isZero();
+        assertThat(slow.completed.getCount()).isEqualTo(1);
+        release.countDown();
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void should_DisconnectSubscriber_When_SendStaysBlocked() throws Exception {
+        broadcaster = startBroadcaster(100, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingEmitter stalled = new BlockingEmitter(release);
+        RecordingEmitter healthy = new RecordingEmitter(2);
+        broadcaster.subscribe(List.of(), stalled);
+        broadcaster.subscribe(List.of(), healthy);
+
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(UUID.randomUUID(), 10, 1)));
+        broadcaster.flush();
+        assertThat(stalled.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+
+        broadcaster.onStockChanged(new StockChangedEvent(stockItem(UUID.randomUUID(), 10, 1)));
+        broadcaster.flush();
+
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        assertThat(healthy.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        assertThat(stalled.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static StockStreamBroadcaster startBroadcaster(int maxPending) {
+        return startBroadcaster(maxPending, Duration.ofMinutes(1));
+    }
+
+    private static StockStreamBroadcaster startBroadcaster(int maxPending, Duration sendTimeout) {
+        StockStreamBroadcaster broadcaster = new StockStreamBroadcaster(new SimpleMeterRegistry(),
+                Duration.ofHours(1), Duration.ofHours(1), Duration.ofMinutes(1), maxPending, sendTimeout, 2);
+        broadcaster.start();
+        return broadcaster;
+    }
+
+    private static StockItem stockItem(UUID productId, int available, long version) {
+        StockItem stockItem = new StockItem(productId, available);
+        ReflectionTestUtils.setField(stockItem, "version", version);
+        return stockItem;
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<StockLevelResponse> levels = new CopyOnWriteArrayList<>();
+        final CountDownLatch sent;
+
+        RecordingEmitter(int expected) {
+            this.sent = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof StockLevelResponse level) {
+                    levels.add(level);
+                }
+            }
+            sent.countDown();
+        }
+    }
+
+    private static class BlockingEmitter extends SseEmitter {
+
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        final CountDownLatch release;
+
+        BlockingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.lab.order.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lab.order.client.InventoryServiceClient.ReservationInfo;
+import com.lab.order.client.ProductServiceClient.ProductInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of the product and reservation payloads exchanged on every order, JSON
+ * against CBOR, using the same Jackson setup as the HTTP message converters. Payload sizes
+ * are printed once per fork; {@code -prof gc} adds allocated bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InternalEncodingBenchmark {
+
+    @Param({"json", "cbor"})
+    private String encoding;
+
+    private ObjectMapper mapper;
+    private ProductInfo product;
+    private ReservationInfo reservation;
+    private byte[] productBytes;
+    private byte[] reservationBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = "cbor".equals(encoding)
+                ? Jackson2ObjectMapperBuilder.cbor().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        product = new ProductInfo(UUID.randomUUID(), "Mechanical Keyboard (ISO layout)", new BigDecimal("129.99"));
+        reservation = new ReservationInfo(UUID.randomUUID(), product.id(), 3);
+        productBytes = mapper.writeValueAsBytes(product);
+        reservationBytes = mapper.writeValueAsBytes(reservation);
+        System.out.printf("%n%s payload bytes: ProductInfo=%d ReservationInfo=%d%n",
+                encoding, productBytes.length, reservationBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeProduct() throws IOException {
+        return mapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public ProductInfo readProduct() throws IOException {
+        return mapper.readValue(productBytes, ProductInfo.class);
+    }
+
+    @Benchmark
+    public byte[] writeReservation() throws IOException {
+        return mapper.writeValueAsBytes(reservation);
+    }
+
+    @Benchmark
+    public ReservationInfo readReservation() throws IOException {
+        return mapper.readValue(reservationBytes, ReservationInfo.class);
+    }
+}
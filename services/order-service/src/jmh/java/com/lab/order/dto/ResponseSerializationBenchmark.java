@@ -0,0 +1,76 @@
+package com.lab.order.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.lab.order.config.JacksonConfig;
+import com.lab.order.model.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of writing a large {@code GET /api/orders} body with the stock
+ * ObjectMapper against the one {@link JacksonConfig} builds (Blackbird accessors, pooled
+ * buffers). Writes to a discarding stream, like the converter writing to the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"default", "tuned"})
+    private String mapper;
+
+    @Param({"1000", "10000"})
+    private int orders;
+
+    private ObjectMapper objectMapper;
+    private List<OrderResponse> body;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("tuned".equals(mapper)) {
+            builder.modulesToInstall(new BlackbirdModule()).factory(JacksonConfig.jsonFactory());
+        }
+        objectMapper = builder.build();
+
+        body = new ArrayList<>(orders);
+        Instant createdAt = Instant.parse("2026-10-01T12:00:00Z");
+        for (int i = 0; i < orders; i++) {
+            List<LineItemResponse> items = List.of(
+                    new LineItemResponse(UUID.randomUUID(), UUID.randomUUID(), "Laptop", 1,
+                            new BigDecimal("999.99"), new BigDecimal("999.99")),
+                    new LineItemResponse(UUID.randomUUID(), UUID.randomUUID(), "USB-C Cable", 3,
+                            new BigDecimal("9.99"), new BigDecimal("29.97")));
+            body.add(new OrderResponse(UUID.randomUUID(), "Customer " + i, OrderStatus.CONFIRMED,
+                    new BigDecimal("1029.96"), createdAt.plusSeconds(i), items));
+        }
+    }
+
+    @Benchmark
+    public void writeOrders() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), body);
+    }
+}
@@ -0,0 +1,88 @@
+package com.lab.order.monitoring;
+
+import com.lab.order.monitoring.QueryRecorder.Series;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the query-timing row counter adds to reading a result set: an in-memory result set read
+ * bare and through {@link QueryTimingDataSource#countRows}. The rows mirror the order list
+ * projection (id, customer, quantity, price), so the per-column getters dominate as they do in
+ * the application. {@code -prof gc} shows the proxy's argument arrays and boxing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowCountingBenchmark {
+
+    @Param({"raw", "counted"})
+    private String wrapper;
+
+    @Param({"10", "500"})
+    private int rows;
+
+    private CachedRowSet rowSet;
+    private Series series;
+
+    @Setup
+    public void setUp() throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(4);
+        metaData.setColumnType(1, Types.VARCHAR);
+        metaData.setColumnType(2, Types.VARCHAR);
+        metaData.setColumnType(3, Types.INTEGER);
+        metaData.setColumnType(4, Types.NUMERIC);
+        rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        for (int i = 0; i < rows; i++) {
+            rowSet.moveToInsertRow();
+            rowSet.updateString(1, UUID.randomUUID().toString());
+            rowSet.updateString(2, "Customer " + i);
+            rowSet.updateInt(3, i % 5 + 1);
+            rowSet.updateBigDecimal(4, new BigDecimal("129.99"));
+            rowSet.insertRow();
+        }
+        rowSet.moveToCurrentRow();
+        QueryRecorder recorder = new QueryRecorder(new SimpleMeterRegistry(), Duration.ofSeconds(1), 10, 10);
+        series = recorder.executed(recorder.fingerprint("select * from orders"), 0, List.of());
+    }
+
+    @Benchmark
+    public void readAllRows(Blackhole blackhole) throws SQLException {
+        rowSet.beforeFirst();
+        // Not closed: closing would drop the cached rows; close runs once per query anyway
+        ResultSet resultSet = "counted".equals(wrapper) ? QueryTimingDataSource.countRows(rowSet, series) : rowSet;
+        while (resultSet.next()) {
+            blackhole.consume(resultSet.getString(1));
+            blackhole.consume(resultSet.getString(2));
+            blackhole.consume(resultSet.getInt(3));
+            blackhole.consume(resultSet.getBigDecimal(4));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.lab.order.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caps concurrent reservation calls to inventory-service at a limit learned from response
+ * times (gradient): while RTTs stay near the long-run baseline the limit grows by roughly
+ * {@code sqrt(limit)}, and as they climb (queueing on the inventory side) it shrinks in
+ * proportion. Timeouts and 5xx answers cut it by 10%. Calls over the limit wait up to
+ * {@code max-queue-wait} for a slot, then fail fast with {@link ConcurrencyLimitExceededException}.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LONG_RTT_WINDOW = 600;
+    private static final double DROP_FACTOR = 0.9;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxQueueWaitNanos;
+    private final double rttTolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private volatile double limit;
+    private double longRttNanos;
+
+    private final Timer rtt;
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${services.inventory-service.concurrency.enabled:true}") boolean enabled,
+                                      @Value("${services.inventory-service.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${services.inventory-service.concurrency.min-limit:4}") int minLimit,
+                                      @Value("${services.inventory-service.concurrency.max-limit:200}") int maxLimit,
+                                      @Value("${services.inventory-service.concurrency.max-queue:50}") int maxQueue,
+                                      @Value("${services.inventory-service.concurrency.max-queue-wait:50ms}") Duration maxQueueWait,
+                                      @Value("${services.inventory-service.concurrency.rtt-tolerance:1.5}") double rttTolerance,
+                                      @Value("${services.inventory-service.concurrency.smoothing:0.2}") double smoothing) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        this.rtt = Timer.builder("inventory.client.latency")
+                .description("Round-trip time of reservation calls that got an answer")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("inventory.client.concurrency.rejected")
+                .description("Reservation calls refused because the concurrency limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("inventory.client.concurrency.limit", this, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive limit on concurrent reservation calls")
+                .register(meterRegistry);
+        Gauge.builder("inventory.client.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("Reservation calls currently in flight")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        acquire();
+        int inFlightAtStart = inFlight.get();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onSample(System.nanoTime() - start, inFlightAtStart);
+            return result;
+        } catch (HttpServerErrorException | ResourceAccessException ex) {
+            // Overload symptoms: 5xx, timeouts, refused connections
+            onDrop();
+            throw ex;
+        } catch (RuntimeException ex) {
+            // Any other answer (e.g. 409 insufficient stock) still measured a round trip
+            onSample(System.nanoTime() - start, inFlightAtStart);
+            throw ex;
+        } finally {
+            release();
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    void onSample(long rttNanos, int inFlightAtStart) {
+        rtt.record(rttNanos, TimeUnit.NANOSECONDS);
+        lock.lock();
+        try {
+            longRttNanos = longRttNanos == 0
+                    ? rttNanos
+                    : longRttNanos + (rttNanos - longRttNanos) / LONG_RTT_WINDOW;
+            // Only learn from calls that actually used most of the limit
+            if (inFlightAtStart * 2 < limit) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+            double target = limit * gradient + Math.sqrt(limit);
+            limit = clamp(limit * (1 - smoothing) + target * smoothing);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onDrop() {
+        lock.lock();
+        try {
+            limit = clamp(limit * DROP_FACTOR);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire() {
+        if (tryAcquire()) {
+            return;
+        }
+        if (maxQueueWaitNanos <= 0) {
+            throw reject();
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            throw reject();
+        }
+        long deadline = System.nanoTime() + maxQueueWaitNanos;
+        lock.lock();
+        try {
+            while (!tryAcquire()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw reject();
+                }
+                slotFreed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw reject();
+        } finally {
+            queued.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    private boolean tryAcquire() {
+        int current = inFlight.get();
+        while (current < (int) limit) {
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = inFlight.get();
+        }
+        return false;
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        if (queued.get() > 0) {
+            lock.lock();
+            try {
+                slotFreed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ConcurrencyLimitExceededException reject() {
+        rejected.increment();
+        return new ConcurrencyLimitExceededException(
+                "Inventory concurrency limit of " + limit() + " reached, not sending reservation");
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,13 @@
+package com.lab.order.client;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown instead of calling a downstream service whose concurrency limit is used up.
+ */
+public class ConcurrencyLimitExceededException extends RestClientException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
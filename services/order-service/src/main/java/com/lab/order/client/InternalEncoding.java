@@ -0,0 +1,25 @@
+package com.lab.order.client;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Media types for calls to product-service and inventory-service. With binary encoding on,
+ * request bodies go out as CBOR and CBOR responses are preferred; JSON stays acceptable so
+ * an instance that does not negotiate CBOR yet still answers.
+ */
+final class InternalEncoding {
+
+    private static final MediaType[] BINARY_ACCEPT = {MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON};
+    private static final MediaType[] JSON_ACCEPT = {MediaType.APPLICATION_JSON};
+
+    private InternalEncoding() {
+    }
+
+    static MediaType[] accept(boolean binary) {
+        return binary ? BINARY_ACCEPT.clone() : JSON_ACCEPT.clone();
+    }
+
+    static MediaType contentType(boolean binary) {
+        return binary ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON;
+    }
+}
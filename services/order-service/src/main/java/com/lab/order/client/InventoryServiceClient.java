@@ -1,38 +1,92 @@
 package com.lab.order.client;
 
+import com.lab.order.dto.LeaseConsumption;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Component
 public class InventoryServiceClient {
 
     private final RestClient restClient;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final MediaType[] accept;
+    private final MediaType contentType;
 
     public InventoryServiceClient(RestClient.Builder restClientBuilder,
-                                  @Value("${services.inventory-service.url}") String baseUrl) {
+                                  @Value("${services.inventory-service.url}") String baseUrl,
+                                  AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                  @Value("${services.binary-encoding.enabled:true}") boolean binaryEncoding) {
         this.restClient = restClientBuilder.baseUrl(baseUrl).build();
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.accept = InternalEncoding.accept(binaryEncoding);
+        this.contentType = InternalEncoding.contentType(binaryEncoding);
     }
 
     public ReservationInfo reserveStock(UUID productId, UUID orderId, int quantity) {
         var payload = new ReserveStockPayload(productId, orderId, quantity);
-        return restClient.post()
+        return concurrencyLimiter.execute(() -> restClient.post()
                 .uri("/api/inventory/reservations")
+                .contentType(contentType)
+                .accept(accept)
                 .body(payload)
                 .retrieve()
-                .body(ReservationInfo.class);
+                .body(ReservationInfo.class));
     }
 
+    // Compensation is not limited: releasing stock also relieves inventory-service
     public void cancelReservation(UUID reservationId) {
         restClient.delete()
                 .uri("/api/inventory/reservations/{id}", reservationId)
+                .accept(accept)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    // Lease calls are few and off the request path; plain JSON, no concurrency limit
+
+    public LeaseInfo grantLease(UUID productId, String holder, int quantity, Duration ttl) {
+        return restClient.post()
+                .uri("/internal/inventory/leases")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(new GrantLeasePayload(productId, holder, quantity, (int) ttl.toSeconds()))
+                .retrieve()
+                .body(LeaseInfo.class);
+    }
+
+    public void settleLease(UUID leaseId, List<LeaseConsumption> consumed) {
+        restClient.post()
+                .uri("/internal/inventory/leases/{id}/settlement", leaseId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(new SettleLeasePayload(consumed))
                 .retrieve()
                 .toBodilessEntity();
     }
 
+    public List<LeaseInfo> findUnsettledLeases(Instant expiredBefore) {
+        return restClient.get()
+                .uri(uri -> uri.path("/internal/inventory/leases").queryParam("expiredBefore", expiredBefore).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<LeaseInfo>>() {});
+    }
+
     public record ReservationInfo(UUID id, UUID productId, int quantity) {}
 
+    public record LeaseInfo(UUID id, UUID productId, int quantity, Instant createdAt, Instant expiresAt) {}
+
+    public record GrantLeasePayload(UUID productId, String holder, int quantity, int ttlSeconds) {}
+
+    public record SettleLeasePayload(List<LeaseConsumption> consumed) {}
+
     public record ReserveStockPayload(UUID productId, UUID orderId, int quantity) {}
 }
@@ -1,6 +1,7 @@
 package com.lab.order.client;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
@@ -11,17 +12,29 @@ import java.util.UUID;
 public class ProductServiceClient {
 
     private final RestClient restClient;
+    private final RequestHedger requestHedger;
+    private final RequestCoalescer requestCoalescer;
+    private final MediaType[] accept;
 
     public ProductServiceClient(RestClient.Builder restClientBuilder,
-                                @Value("${services.product-service.url}") String baseUrl) {
+                                @Value("${services.product-service.url}") String baseUrl,
+                                RequestHedger requestHedger,
+                                RequestCoalescer requestCoalescer,
+                                @Value("${services.binary-encoding.enabled:true}") boolean binaryEncoding) {
         this.restClient = restClientBuilder.baseUrl(baseUrl).build();
+        this.requestHedger = requestHedger;
+        this.requestCoalescer = requestCoalescer;
+        this.accept = InternalEncoding.accept(binaryEncoding);
     }
 
     public ProductInfo getProduct(UUID productId) {
-        return restClient.get()
+        // Concurrent lookups for the same product share one call; GET is idempotent,
+        // so a slow lookup may also be hedged with a second request
+        return requestCoalescer.execute(productId, () -> requestHedger.execute(() -> restClient.get()
                 .uri("/api/products/{id}", productId)
+                .accept(accept)
                 .retrieve()
-                .body(ProductInfo.class);
+                .body(ProductInfo.class)));
     }
 
     public record ProductInfo(UUID id, String name, BigDecimal price) {}
@@ -0,0 +1,49 @@
+package com.lab.order.client;
+
+import com.lab.order.client.InventoryServiceClient.ReservationInfo;
+import com.lab.order.client.InventoryServiceClient.ReserveStockPayload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Component
+@Profile("reactive")
+public class ReactiveInventoryServiceClient {
+
+    private final WebClient webClient;
+    private final MediaType[] accept;
+    private final MediaType contentType;
+
+    public ReactiveInventoryServiceClient(WebClient.Builder webClientBuilder,
+                                          @Value("${services.inventory-service.url}") String baseUrl,
+                                          @Value("${services.binary-encoding.enabled:true}") boolean binaryEncoding) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.accept = InternalEncoding.accept(binaryEncoding);
+        this.contentType = InternalEncoding.contentType(binaryEncoding);
+    }
+
+    public Mono<ReservationInfo> reserveStock(UUID productId, UUID orderId, int quantity) {
+        var payload = new ReserveStockPayload(productId, orderId, quantity);
+        return webClient.post()
+                .uri("/api/inventory/reservations")
+                .contentType(contentType)
+                .accept(accept)
+                .bodyValue(payload)
+                .retrieve()
+                .bodyToMono(ReservationInfo.class);
+    }
+
+    public Mono<Void> cancelReservation(UUID reservationId) {
+        return webClient.delete()
+                .uri("/api/inventory/reservations/{id}", reservationId)
+                .accept(accept)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+}
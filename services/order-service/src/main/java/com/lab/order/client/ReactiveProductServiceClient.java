@@ -0,0 +1,34 @@
+package com.lab.order.client;
+
+import com.lab.order.client.ProductServiceClient.ProductInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Component
+@Profile("reactive")
+public class ReactiveProductServiceClient {
+
+    private final WebClient webClient;
+    private final MediaType[] accept;
+
+    public ReactiveProductServiceClient(WebClient.Builder webClientBuilder,
+                                        @Value("${services.product-service.url}") String baseUrl,
+                                        @Value("${services.binary-encoding.enabled:true}") boolean binaryEncoding) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.accept = InternalEncoding.accept(binaryEncoding);
+    }
+
+    public Mono<ProductInfo> getProduct(UUID productId) {
+        return webClient.get()
+                .uri("/api/products/{id}", productId)
+                .accept(accept)
+                .retrieve()
+                .bodyToMono(ProductInfo.class);
+    }
+}
@@ -0,0 +1,107 @@
+package com.lab.order.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing: concurrent calls for the same key share one in-flight
+ * call and its outcome. The entry is dropped as soon as the call completes, so
+ * nothing is cached afterwards.
+ * <p>
+ * A waiter gives the shared call at most {@code max-wait} of its own time budget. If the
+ * call is still running by then, the waiter makes its own call, so one stuck call cannot
+ * hold every lookup for the same key until it times out.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter fallbacks;
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${services.product-service.coalescing.enabled:true}") boolean enabled,
+                            @Value("${services.product-service.coalescing.max-wait:1s}") Duration maxWait) {
+        this.enabled = enabled;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.leaders = Counter.builder("product.client.coalescing.calls")
+                .description("Product lookups that issued an HTTP call")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("product.client.coalescing.joined")
+                .description("Product lookups that joined an in-flight call instead of issuing their own")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("product.client.coalescing.fallbacks")
+                .description("Joined lookups that gave up on the in-flight call after max-wait and called on their own")
+                .register(meterRegistry);
+        Gauge.builder("product.client.coalescing.in.flight", inFlight, Map::size)
+                .description("Distinct product lookups currently in flight")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return (T) await(existing);
+            } catch (TimeoutException ex) {
+                fallbacks.increment();
+                return call.get();
+            }
+        }
+
+        leaders.increment();
+        try {
+            T value = call.get();
+            inFlight.remove(key, flight);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Object await(CompletableFuture<Object> flight) throws TimeoutException {
+        try {
+            return flight.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while waiting for product lookup", ex);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.lab.order.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent product lookups: if the first attempt has not answered within
+ * the configured latency percentile, a second attempt is sent and the first
+ * successful response wins; the other attempt is then cancelled. Hedges are capped
+ * at a percentage of all requests, and a lookup that could not be hedged anyway runs
+ * on the caller's thread.
+ */
+@Component
+public class RequestHedger implements DisposableBean {
+
+    private final boolean enabled;
+    private final double maxHedgeRatio;
+    private final Duration initialDelay;
+    private final Duration minDelay;
+    private final long minSamples;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer latency;
+    private final Counter requests;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong hedgeCount = new AtomicLong();
+
+    public RequestHedger(MeterRegistry meterRegistry,
+                         @Value("${services.product-service.hedging.enabled:false}") boolean enabled,
+                         @Value("${services.product-service.hedging.percentile:0.95}") double percentile,
+                         @Value("${services.product-service.hedging.max-hedge-percent:10}") double maxHedgePercent,
+                         @Value("${services.product-service.hedging.initial-delay:50ms}") Duration initialDelay,
+                         @Value("${services.product-service.hedging.min-delay:5ms}") Duration minDelay,
+                         @Value("${services.product-service.hedging.min-samples:100}") long minSamples,
+                         @Value("${services.product-service.hedging.threads:32}") int threads) {
+        this.enabled = enabled;
+        this.maxHedgeRatio = maxHedgePercent / 100.0;
+        this.initialDelay = initialDelay;
+        this.minDelay = minDelay;
+        this.minSamples = minSamples;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(threads * 4), daemonThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.latency = Timer.builder("product.client.latency")
+                .description("Latency of individual product lookup attempts")
+                .publishPercentiles(percentile)
+                .register(meterRegistry);
+        this.requests = Counter.builder("product.client.hedge.requests")
+                .description("Product lookups eligible for hedging")
+                .register(meterRegistry);
+        this.hedges = Counter.builder("product.client.hedge.sent")
+                .description("Hedged product lookups sent")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("product.client.hedge.wins")
+                .description("Hedged product lookups that answered before the original")
+                .register(meterRegistry);
+        Gauge.builder("product.client.hedge.rate", this, h -> ratio(h.hedges.count(), h.requests.count()))
+                .description("Fraction of product lookups that were hedged")
+                .register(meterRegistry);
+        Gauge.builder("product.client.hedge.win.rate", this, h -> ratio(h.hedgeWins.count(), h.hedges.count()))
+                .description("Fraction of hedges that won")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        requestCount.incrementAndGet();
+        requests.increment();
+
+        if (!hedgeBudgetLeft()) {
+            // No hedge could be sent, so a pool thread would only cost a hop
+            return latency.record(call);
+        }
+        Attempts<T> attempts = new Attempts<>();
+        if (!submit(call, attempts, false)) {
+            // Pool saturated: fall back to a plain synchronous call
+            return latency.record(call);
+        }
+        try {
+            return attempts.result.get(hedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            if (tryAcquireHedge()) {
+                if (submit(call, attempts, true)) {
+                    hedges.increment();
+                } else {
+                    hedgeCount.decrementAndGet();
+                }
+            }
+            return await(attempts.result);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while waiting for product lookup", ex);
+        }
+    }
+
+    Duration hedgeDelay() {
+        if (latency.count() < minSamples) {
+            return initialDelay;
+        }
+        ValueAtPercentile[] percentiles = latency.takeSnapshot().percentileValues();
+        if (percentiles.length == 0 || percentiles[0].value() <= 0) {
+            return initialDelay;
+        }
+        Duration observed = Duration.ofNanos((long) percentiles[0].value(TimeUnit.NANOSECONDS));
+        return observed.compareTo(minDelay) < 0 ? minDelay : observed;
+    }
+
+    private boolean hedgeBudgetLeft() {
+        return hedgeCount.get() + 1 <= requestCount.get() * maxHedgeRatio;
+    }
+
+    private boolean tryAcquireHedge() {
+        long hedgesSoFar = hedgeCount.get();
+        while (hedgesSoFar + 1 <= requestCount.get() * maxHedgeRatio) {
+            if (hedgeCount.compareAndSet(hedgesSoFar, hedgesSoFar + 1)) {
+                return true;
+            }
+            hedgesSoFar = hedgeCount.get();
+        }
+        return false;
+    }
+
+    private <T> boolean submit(Supplier<T> call, Attempts<T> attempts, boolean hedge) {
+        attempts.pending.incrementAndGet();
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        int index = attempts.futures.size();
+        FutureTask<Void> task = new FutureTask<>(
+                () -> withContext(context, () -> attempt(call, attempts, index, hedge)), null);
+        attempts.futures.add(task);
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            attempts.pending.decrementAndGet();
+            return false;
+        }
+    }
+
+    private <T> void attempt(Supplier<T> call, Attempts<T> attempts, int index, boolean hedge) {
+        if (attempts.result.isDone()) {
+            return;
+        }
+        try {
+            T value = latency.record(call);
+            if (attempts.won.compareAndSet(false, true)) {
+                // Counted before the caller can see the result
+                if (hedge) {
+                    hedgeWins.increment();
+                }
+                attempts.result.complete(value);
+                attempts.cancelAllBut(index);
+            }
+        } catch (RuntimeException ex) {
+            // Only fail the lookup once every attempt has failed
+            if (attempts.pending.decrementAndGet() == 0) {
+                attempts.result.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private static void withContext(Map<String, String> context, Runnable task) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(previous);
+            }
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while waiting for product lookup", ex);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new RestClientException("Product lookup failed", cause);
+    }
+
+    private static double ratio(double numerator, double denominator) {
+        return denominator == 0 ? 0.0 : numerator / denominator;
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("product-hedge-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static final class Attempts<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean won = new AtomicBoolean();
+        private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+
+        /**
+         * Interrupts the attempts still in flight once one of them has answered.
+         */
+        void cancelAllBut(int winner) {
+            for (int i = 0; i < futures.size(); i++) {
+                if (i != winner) {
+                    futures.get(i).cancel(true);
+                }
+            }
+        }
+    }
+}
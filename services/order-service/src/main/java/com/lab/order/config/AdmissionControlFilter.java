@@ -0,0 +1,97 @@
+package com.lab.order.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lab.order.monitoring.PoolPressureMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Turns requests away with 503 and {@code Retry-After} while the connection pool is saturated,
+ * instead of letting them queue on Tomcat threads until they time out. Writes are shed as soon
+ * as connection waits exceed {@code maxAcquireWait} or pressure reaches {@code writePressureLimit};
+ * reads are only shed at the higher {@code readPressureLimit}.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final PoolPressureMonitor monitor;
+    private final ObjectMapper objectMapper;
+    private final Duration maxAcquireWait;
+    private final double writePressureLimit;
+    private final double readPressureLimit;
+    private final Duration maxRetryAfter;
+    private final Counter rejectedWrites;
+    private final Counter rejectedReads;
+
+    public AdmissionControlFilter(PoolPressureMonitor monitor,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  Duration maxAcquireWait,
+                                  double writePressureLimit,
+                                  double readPressureLimit,
+                                  Duration maxRetryAfter) {
+        this.monitor = monitor;
+        this.objectMapper = objectMapper;
+        this.maxAcquireWait = maxAcquireWait;
+        this.writePressureLimit = writePressureLimit;
+        this.readPressureLimit = readPressureLimit;
+        this.maxRetryAfter = maxRetryAfter;
+        this.rejectedWrites = rejectedCounter(meterRegistry, "write");
+        this.rejectedReads = rejectedCounter(meterRegistry, "read");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PoolPressureMonitor.Sample sample = monitor.current();
+        boolean read = READ_METHODS.contains(request.getMethod());
+        boolean overloaded = read
+                ? sample.pressure() >= readPressureLimit
+                : sample.pressure() >= writePressureLimit || sample.acquireWait().compareTo(maxAcquireWait) > 0;
+        if (!overloaded) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        (read ? rejectedReads : rejectedWrites).increment();
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                "Database connections are saturated, retry later");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(sample)));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+
+    // Current wait for a connection, scaled up by how far the backlog exceeds the pool
+    long retryAfterSeconds(PoolPressureMonitor.Sample sample) {
+        double waitMillis = sample.acquireWait().toMillis() * Math.max(1.0, sample.pressure());
+        long seconds = (long) Math.ceil(waitMillis / 1000);
+        return Math.min(Math.max(seconds, 1), Math.max(maxRetryAfter.toSeconds(), 1));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("admission.rejected")
+                .description("Requests turned away with 503 because the connection pool was saturated")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
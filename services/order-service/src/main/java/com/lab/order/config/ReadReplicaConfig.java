@@ -0,0 +1,69 @@
+package com.lab.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource with one Hikari pool per route (primary plus each
+ * replica) behind {@link ReplicaRoutingDataSource}. {@code @Transactional(readOnly = true)}
+ * paths then read from replicas and stop taking primary connections. Pools are named
+ * {@code primary}, {@code replica-1}, ... so {@code hikaricp.*} metrics are reported per route.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${datasource.routing.replica-urls}") List<String> replicaUrls,
+                                                             @Value("${datasource.routing.max-lag:5s}") Duration maxLag,
+                                                             @Value("${datasource.routing.lag-check-interval:2s}") Duration lagCheckInterval,
+                                                             @Value("${datasource.routing.primary-pool-size:10}") int primaryPoolSize,
+                                                             @Value("${datasource.routing.replica-pool-size:10}") int replicaPoolSize) {
+        HikariDataSource primary = pool(properties, properties.getUrl(), ReplicaRoutingDataSource.PRIMARY,
+                primaryPoolSize, meterRegistry);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.put(name, pool(properties, replicaUrls.get(i), name, replicaPoolSize, meterRegistry));
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, maxLag, lagCheckInterval, meterRegistry);
+    }
+
+    // The DataSource everything else (JPA, Flyway, JdbcTemplate) injects
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String url, String name,
+                                         int maxPoolSize, MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(maxPoolSize);
+        pool.setMetricRegistry(meterRegistry);
+        if (!ReplicaRoutingDataSource.PRIMARY.equals(name)) {
+            pool.setReadOnly(true);
+        }
+        return pool;
+    }
+}
@@ -2,7 +2,11 @@ package com.lab.order.controller;
 
 import com.lab.order.dto.CreateOrderRequest;
 import com.lab.order.dto.OrderResponse;
+import com.lab.order.dto.OrderSearchCriteria;
+import com.lab.order.dto.OrderSearchResponse;
 import com.lab.order.model.Order;
+import com.lab.order.model.OrderStatus;
+import com.lab.order.service.OrderRateLimiter;
 import com.lab.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,24 +15,31 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/orders")
+@Profile("!reactive")
 @Tag(name = "Orders", description = "APIs for managing orders")
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderRateLimiter rateLimiter;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderRateLimiter rateLimiter) {
         this.orderService = orderService;
+        this.rateLimiter = rateLimiter;
     }
 
     @PostMapping
@@ -37,6 +48,7 @@ public class OrderController {
             @ApiResponse(responseCode = "201", description = "Order created successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+            @ApiResponse(responseCode = "429", description = "Consumer exceeded its share of the order API"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<OrderResponse> createOrder(
@@ -45,7 +57,13 @@ public class OrderController {
                     required = true,
                     content = @Content(schema = @Schema(implementation = CreateOrderRequest.class))
             )
-            @Valid @RequestBody CreateOrderRequest request) {
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(name = OrderRateLimiter.CONSUMER_HEADER, required = false)
+            @Parameter(hidden = true)
+            String consumer,
+            HttpServletRequest httpRequest) {
+        // Each line item costs a product lookup and a reservation downstream
+        rateLimiter.acquire(consumer, httpRequest.getRemoteAddr(), request.items().size());
         Order order = orderService.createOrder(request);
         URI location = ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
@@ -60,12 +78,18 @@ public class OrderController {
             @ApiResponse(responseCode = "200", description = "Order found",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderResponse.class))),
             @ApiResponse(responseCode = "404", description = "Order not found"),
+            @ApiResponse(responseCode = "429", description = "Consumer exceeded its share of the order API"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<OrderResponse> getOrder(
             @PathVariable
             @Parameter(description = "Order ID", example = "550e8400-e29b-41d4-a716-446655440000")
-            UUID id) {
+            UUID id,
+            @RequestHeader(name = OrderRateLimiter.CONSUMER_HEADER, required = false)
+            @Parameter(hidden = true)
+            String consumer,
+            HttpServletRequest httpRequest) {
+        rateLimiter.acquire(consumer, httpRequest.getRemoteAddr(), 1);
         Order order = orderService.getOrder(id);
         return ResponseEntity.ok(OrderResponse.from(order));
     }
@@ -75,12 +99,53 @@ public class OrderController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of orders retrieved successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderResponse.class))),
+            @ApiResponse(responseCode = "429", description = "Consumer exceeded its share of the order API"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
-        List<OrderResponse> orders = orderService.getAllOrders().stream()
-                .map(OrderResponse::from)
-                .toList();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<List<OrderResponse>> getAllOrders(
+            @RequestHeader(name = OrderRateLimiter.CONSUMER_HEADER, required = false)
+            @Parameter(hidden = true)
+            String consumer,
+            HttpServletRequest httpRequest) {
+        rateLimiter.acquire(consumer, httpRequest.getRemoteAddr(), 1);
+        return ResponseEntity.ok(orderService.getAllOrders());
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search orders",
+            description = "Finds orders by customer, status and creation time range, newest first, using keyset pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching orders",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderSearchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, limit or cursor"),
+            @ApiResponse(responseCode = "429", description = "Consumer exceeded its share of the order API"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<OrderSearchResponse> searchOrders(
+            @RequestParam(required = false)
+            @Parameter(description = "Exact customer name", example = "John Doe")
+            String customerName,
+            @RequestParam(required = false)
+            @Parameter(description = "Order status", example = "FAILED")
+            OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Created at or after (inclusive)", example = "2026-10-18T11:00:00Z")
+            Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Created before (exclusive)", example = "2026-10-18T12:00:00Z")
+            Instant createdTo,
+            @RequestParam(required = false)
+            @Parameter(description = "nextCursor from the previous page")
+            String cursor,
+            @RequestParam(defaultValue = "20")
+            @Parameter(description = "Page size (1-100)", example = "20")
+            int limit,
+            @RequestHeader(name = OrderRateLimiter.CONSUMER_HEADER, required = false)
+            @Parameter(hidden = true)
+            String consumer,
+            HttpServletRequest httpRequest) {
+        rateLimiter.acquire(consumer, httpRequest.getRemoteAddr(), 1);
+        OrderSearchCriteria criteria = OrderSearchCriteria.of(customerName, status, createdFrom, createdTo, cursor, limit);
+        return ResponseEntity.ok(orderService.searchOrders(criteria));
     }
 }
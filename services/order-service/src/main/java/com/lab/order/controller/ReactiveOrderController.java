@@ -0,0 +1,107 @@
+package com.lab.order.controller;
+
+import com.lab.order.dto.CreateOrderRequest;
+import com.lab.order.dto.OrderResponse;
+import com.lab.order.dto.OrderSearchCriteria;
+import com.lab.order.dto.OrderSearchResponse;
+import com.lab.order.model.OrderStatus;
+import com.lab.order.service.OrderRateLimiter;
+import com.lab.order.service.ReactiveOrderService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * WebFlux variant of {@link OrderController} with the same REST contract.
+ * API documentation is served by the servlet controller.
+ */
+@RestController
+@RequestMapping("/api/orders")
+@Profile("reactive")
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService orderService;
+    private final OrderRateLimiter rateLimiter;
+
+    public ReactiveOrderController(ReactiveOrderService orderService, OrderRateLimiter rateLimiter) {
+        this.orderService = orderService;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<OrderResponse>> createOrder(@Valid @RequestBody CreateOrderRequest request,
+                                                           @RequestHeader(name = OrderRateLimiter.CONSUMER_HEADER, required = false)
+                                                           String consumer,
+                                                           ServerHttpRequest httpRequest) {
+        // Each line item costs a product lookup and a reservation downstream
+        return admit(consumer, httpRequest, request.items().size())
+                .then(Mono.defer(() -> orderService.createOrder(request)))
+                .map(order -> {
+                    // Already rewritten from X-Forwarded-* by ForwardedHeaderTransformer, like the servlet stack
+                    URI location = UriComponentsBuilder.fromUri(httpRequest.getURI())
+                            .replaceQuery(null)
+                            .path("/{id}")
+                            .buildAndExpand(order.id())
+                            .toUri();
+                    return ResponseEntity.created(location).body(order);
+                });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<OrderResponse>> getOrder(@PathVariable UUID id,
+                                                        @RequestHeader(name = OrderRateLimiter.CONSUMER_HEADER, required = false)
+                                                        String consumer,
+                                                        ServerHttpRequest httpRequest) {
+        return admit(consumer, httpRequest, 1)
+                .then(Mono.defer(() -> orderService.getOrder(id)))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<OrderResponse>>> getAllOrders(
+            @RequestHeader(name = OrderRateLimiter.CONSUMER_HEADER, required = false) String consumer,
+            ServerHttpRequest httpRequest) {
+        return admit(consumer, httpRequest, 1)
+                .thenMany(Flux.defer(orderService::getAllOrders))
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<OrderSearchResponse>> searchOrders(
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestHeader(name = OrderRateLimiter.CONSUMER_HEADER, required = false) String consumer,
+            ServerHttpRequest httpRequest) {
+        return admit(consumer, httpRequest, 1)
+                .then(Mono.fromSupplier(() -> OrderSearchCriteria.of(customerName, status, createdFrom, createdTo, cursor, limit)))
+                .flatMap(orderService::searchOrders)
+                .map(ResponseEntity::ok);
+    }
+
+    // Same limiter as the servlet controller; a rejection surfaces as RateLimitExceededException
+    private Mono<Void> admit(String consumer, ServerHttpRequest httpRequest, int cost) {
+        return Mono.fromRunnable(() -> rateLimiter.acquire(consumer, clientAddress(httpRequest), cost));
+    }
+
+    private static String clientAddress(ServerHttpRequest httpRequest) {
+        InetSocketAddress remote = httpRequest.getRemoteAddress();
+        return remote == null || remote.getAddress() == null ? null : remote.getAddress().getHostAddress();
+    }
+}
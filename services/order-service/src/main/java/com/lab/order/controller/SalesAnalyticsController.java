@@ -0,0 +1,95 @@
+package com.lab.order.controller;
+
+import com.lab.order.dto.CustomerDailySales;
+import com.lab.order.dto.ProductHourlySales;
+import com.lab.order.service.SalesAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/analytics")
+@Profile("!reactive")
+@Tag(name = "Analytics", description = "Sales rollups maintained from confirmed orders")
+public class SalesAnalyticsController {
+
+    private final SalesAnalyticsService analyticsService;
+
+    public SalesAnalyticsController(SalesAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/products/{productId}/sales/hourly")
+    @Operation(summary = "Hourly product sales", description = "Units and revenue per hour (UTC) for a product, up to 31 days")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hourly buckets with sales, oldest first",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductHourlySales.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid or too wide time range"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<ProductHourlySales>> getProductHourlySales(
+            @PathVariable
+            @Parameter(description = "Product ID", example = "660e8400-e29b-41d4-a716-446655440000")
+            UUID productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Start (inclusive)", example = "2026-10-17T00:00:00Z")
+            Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "End (exclusive)", example = "2026-10-18T00:00:00Z")
+            Instant to) {
+        return ResponseEntity.ok(analyticsService.getProductHourlySales(productId, from, to));
+    }
+
+    @GetMapping("/customers/{customerName}/sales/daily")
+    @Operation(summary = "Daily customer sales", description = "Confirmed orders and revenue per day (UTC) for a customer, up to 366 days")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Daily buckets with sales, oldest first",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomerDailySales.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid or too wide date range"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<CustomerDailySales>> getCustomerDailySales(
+            @PathVariable
+            @Parameter(description = "Customer name", example = "John Doe")
+            String customerName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "First day (inclusive)", example = "2026-10-01")
+            LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "Last day (exclusive)", example = "2026-10-18")
+            LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getCustomerDailySales(customerName, from, to));
+    }
+
+    @PostMapping("/rollups/backfill")
+    @Operation(summary = "Rebuild sales rollups",
+            description = "Recomputes rollups from confirmed orders for completed UTC days")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Rollups rebuilt"),
+            @ApiResponse(responseCode = "400", description = "Invalid range or range includes today"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Void> backfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "First day (inclusive)", example = "2026-01-01")
+            LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "Last day (exclusive), at most today", example = "2026-10-18")
+            LocalDate to) {
+        analyticsService.backfill(from, to);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.lab.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(description = "Confirmed orders and revenue for one customer on one day (UTC)")
+public record CustomerDailySales(
+        @Schema(description = "Customer name", example = "John Doe")
+        String customerName,
+
+        @Schema(description = "Day bucket", example = "2026-10-18")
+        LocalDate day,
+
+        @Schema(description = "Number of confirmed orders", example = "3")
+        long orders,
+
+        @Schema(description = "Revenue from confirmed orders", example = "2149.97")
+        BigDecimal revenue
+) {
+}
@@ -0,0 +1,9 @@
+package com.lab.order.dto;
+
+import java.util.UUID;
+
+/**
+ * Units of a stock lease used by one confirmed order, as reported when settling the lease.
+ */
+public record LeaseConsumption(UUID orderId, int quantity) {
+}
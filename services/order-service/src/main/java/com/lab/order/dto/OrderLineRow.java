@@ -0,0 +1,24 @@
+package com.lab.order.dto;
+
+import com.lab.order.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One order joined with one of its line items, read without loading entities. The line item
+ * columns are null for an order without line items.
+ */
+public record OrderLineRow(UUID orderId, String customerName, OrderStatus status, BigDecimal totalAmount,
+                           Instant createdAt, UUID lineItemId, UUID productId, String productName,
+                           Integer quantity, BigDecimal unitPrice) {
+
+    public LineItemResponse lineItem() {
+        if (lineItemId == null) {
+            return null;
+        }
+        return new LineItemResponse(lineItemId, productId, productName, quantity, unitPrice,
+                unitPrice.multiply(BigDecimal.valueOf(quantity)));
+    }
+}
@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Schema(description = "Order response with full details and line items")
@@ -41,4 +42,17 @@ public record OrderResponse(
                 items
         );
     }
+
+    /**
+     * Folds the rows of a single order, as returned by a joined projection, into its response.
+     */
+    public static OrderResponse from(List<OrderLineRow> rows) {
+        OrderLineRow first = rows.get(0);
+        List<LineItemResponse> items = rows.stream()
+                .map(OrderLineRow::lineItem)
+                .filter(Objects::nonNull)
+                .toList();
+        return new OrderResponse(first.orderId(), first.customerName(), first.status(),
+                first.totalAmount(), first.createdAt(), items);
+    }
 }
@@ -0,0 +1,30 @@
+package com.lab.order.dto;
+
+import com.lab.order.exception.InvalidOrderSearchException;
+import com.lab.order.model.OrderStatus;
+
+import java.time.Instant;
+
+public record OrderSearchCriteria(
+        String customerName,
+        OrderStatus status,
+        Instant createdFrom,
+        Instant createdTo,
+        OrderSearchCursor after,
+        int limit
+) {
+    public static final int MAX_LIMIT = 100;
+
+    public static OrderSearchCriteria of(String customerName, OrderStatus status, Instant createdFrom,
+                                         Instant createdTo, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidOrderSearchException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new InvalidOrderSearchException("createdFrom must be before createdTo");
+        }
+        OrderSearchCursor after = cursor == null || cursor.isBlank() ? null : OrderSearchCursor.decode(cursor);
+        String customer = customerName == null || customerName.isBlank() ? null : customerName;
+        return new OrderSearchCriteria(customer, status, createdFrom, createdTo, after, limit);
+    }
+}
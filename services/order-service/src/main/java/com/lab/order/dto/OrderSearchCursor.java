@@ -0,0 +1,36 @@
+package com.lab.order.dto;
+
+import com.lab.order.exception.InvalidOrderSearchException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position of the last order on a search page. Encoded as an opaque
+ * URL-safe token so clients pass it back unchanged.
+ */
+public record OrderSearchCursor(Instant createdAt, UUID id) {
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderSearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new InvalidOrderSearchException("Invalid search cursor: " + token);
+            }
+            return new OrderSearchCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidOrderSearchException("Invalid search cursor: " + token);
+        }
+    }
+}
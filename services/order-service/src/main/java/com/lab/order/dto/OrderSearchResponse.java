@@ -0,0 +1,13 @@
+package com.lab.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "One page of order search results")
+public record OrderSearchResponse(
+        @Schema(description = "Orders on this page, newest first")
+        List<OrderResponse> orders,
+
+        @Schema(description = "Cursor for the next page; absent on the last page", example = "MjAyNi0xMC0xOFQxMjowMDowMFp8NTUw")
+        String nextCursor
+) {}
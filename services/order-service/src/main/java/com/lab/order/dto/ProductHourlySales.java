@@ -0,0 +1,22 @@
+package com.lab.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Units sold and revenue for one product in one hour (UTC)")
+public record ProductHourlySales(
+        @Schema(description = "Product unique identifier", example = "660e8400-e29b-41d4-a716-446655440000")
+        UUID productId,
+
+        @Schema(description = "Start of the hour bucket", example = "2026-10-18T11:00:00Z")
+        Instant hourStart,
+
+        @Schema(description = "Units sold in confirmed orders", example = "12")
+        long units,
+
+        @Schema(description = "Revenue from confirmed orders", example = "11999.88")
+        BigDecimal revenue
+) {
+}
@@ -0,0 +1,8 @@
+package com.lab.order.exception;
+
+public class InvalidAnalyticsRangeException extends RuntimeException {
+
+    public InvalidAnalyticsRangeException(String message) {
+        super(message);
+    }
+}
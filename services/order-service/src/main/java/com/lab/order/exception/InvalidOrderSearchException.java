@@ -0,0 +1,8 @@
+package com.lab.order.exception;
+
+public class InvalidOrderSearchException extends RuntimeException {
+
+    public InvalidOrderSearchException(String message) {
+        super(message);
+    }
+}
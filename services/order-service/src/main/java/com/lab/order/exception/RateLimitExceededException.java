@@ -0,0 +1,17 @@
+package com.lab.order.exception;
+
+import java.time.Duration;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        super("Rate limit exceeded, retry in " + Math.max(retryAfter.toMillis(), 1) + " ms");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
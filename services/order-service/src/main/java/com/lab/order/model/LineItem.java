@@ -2,6 +2,7 @@ package com.lab.order.model;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
@@ -28,6 +29,14 @@ public class LineItem {
     @JoinColumn(name = "order_id")
     private Order order;
 
+    // Copy of the order's partition key; line_items is partitioned alongside orders
+    @Column(name = "order_created_at", nullable = false, updatable = false)
+    private Instant orderCreatedAt;
+
+    // Stock lease the quantity was taken from; null when reserved with its own call
+    @Column(name = "lease_id")
+    private UUID leaseId;
+
     protected LineItem() {}
 
     public LineItem(UUID productId, String productName, int quantity, BigDecimal unitPrice) {
@@ -37,6 +46,11 @@ public class LineItem {
         this.unitPrice = unitPrice;
     }
 
+    @PrePersist
+    void prePersist() {
+        orderCreatedAt = order.getCreatedAt();
+    }
+
     public BigDecimal getSubtotal() {
         return unitPrice.multiply(BigDecimal.valueOf(quantity));
     }
@@ -47,6 +61,9 @@ public class LineItem {
     public int getQuantity() { return quantity; }
     public BigDecimal getUnitPrice() { return unitPrice; }
     public Order getOrder() { return order; }
+    public UUID getLeaseId() { return leaseId; }
+
+    public void setLeaseId(UUID leaseId) { this.leaseId = leaseId; }
 
     void setOrder(Order order) { this.order = order; }
 }
@@ -3,6 +3,7 @@ package com.lab.order.model;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -12,7 +13,7 @@ import java.util.UUID;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedOrderId
     private UUID id;
 
     @Column(name = "customer_name", nullable = false)
@@ -45,7 +46,10 @@ public class Order {
 
     @PrePersist
     void prePersist() {
-        createdAt = Instant.now();
+        // Millisecond precision so the timestamp embedded in the id matches created_at exactly
+        if (createdAt == null) {
+            createdAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        }
     }
 
     public UUID getId() { return id; }
@@ -0,0 +1,35 @@
+package com.lab.order.model;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Time-ordered (version 7) order ids whose leading 48 bits are the order's
+ * {@code created_at} in epoch milliseconds. Because {@code orders} is partitioned on
+ * {@code created_at}, a lookup by id can recover the partition key and let Postgres
+ * prune to a single partition. Ids from before partitioning are random (version 4)
+ * and carry no timestamp.
+ */
+public final class OrderIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private OrderIds() {
+    }
+
+    public static UUID newId(Instant createdAt) {
+        long millis = createdAt.toEpochMilli();
+        long msb = (millis << 16) | 0x7000L | (RANDOM.nextInt() & 0x0FFFL);
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    public static Optional<Instant> createdAtOf(UUID id) {
+        if (id.version() != 7) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16));
+    }
+}
@@ -0,0 +1,17 @@
+package com.lab.order.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the order id from its {@code createdAt} on insert; see {@link OrderIds}.
+ */
+@IdGeneratorType(TimeOrderedOrderIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedOrderId {
+}
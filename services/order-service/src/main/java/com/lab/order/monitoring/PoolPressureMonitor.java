@@ -0,0 +1,108 @@
+package com.lab.order.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the Hikari pool's {@code hikaricp.*} meters on a fixed interval and keeps the latest
+ * pressure reading: active plus waiting threads relative to the pool size, and the mean time
+ * callers waited for a connection during the last interval.
+ */
+public class PoolPressureMonitor implements SmartLifecycle {
+
+    private final MeterRegistry meterRegistry;
+    private final String pool;
+    private final Duration sampleInterval;
+
+    private volatile Sample current = Sample.IDLE;
+    private long lastAcquireCount;
+    private double lastAcquireNanos;
+    private ScheduledExecutorService scheduler;
+
+    public PoolPressureMonitor(MeterRegistry meterRegistry, String pool, Duration sampleInterval) {
+        this.meterRegistry = meterRegistry;
+        this.pool = pool;
+        this.sampleInterval = sampleInterval;
+        Gauge.builder("admission.pool.pressure", this, monitor -> monitor.current().pressure())
+                .description("Active plus waiting connection requests relative to the pool size")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("admission.pool.acquire.wait", this, monitor -> monitor.current().acquireWait().toNanos() / 1e9)
+                .description("Mean connection acquire time over the last sample interval")
+                .baseUnit("seconds")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    public Sample current() {
+        return current;
+    }
+
+    synchronized void sample() {
+        Gauge active = meterRegistry.find("hikaricp.connections.active").tag("pool", pool).gauge();
+        Gauge pending = meterRegistry.find("hikaricp.connections.pending").tag("pool", pool).gauge();
+        Gauge max = meterRegistry.find("hikaricp.connections.max").tag("pool", pool).gauge();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        if (active == null || pending == null || max == null || acquire == null) {
+            // Pool not started yet
+            return;
+        }
+
+        long acquireCount = acquire.count();
+        double acquireNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+        long acquired = acquireCount - lastAcquireCount;
+        int waiting = (int) pending.value();
+        Duration acquireWait;
+        if (acquired > 0) {
+            acquireWait = Duration.ofNanos((long) ((acquireNanos - lastAcquireNanos) / acquired));
+        } else if (waiting > 0) {
+            // Nobody got a connection for a whole interval: the waiters have been waiting that much longer
+            acquireWait = current.acquireWait().plus(sampleInterval);
+        } else {
+            acquireWait = Duration.ZERO;
+        }
+        lastAcquireCount = acquireCount;
+        lastAcquireNanos = acquireNanos;
+        current = new Sample((int) active.value(), waiting, (int) max.value(), acquireWait);
+    }
+
+    @Override
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-pressure-sample");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = sampleInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::sample, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    public record Sample(int active, int pending, int max, Duration acquireWait) {
+
+        static final Sample IDLE = new Sample(0, 0, 0, Duration.ZERO);
+
+        public double pressure() {
+            return max == 0 ? 0 : (double) (active + pending) / max;
+        }
+    }
+}
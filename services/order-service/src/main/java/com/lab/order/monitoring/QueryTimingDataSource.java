@@ -0,0 +1,205 @@
+package com.lab.order.monitoring;
+
+import com.lab.order.monitoring.QueryRecorder.Fingerprint;
+import com.lab.order.monitoring.QueryRecorder.Series;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Hands out connections whose statements report to {@link QueryRecorder}: execution time when
+ * an {@code execute*} call returns, and the rows read once the result set is closed. Bind
+ * parameters are kept only as shapes ({@code uuid}, {@code string(12)}, {@code null}), never
+ * as values.
+ */
+public class QueryTimingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final Supplier<QueryRecorder> recorder;
+
+    public QueryTimingDataSource(DataSource target, Supplier<QueryRecorder> recorder) {
+        super(target);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return wrap(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return wrap(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    private static <T> T wrap(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(
+                QueryTimingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    static ResultSet countRows(ResultSet resultSet, Series series) {
+        return wrap(ResultSet.class, resultSet, new RowCountingHandler(resultSet, series));
+    }
+
+    static String shape(String setter, Object value) {
+        if (value == null || "setNull".equals(setter)) {
+            return "null";
+        }
+        if (value instanceof CharSequence text) {
+            return "string(" + text.length() + ")";
+        }
+        if (value instanceof byte[] bytes) {
+            return "bytes(" + bytes.length + ")";
+        }
+        if (value instanceof Array) {
+            return "array";
+        }
+        return value.getClass().getSimpleName().toLowerCase();
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Transaction managers compare connections, so a proxy must only equal itself
+            if ("equals".equals(method.getName())) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            }
+            Object result = QueryTimingDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrap(PreparedStatement.class, (PreparedStatement) result,
+                        new StatementHandler(result, (String) args[0]));
+                case "prepareCall" -> wrap(CallableStatement.class, (CallableStatement) result,
+                        new StatementHandler(result, (String) args[0]));
+                case "createStatement" -> wrap(Statement.class, (Statement) result, new StatementHandler(result, null));
+                default -> result;
+            };
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Object target;
+        private final Fingerprint prepared;
+        private final List<String> parameterShapes = new ArrayList<>();
+        private Series lastSeries;
+
+        StatementHandler(Object target, String sql) {
+            this.target = target;
+            this.prepared = sql == null ? null : recorder.get().fingerprint(sql);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE.contains(name)) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                while (parameterShapes.size() < index) {
+                    parameterShapes.add("?");
+                }
+                parameterShapes.set(index - 1, shape(name, args[1]));
+            } else if ("clearParameters".equals(name)) {
+                parameterShapes.clear();
+            }
+            Object result = QueryTimingDataSource.invoke(target, method, args);
+            if ("getResultSet".equals(name) && result != null && lastSeries != null) {
+                return countRows((ResultSet) result, lastSeries);
+            }
+            return result;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            Fingerprint fingerprint = args != null && args.length > 0 && args[0] instanceof String sql
+                    ? recorder.get().fingerprint(sql)
+                    : prepared;
+            if (fingerprint == null) {
+                return QueryTimingDataSource.invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = QueryTimingDataSource.invoke(target, method, args);
+            } finally {
+                // Failed statements count too: a cancelled or timed-out query is usually the slow one
+                lastSeries = recorder.get().executed(fingerprint, System.nanoTime() - start, parameterShapes);
+            }
+            if (result instanceof ResultSet resultSet) {
+                return countRows(resultSet, lastSeries);
+            }
+            if (result instanceof Integer updated) {
+                lastSeries.rows().record(updated);
+            } else if (result instanceof Long updated) {
+                lastSeries.rows().record(updated);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Counts the rows read through {@code next()} and records them on the statement's series
+     * when the result set is closed. Every other call is passed to the driver's result set as is.
+     */
+    private static final class RowCountingHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final Series series;
+        private long rows;
+        private boolean recorded;
+
+        RowCountingHandler(ResultSet target, Series series) {
+            this.target = target;
+            this.series = series;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryTimingDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if ("next".equals(name) && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if ("close".equals(name) && !recorded) {
+                recorded = true;
+                series.rows().record(rows);
+            }
+            return result;
+        }
+    }
+}
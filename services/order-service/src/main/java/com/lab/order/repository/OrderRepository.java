@@ -1,15 +1,90 @@
 package com.lab.order.repository;
 
+import com.lab.order.dto.LeaseConsumption;
+import com.lab.order.dto.OrderLineRow;
 import com.lab.order.model.Order;
+import com.lab.order.model.OrderIds;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderSearchRepository {
 
-     @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.lineItems")
-    List<Order> findAllWithLineItems();
+    /**
+     * Every order with its line items as flat rows, read straight into records so nothing enters
+     * the persistence context. Sorted by order id, so the rows of one order are adjacent.
+     */
+    @Query("""
+            SELECT new com.lab.order.dto.OrderLineRow(o.id, o.customerName, o.status, o.totalAmount, o.createdAt,
+                                                      li.id, li.productId, li.productName, li.quantity, li.unitPrice)
+            FROM Order o LEFT JOIN o.lineItems li ON li.orderCreatedAt = o.createdAt
+            ORDER BY o.id
+            """)
+    List<OrderLineRow> findAllLineRows();
 
+    /**
+     * Loads the order and its line items in a single joined SELECT. Time-ordered ids carry
+     * {@code created_at}, which is passed along so only one partition of each table is read.
+     */
+    default Optional<Order> findWithLineItemsById(UUID id) {
+        return OrderIds.createdAtOf(id)
+                .map(createdAt -> findWithLineItemsByIdAndCreatedAt(id, createdAt))
+                .orElseGet(() -> findWithLineItemsInAnyPartitionById(id));
+    }
+
+    // Every order has at least one line item, so the inner fetch join does not drop orders
+    @Query("""
+            SELECT o FROM Order o JOIN FETCH o.lineItems li
+            WHERE o.id = :id AND o.createdAt = :createdAt AND li.orderCreatedAt = :createdAt
+            """)
+    Optional<Order> findWithLineItemsByIdAndCreatedAt(UUID id, Instant createdAt);
+
+    @EntityGraph(attributePaths = "lineItems")
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findWithLineItemsInAnyPartitionById(UUID id);
+
+    default List<Order> findAllWithLineItemsByIdIn(Collection<UUID> ids) {
+        List<Instant> createdAts = ids.stream()
+                .map(OrderIds::createdAtOf)
+                .flatMap(Optional::stream)
+                .sorted()
+                .toList();
+        if (createdAts.isEmpty() || createdAts.size() < ids.size()) {
+            return findAllWithLineItemsInAnyPartitionByIdIn(ids);
+        }
+        return findAllWithLineItemsByIdInCreatedBetween(ids, createdAts.get(0), createdAts.get(createdAts.size() - 1));
+    }
+
+    @Query("""
+            SELECT DISTINCT o FROM Order o JOIN FETCH o.lineItems li
+            WHERE o.id IN :ids
+              AND o.createdAt BETWEEN :oldest AND :newest
+              AND li.orderCreatedAt BETWEEN :oldest AND :newest
+            """)
+    List<Order> findAllWithLineItemsByIdInCreatedBetween(Collection<UUID> ids,
+                                                        Instant oldest,
+                                                        Instant newest);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.lineItems WHERE o.id IN :ids")
+    List<Order> findAllWithLineItemsInAnyPartitionByIdIn(Collection<UUID> ids);
+
+    /**
+     * Line items of confirmed orders that took their quantity from the lease. {@code since}
+     * bounds the partitions scanned; pass a time safely before the lease was granted.
+     */
+    @Query("""
+            SELECT new com.lab.order.dto.LeaseConsumption(o.id, li.quantity)
+            FROM Order o JOIN o.lineItems li
+            WHERE li.leaseId = :leaseId
+              AND o.status = com.lab.order.model.OrderStatus.CONFIRMED
+              AND o.createdAt >= :since
+              AND li.orderCreatedAt >= :since
+            """)
+    List<LeaseConsumption> findLeaseConsumption(UUID leaseId, Instant since);
 }
@@ -0,0 +1,68 @@
+package com.lab.order.repository;
+
+import com.lab.order.dto.OrderSearchCriteria;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native keyset query for order search. Only the filters that are present become
+ * predicates, so Postgres can always match one of the composite indexes on
+ * {@code orders}. A {@code created_at} range also prunes the monthly partitions.
+ * Named parameters work with both JPA native queries and R2DBC DatabaseClient.
+ */
+final class OrderSearchQuery {
+
+    private final String sql;
+    private final Map<String, Object> parameters;
+
+    private OrderSearchQuery(String sql, Map<String, Object> parameters) {
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    // Fetches one row more than the page size to tell whether another page exists
+    static OrderSearchQuery idsFor(OrderSearchCriteria criteria) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        if (criteria.customerName() != null) {
+            predicates.add("o.customer_name = :customerName");
+            parameters.put("customerName", criteria.customerName());
+        }
+        if (criteria.status() != null) {
+            predicates.add("o.status = :status");
+            parameters.put("status", criteria.status().name());
+        }
+        if (criteria.createdFrom() != null) {
+            predicates.add("o.created_at >= :createdFrom");
+            parameters.put("createdFrom", criteria.createdFrom());
+        }
+        if (criteria.createdTo() != null) {
+            predicates.add("o.created_at < :createdTo");
+            parameters.put("createdTo", criteria.createdTo());
+        }
+        if (criteria.after() != null) {
+            predicates.add("(o.created_at, o.id) < (:afterCreatedAt, :afterId)");
+            parameters.put("afterCreatedAt", criteria.after().createdAt());
+            parameters.put("afterId", criteria.after().id());
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT o.id FROM orders o");
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        sql.append(" ORDER BY o.created_at DESC, o.id DESC LIMIT ").append(criteria.limit() + 1);
+        return new OrderSearchQuery(sql.toString(), parameters);
+    }
+
+    String sql() {
+        return sql;
+    }
+
+    Map<String, Object> parameters() {
+        return parameters;
+    }
+}
@@ -0,0 +1,15 @@
+package com.lab.order.repository;
+
+import com.lab.order.dto.OrderSearchCriteria;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderSearchRepository {
+
+    /**
+     * Returns the ids of matching orders, newest first, starting after the criteria's
+     * cursor. Up to {@code limit + 1} ids are returned so callers can detect a next page.
+     */
+    List<UUID> searchIds(OrderSearchCriteria criteria);
+}
@@ -0,0 +1,27 @@
+package com.lab.order.repository;
+
+import com.lab.order.dto.OrderSearchCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.List;
+import java.util.UUID;
+
+class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    private final EntityManager entityManager;
+
+    OrderSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<UUID> searchIds(OrderSearchCriteria criteria) {
+        OrderSearchQuery search = OrderSearchQuery.idsFor(criteria);
+        Query query = entityManager.createNativeQuery(search.sql());
+        search.parameters().forEach(query::setParameter);
+        return ((List<?>) query.getResultList()).stream()
+                .map(id -> (UUID) id)
+                .toList();
+    }
+}
@@ -0,0 +1,180 @@
+package com.lab.order.repository;
+
+import com.lab.order.dto.LineItemResponse;
+import com.lab.order.dto.OrderResponse;
+import com.lab.order.dto.OrderSearchCriteria;
+import com.lab.order.model.OrderIds;
+import com.lab.order.model.OrderStatus;
+import io.r2dbc.spi.Row;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * R2DBC access to the {@code orders} and {@code line_items} tables for the reactive
+ * order pipeline. Reads join both tables and fold the rows straight into responses.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveOrderRepository {
+
+    private static final String SELECT_ORDERS = """
+            SELECT o.id, o.customer_name, o.status, o.total_amount, o.created_at,
+                   li.id AS line_item_id, li.product_id, li.product_name, li.quantity, li.unit_price
+            FROM orders o
+            LEFT JOIN line_items li ON li.order_id = o.id AND li.order_created_at = o.created_at
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveOrderRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Void> insert(OrderResponse order) {
+        Mono<Long> insertOrder = databaseClient.sql("""
+                        INSERT INTO orders (id, customer_name, status, total_amount, created_at)
+                        VALUES (:id, :customerName, :status, :totalAmount, :createdAt)
+                        """)
+                .bind("id", order.id())
+                .bind("customerName", order.customerName())
+                .bind("status", order.status().name())
+                .bind("totalAmount", order.totalAmount())
+                .bind("createdAt", order.createdAt())
+                .fetch()
+                .rowsUpdated();
+
+        Flux<Long> insertLineItems = Flux.fromIterable(order.items())
+                .concatMap(item -> databaseClient.sql("""
+                                INSERT INTO line_items (id, order_id, order_created_at, product_id, product_name,
+                                                        quantity, unit_price)
+                                VALUES (:id, :orderId, :orderCreatedAt, :productId, :productName, :quantity, :unitPrice)
+                                """)
+                        .bind("id", item.id())
+                        .bind("orderId", order.id())
+                        .bind("orderCreatedAt", order.createdAt())
+                        .bind("productId", item.productId())
+                        .bind("productName", item.productName())
+                        .bind("quantity", item.quantity())
+                        .bind("unitPrice", item.unitPrice())
+                        .fetch()
+                        .rowsUpdated());
+
+        return insertOrder.thenMany(insertLineItems).then();
+    }
+
+    public Mono<Void> updateStatus(UUID orderId, OrderStatus status) {
+        return byId("UPDATE orders SET status = :status WHERE ", "", orderId)
+                .bind("status", status.name())
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    public Mono<OrderResponse> findById(UUID orderId) {
+        return byId(SELECT_ORDERS + "WHERE ", "o.", orderId)
+                .map((row, metadata) -> OrderRow.from(row))
+                .all()
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(ReactiveOrderRepository::toResponse);
+    }
+
+    public Flux<OrderResponse> findAllWithLineItems() {
+        return databaseClient.sql(SELECT_ORDERS + "ORDER BY o.id")
+                .map((row, metadata) -> OrderRow.from(row))
+                .all()
+                .bufferUntilChanged(OrderRow::orderId)
+                .map(ReactiveOrderRepository::toResponse);
+    }
+
+    public Mono<List<UUID>> searchIds(OrderSearchCriteria criteria) {
+        OrderSearchQuery search = OrderSearchQuery.idsFor(criteria);
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(search.sql());
+        for (Map.Entry<String, Object> parameter : search.parameters().entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec.map((row, metadata) -> row.get("id", UUID.class))
+                .all()
+                .collectList();
+    }
+
+    // Newest first, matching the order of search results
+    public Flux<OrderResponse> findAllWithLineItemsByIdIn(Collection<UUID> ids) {
+        List<Instant> createdAts = ids.stream()
+                .map(OrderIds::createdAtOf)
+                .flatMap(Optional::stream)
+                .sorted()
+                .toList();
+        DatabaseClient.GenericExecuteSpec spec;
+        if (createdAts.isEmpty() || createdAts.size() < ids.size()) {
+            spec = databaseClient.sql(SELECT_ORDERS + "WHERE o.id IN (:ids) ORDER BY o.created_at DESC, o.id DESC");
+        } else {
+            spec = databaseClient.sql(SELECT_ORDERS
+                            + "WHERE o.id IN (:ids) AND o.created_at BETWEEN :oldest AND :newest"
+                            + " ORDER BY o.created_at DESC, o.id DESC")
+                    .bind("oldest", createdAts.get(0))
+                    .bind("newest", createdAts.get(createdAts.size() - 1));
+        }
+        return spec.bind("ids", ids)
+                .map((row, metadata) -> OrderRow.from(row))
+                .all()
+                .bufferUntilChanged(OrderRow::orderId)
+                .map(ReactiveOrderRepository::toResponse);
+    }
+
+    // Adds the partition key for time-ordered ids so Postgres reads a single partition
+    private DatabaseClient.GenericExecuteSpec byId(String sqlPrefix, String alias, UUID id) {
+        Optional<Instant> createdAt = OrderIds.createdAtOf(id);
+        if (createdAt.isEmpty()) {
+            return databaseClient.sql(sqlPrefix + alias + "id = :id").bind("id", id);
+        }
+        return databaseClient.sql(sqlPrefix + alias + "id = :id AND " + alias + "created_at = :createdAt")
+                .bind("id", id)
+                .bind("createdAt", createdAt.get());
+    }
+
+    private static OrderResponse toResponse(List<OrderRow> rows) {
+        OrderRow first = rows.get(0);
+        List<LineItemResponse> items = rows.stream()
+                .map(OrderRow::lineItem)
+                .filter(Objects::nonNull)
+                .toList();
+        return new OrderResponse(first.orderId(), first.customerName(), first.status(),
+                first.totalAmount(), first.createdAt(), items);
+    }
+
+    private record OrderRow(UUID orderId, String customerName, OrderStatus status, BigDecimal totalAmount,
+                            Instant createdAt, LineItemResponse lineItem) {
+
+        static OrderRow from(Row row) {
+            UUID lineItemId = row.get("line_item_id", UUID.class);
+            LineItemResponse lineItem = null;
+            if (lineItemId != null) {
+                int quantity = row.get("quantity", Integer.class);
+                BigDecimal unitPrice = row.get("unit_price", BigDecimal.class);
+                lineItem = new LineItemResponse(lineItemId, row.get("product_id", UUID.class),
+                        row.get("product_name", String.class), quantity, unitPrice,
+                        unitPrice.multiply(BigDecimal.valueOf(quantity)));
+            }
+            return new OrderRow(
+                    row.get("id", UUID.class),
+                    row.get("customer_name", String.class),
+                    OrderStatus.valueOf(row.get("status", String.class)),
+                    row.get("total_amount", BigDecimal.class),
+                    row.get("created_at", Instant.class),
+                    lineItem);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.lab.order.repository;
+
+import com.lab.order.dto.CustomerDailySales;
+import com.lab.order.dto.ProductHourlySales;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to the sales rollup tables. Increments are applied with batched
+ * {@code INSERT ... ON CONFLICT DO UPDATE} so each bucket is one row regardless of order volume.
+ */
+@Repository
+public class SalesRollupRepository {
+
+    private static final String UPSERT_PRODUCT_HOURLY = """
+            INSERT INTO product_sales_hourly (product_id, hour_start, units, revenue)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (product_id, hour_start) DO UPDATE
+            SET units = product_sales_hourly.units + EXCLUDED.units,
+                revenue = product_sales_hourly.revenue + EXCLUDED.revenue
+            """;
+
+    private static final String UPSERT_CUSTOMER_DAILY = """
+            INSERT INTO customer_sales_daily (customer_name, day, orders, revenue)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (customer_name, day) DO UPDATE
+            SET orders = customer_sales_daily.orders + EXCLUDED.orders,
+                revenue = customer_sales_daily.revenue + EXCLUDED.revenue
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void incrementProductHourly(Collection<ProductHourlySales> increments) {
+        jdbcTemplate.batchUpdate(UPSERT_PRODUCT_HOURLY, increments, increments.size(), (ps, sales) -> {
+            ps.setObject(1, sales.productId());
+            ps.setTimestamp(2, Timestamp.from(sales.hourStart()));
+            ps.setLong(3, sales.units());
+            ps.setBigDecimal(4, sales.revenue());
+        });
+    }
+
+    public void incrementCustomerDaily(Collection<CustomerDailySales> increments) {
+        jdbcTemplate.batchUpdate(UPSERT_CUSTOMER_DAILY, increments, increments.size(), (ps, sales) -> {
+            ps.setString(1, sales.customerName());
+            ps.setObject(2, sales.day());
+            ps.setLong(3, sales.orders());
+            ps.setBigDecimal(4, sales.revenue());
+        });
+    }
+
+    public List<ProductHourlySales> findProductHourly(UUID productId, Instant from, Instant to) {
+        return jdbcTemplate.query("""
+                        SELECT product_id, hour_start, units, revenue
+                        FROM product_sales_hourly
+                        WHERE product_id = ? AND hour_start >= ? AND hour_start < ?
+                        ORDER BY hour_start
+                        """,
+                (rs, rowNum) -> new ProductHourlySales(
+                        rs.getObject("product_id", UUID.class),
+                        rs.getTimestamp("hour_start").toInstant(),
+                        rs.getLong("units"),
+                        rs.getBigDecimal("revenue")),
+                productId, Timestamp.from(from), Timestamp.from(to));
+    }
+
+    public List<CustomerDailySales> findCustomerDaily(String customerName, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                        SELECT customer_name, day, orders, revenue
+                        FROM customer_sales_daily
+                        WHERE customer_name = ? AND day >= ? AND day < ?
+                        ORDER BY day
+                        """,
+                (rs, rowNum) -> new CustomerDailySales(
+                        rs.getString("customer_name"),
+                        rs.getObject("day", LocalDate.class),
+                        rs.getLong("orders"),
+                        rs.getBigDecimal("revenue")),
+                customerName, from, to);
+    }
+
+    /**
+     * Recomputes every bucket in {@code [from, to)} (UTC days) from confirmed orders,
+     * replacing whatever the incremental path wrote there.
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        Timestamp start = Timestamp.from(from.atStartOfDay(ZoneOffset.UTC).toInstant());
+        Timestamp end = Timestamp.from(to.atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        jdbcTemplate.update("DELETE FROM product_sales_hourly WHERE hour_start >= ? AND hour_start < ?", start, end);
+        jdbcTemplate.update("""
+                INSERT INTO product_sales_hourly (product_id, hour_start, units, revenue)
+                SELECT li.product_id, date_trunc('hour', o.created_at, 'UTC'),
+                       SUM(li.quantity), SUM(li.quantity * li.unit_price)
+                FROM orders o
+                JOIN line_items li ON li.order_id = o.id AND li.order_created_at = o.created_at
+                WHERE o.status = 'CONFIRMED' AND o.created_at >= ? AND o.created_at < ?
+                  AND li.order_created_at >= ? AND li.order_created_at < ?
+                GROUP BY 1, 2
+                """, start, end, start, end);
+
+        jdbcTemplate.update("DELETE FROM customer_sales_daily WHERE day >= ? AND day < ?", from, to);
+        jdbcTemplate.update("""
+                INSERT INTO customer_sales_daily (customer_name, day, orders, revenue)
+                SELECT o.customer_name, (o.created_at AT TIME ZONE 'UTC')::date,
+                       COUNT(*), COALESCE(SUM(o.total_amount), 0)
+                FROM orders o
+                WHERE o.status = 'CONFIRMED' AND o.created_at >= ? AND o.created_at < ?
+                GROUP BY 1, 2
+                """, start, end);
+    }
+}
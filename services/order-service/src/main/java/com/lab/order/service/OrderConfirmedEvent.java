@@ -0,0 +1,10 @@
+package com.lab.order.service;
+
+import com.lab.order.dto.OrderResponse;
+
+/**
+ * Published once an order reaches {@code CONFIRMED}. Listeners that touch the database
+ * should run after commit so a rolled-back order is never counted.
+ */
+public record OrderConfirmedEvent(OrderResponse order) {
+}
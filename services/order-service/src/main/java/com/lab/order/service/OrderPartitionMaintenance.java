@@ -0,0 +1,111 @@
+package com.lab.order.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the monthly {@code orders}/{@code line_items} partitions from V4 in shape: creates
+ * partitions ahead of the current month and, when a retention period is configured,
+ * detaches (or drops) months that fell out of it. Runs at startup and then daily.
+ */
+@Component
+public class OrderPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionMaintenance.class);
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    private final boolean dropExpired;
+
+    public OrderPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${orders.partitioning.premake-months:3}") int premakeMonths,
+                                     @Value("${orders.partitioning.retention-months:0}") int retentionMonths,
+                                     @Value("${orders.partitioning.drop-expired:false}") boolean dropExpired) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+        this.dropExpired = dropExpired;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${orders.partitioning.cron:0 15 3 * * *}", zone = "UTC")
+    public void maintain() {
+        maintain(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    void maintain(YearMonth currentMonth) {
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            jdbcTemplate.query("SELECT ensure_order_partitions(?)", rs -> { }, month.atDay(1));
+        }
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = currentMonth.minusMonths(retentionMonths - 1L);
+            for (YearMonth month : partitionMonths()) {
+                if (month.isBefore(oldestKept)) {
+                    expire(month);
+                }
+            }
+        }
+    }
+
+    List<YearMonth> partitionMonths() {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname
+                        FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = 'orders'::regclass
+                        ORDER BY c.relname
+                        """, String.class).stream()
+                .map(OrderPartitionMaintenance::monthOf)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    // line_items first: its partition references the orders partition through fk_line_items_order
+    private void expire(YearMonth month) {
+        String lineItems = "line_items_p" + month.format(SUFFIX);
+        String orders = "orders_p" + month.format(SUFFIX);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE line_items DETACH PARTITION " + lineItems);
+            // A detached partition keeps the foreign key, which would block detaching the orders month
+            jdbcTemplate.execute("ALTER TABLE " + lineItems + " DROP CONSTRAINT IF EXISTS fk_line_items_order");
+            jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + orders);
+            if (dropExpired) {
+                jdbcTemplate.execute("DROP TABLE " + lineItems);
+                jdbcTemplate.execute("DROP TABLE " + orders);
+            }
+        });
+        log.info("{} order partitions for {} (retention {} months)", dropExpired ? "Dropped" : "Detached",
+                month, retentionMonths);
+    }
+
+    private static Optional<YearMonth> monthOf(String partitionName) {
+        if (!partitionName.startsWith("orders_p")) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(partitionName.substring("orders_p".length()), SUFFIX));
+        } catch (DateTimeParseException ex) {
+            return Optional.empty();
+        }
+    }
+}
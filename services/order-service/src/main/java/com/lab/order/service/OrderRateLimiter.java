@@ -0,0 +1,136 @@
+package com.lab.order.service;
+
+import com.lab.order.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-consumer token buckets for the order API, weighted by request cost (line items for
+ * order creation). The service-wide {@code capacity-per-second} is split evenly across the
+ * consumers seen within {@code idle-after}, so a heavy client only ever spends its own share.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it would be full again
+ * (GCRA): a request advances it by {@code cost} times the refill interval and is admitted if
+ * that stays within {@code burst} of now. Admission is one CAS, with no lock per consumer.
+ * <p>
+ * Requests through Kong carry the consumer name. Callers without one, such as other services
+ * or load generators talking to order-service directly, are keyed by client address, so they
+ * never throttle each other.
+ */
+@Component
+public class OrderRateLimiter {
+
+    public static final String CONSUMER_HEADER = "X-Consumer-Username";
+    static final String ANONYMOUS = "anonymous";
+    private static final String ANONYMOUS_PREFIX = ANONYMOUS + ":";
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final double capacityPerSecond;
+    private final double minSharePerSecond;
+    private final long burstNanos;
+    private final long idleAfterNanos;
+    private final Counter rejected;
+
+    public OrderRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${orders.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${orders.rate-limit.capacity-per-second:200}") double capacityPerSecond,
+                            @Value("${orders.rate-limit.min-share-per-second:5}") double minSharePerSecond,
+                            @Value("${orders.rate-limit.burst:2s}") Duration burst,
+                            @Value("${orders.rate-limit.idle-after:30s}") Duration idleAfter) {
+        this.enabled = enabled;
+        this.capacityPerSecond = capacityPerSecond;
+        this.minSharePerSecond = minSharePerSecond;
+        this.burstNanos = burst.toNanos();
+        this.idleAfterNanos = idleAfter.toNanos();
+        this.rejected = Counter.builder("order.rate.limit.rejected")
+                .description("Order API requests rejected because the consumer used up its share")
+                .register(meterRegistry);
+        meterRegistry.gauge("order.rate.limit.consumers", buckets, Map::size);
+    }
+
+    /**
+     * Charges {@code cost} to the consumer's bucket, or to the client address's bucket when the
+     * request did not name a consumer.
+     *
+     * @throws RateLimitExceededException if the consumer has no room for the request yet
+     */
+    public void acquire(String consumer, String clientAddress, int cost) {
+        if (!enabled) {
+            return;
+        }
+        long waitNanos = tryAcquire(key(consumer, clientAddress), cost, System.nanoTime());
+        if (waitNanos > 0) {
+            rejected.increment();
+            throw new RateLimitExceededException(Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Returns 0 when admitted, otherwise how long until the same request would be.
+     */
+    long tryAcquire(String key, int cost, long now) {
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+        bucket.lastSeen = now;
+        long charge = (long) (Math.max(cost, 1) * refillIntervalNanos());
+
+        while (true) {
+            long fullAt = bucket.fullAt.get();
+            long base = Math.max(fullAt, now);
+            long next = base + charge;
+            // A full bucket always admits one request, even one costing more than the burst
+            if (next - now > burstNanos && fullAt > now) {
+                return Math.min(fullAt - now, next - burstNanos - now);
+            }
+            if (bucket.fullAt.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    static String key(String consumer, String clientAddress) {
+        if (consumer != null && !consumer.isBlank()) {
+            return consumer;
+        }
+        return clientAddress == null || clientAddress.isBlank() ? ANONYMOUS : ANONYMOUS_PREFIX + clientAddress;
+    }
+
+    // Nanoseconds of refill per cost unit at the consumer's current share
+    private double refillIntervalNanos() {
+        double share = Math.max(capacityPerSecond / Math.max(buckets.size(), 1), minSharePerSecond);
+        return 1e9 / share;
+    }
+
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.SECONDS)
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    void evictIdle(long now) {
+        buckets.entrySet().removeIf(entry -> now - entry.getValue().lastSeen > idleAfterNanos);
+    }
+
+    int activeConsumers() {
+        return buckets.size();
+    }
+
+    private static final class Bucket {
+
+        final AtomicLong fullAt;
+        volatile long lastSeen;
+
+        Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+            this.lastSeen = now;
+        }
+    }
+}
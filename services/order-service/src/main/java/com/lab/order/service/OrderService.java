@@ -1,10 +1,13 @@
 package com.lab.order.service;
 
-import com.lab.order.client.InventoryServiceClient;
-import com.lab.order.client.InventoryServiceClient.ReservationInfo;
 import com.lab.order.client.ProductServiceClient;
 import com.lab.order.client.ProductServiceClient.ProductInfo;
 import com.lab.order.dto.CreateOrderRequest;
+import com.lab.order.dto.OrderLineRow;
+import com.lab.order.dto.OrderResponse;
+import com.lab.order.dto.OrderSearchCriteria;
+import com.lab.order.dto.OrderSearchCursor;
+import com.lab.order.dto.OrderSearchResponse;
 import com.lab.order.exception.OrderCreationException;
 import com.lab.order.exception.OrderNotFoundException;
 import com.lab.order.model.LineItem;
@@ -13,13 +16,19 @@ import com.lab.order.model.OrderStatus;
 import com.lab.order.repository.OrderRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -29,14 +38,20 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final ProductServiceClient productServiceClient;
-    private final InventoryServiceClient inventoryServiceClient;
+    private final ReservationFanOut reservationFanOut;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockLeaseManager stockLeaseManager;
 
     public OrderService(OrderRepository orderRepository,
                         ProductServiceClient productServiceClient,
-                        InventoryServiceClient inventoryServiceClient) {
+                        ReservationFanOut reservationFanOut,
+                        ApplicationEventPublisher eventPublisher,
+                        StockLeaseManager stockLeaseManager) {
         this.orderRepository = orderRepository;
         this.productServiceClient = productServiceClient;
-        this.inventoryServiceClient = inventoryServiceClient;
+        this.reservationFanOut = reservationFanOut;
+        this.eventPublisher = eventPublisher;
+        this.stockLeaseManager = stockLeaseManager;
     }
 
     @Transactional
@@ -63,28 +78,22 @@ public class OrderService {
 
         orderRepository.save(order);
 
-        // Try to reserve inventory for each line item
-        List<ReservationInfo> successfulReservations = new ArrayList<>();
-        try {
-            for (LineItem lineItem : order.getLineItems()) {
-                ReservationInfo reservation = inventoryServiceClient.reserveStock(
-                        lineItem.getProductId(),
-                        order.getId(),
-                        lineItem.getQuantity()
-                );
-                successfulReservations.add(reservation);
+        // Units from a lease are already reserved; they go back if this transaction rolls back
+        List<LineItem> toReserve = new ArrayList<>();
+        for (LineItem lineItem : order.getLineItems()) {
+            Optional<UUID> leaseId = stockLeaseManager.tryConsume(lineItem.getProductId(), lineItem.getQuantity());
+            if (leaseId.isPresent()) {
+                lineItem.setLeaseId(leaseId.get());
+            } else {
+                toReserve.add(lineItem);
             }
+        }
+
+        // Reserve the rest concurrently; on failure the fan-out has already cancelled what it reserved
+        try {
+            reservationFanOut.reserveAll(order.getId(), toReserve);
         } catch (Exception ex) {
-            log.warn("Inventory reservation failed, compensating {} successful reservations",
-                    successfulReservations.size(), ex);
-            // Compensate: cancel all successful reservations
-            for (ReservationInfo reservation : successfulReservations) {
-                try {
-                    inventoryServiceClient.cancelReservation(reservation.id());
-                } catch (Exception cancelEx) {
-                    log.error("Failed to cancel reservation {}", reservation.id(), cancelEx);
-                }
-            }
+            log.warn("Inventory reservation failed for order {}", order.getId(), ex);
             order.setStatus(OrderStatus.FAILED);
             orderRepository.save(order);
             throw new OrderCreationException(
@@ -93,15 +102,49 @@ public class OrderService {
 
         order.setStatus(OrderStatus.CONFIRMED);
         orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderConfirmedEvent(OrderResponse.from(order)));
         return order;
     }
 
     public Order getOrder(UUID id) {
-        return orderRepository.findById(id)
+        return orderRepository.findWithLineItemsById(id)
                 .orElseThrow(() -> new OrderNotFoundException(id));
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAllWithLineItems();
+    public List<OrderResponse> getAllOrders() {
+        List<OrderLineRow> rows = orderRepository.findAllLineRows();
+        List<OrderResponse> orders = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i == rows.size() || !rows.get(i).orderId().equals(rows.get(start).orderId())) {
+                orders.add(OrderResponse.from(rows.subList(start, i)));
+                start = i;
+            }
+        }
+        return orders;
+    }
+
+    public OrderSearchResponse searchOrders(OrderSearchCriteria criteria) {
+        // Keyset page of ids first (index-only), then one fetch for those orders and their line items
+        List<UUID> ids = orderRepository.searchIds(criteria);
+        boolean hasNextPage = ids.size() > criteria.limit();
+        List<UUID> pageIds = hasNextPage ? ids.subList(0, criteria.limit()) : ids;
+        if (pageIds.isEmpty()) {
+            return new OrderSearchResponse(List.of(), null);
+        }
+
+        Map<UUID, Order> ordersById = orderRepository.findAllWithLineItemsByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<Order> page = pageIds.stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        String nextCursor = null;
+        if (hasNextPage && !page.isEmpty()) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = new OrderSearchCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new OrderSearchResponse(page.stream().map(OrderResponse::from).toList(), nextCursor);
     }
 }
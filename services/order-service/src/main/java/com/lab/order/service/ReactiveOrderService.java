@@ -0,0 +1,151 @@
+package com.lab.order.service;
+
+import com.lab.order.client.InventoryServiceClient.ReservationInfo;
+import com.lab.order.client.ReactiveInventoryServiceClient;
+import com.lab.order.client.ReactiveProductServiceClient;
+import com.lab.order.dto.CreateOrderRequest;
+import com.lab.order.dto.LineItemResponse;
+import com.lab.order.dto.OrderResponse;
+import com.lab.order.dto.OrderSearchCriteria;
+import com.lab.order.dto.OrderSearchCursor;
+import com.lab.order.dto.OrderSearchResponse;
+import com.lab.order.exception.OrderCreationException;
+import com.lab.order.exception.OrderNotFoundException;
+import com.lab.order.model.OrderIds;
+import com.lab.order.model.OrderStatus;
+import com.lab.order.repository.ReactiveOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Non-blocking counterpart of {@link OrderService} used by the {@code reactive} profile.
+ * Same steps and compensation rules, but product lookups run concurrently and no
+ * thread is held while waiting on product-service, inventory-service or the database.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveOrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveOrderService.class);
+
+    private final ReactiveOrderRepository orderRepository;
+    private final ReactiveProductServiceClient productServiceClient;
+    private final ReactiveInventoryServiceClient inventoryServiceClient;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReactiveOrderService(ReactiveOrderRepository orderRepository,
+                                ReactiveProductServiceClient productServiceClient,
+                                ReactiveInventoryServiceClient inventoryServiceClient,
+                                TransactionalOperator transactionalOperator,
+                                ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.productServiceClient = productServiceClient;
+        this.inventoryServiceClient = inventoryServiceClient;
+        this.transactionalOperator = transactionalOperator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Mono<OrderResponse> createOrder(CreateOrderRequest request) {
+        // Look up each product and build line items, keeping request order
+        return Flux.fromIterable(request.items())
+                .flatMapSequential(item -> productServiceClient.getProduct(item.productId())
+                        .map(product -> new LineItemResponse(
+                                UUID.randomUUID(),
+                                product.id(),
+                                product.name(),
+                                item.quantity(),
+                                product.price(),
+                                product.price().multiply(BigDecimal.valueOf(item.quantity())))))
+                .collectList()
+                .map(lineItems -> newOrder(request.customerName(), lineItems))
+                .flatMap(order -> transactionalOperator.transactional(orderRepository.insert(order))
+                        .then(Mono.defer(() -> reserveInventory(order))));
+    }
+
+    public Mono<OrderResponse> getOrder(UUID id) {
+        return orderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(id)));
+    }
+
+    public Flux<OrderResponse> getAllOrders() {
+        return orderRepository.findAllWithLineItems();
+    }
+
+    public Mono<OrderSearchResponse> searchOrders(OrderSearchCriteria criteria) {
+        return orderRepository.searchIds(criteria).flatMap(ids -> {
+            boolean hasNextPage = ids.size() > criteria.limit();
+            List<UUID> pageIds = hasNextPage ? ids.subList(0, criteria.limit()) : ids;
+            if (pageIds.isEmpty()) {
+                return Mono.just(new OrderSearchResponse(List.of(), null));
+            }
+            return orderRepository.findAllWithLineItemsByIdIn(pageIds)
+                    .collectList()
+                    .map(page -> {
+                        String nextCursor = null;
+                        if (hasNextPage && !page.isEmpty()) {
+                            OrderResponse last = page.get(page.size() - 1);
+                            nextCursor = new OrderSearchCursor(last.createdAt(), last.id()).encode();
+                        }
+                        return new OrderSearchResponse(page, nextCursor);
+                    });
+        });
+    }
+
+    private Mono<OrderResponse> reserveInventory(OrderResponse order) {
+        List<ReservationInfo> successfulReservations = new CopyOnWriteArrayList<>();
+        return Flux.fromIterable(order.items())
+                .concatMap(lineItem -> inventoryServiceClient.reserveStock(
+                        lineItem.productId(), order.id(), lineItem.quantity()))
+                .doOnNext(successfulReservations::add)
+                .then(Mono.defer(() -> orderRepository.updateStatus(order.id(), OrderStatus.CONFIRMED)))
+                .thenReturn(withStatus(order, OrderStatus.CONFIRMED))
+                .onErrorResume(ex -> {
+                    log.warn("Inventory reservation failed, compensating {} successful reservations",
+                            successfulReservations.size(), ex);
+                    return compensate(successfulReservations)
+                            .then(orderRepository.updateStatus(order.id(), OrderStatus.FAILED))
+                            .then(Mono.error(new OrderCreationException(
+                                    "Failed to reserve inventory for order " + order.id(), ex)));
+                })
+                .doOnNext(confirmed -> eventPublisher.publishEvent(new OrderConfirmedEvent(confirmed)));
+    }
+
+    private Mono<Void> compensate(List<ReservationInfo> reservations) {
+        return Flux.fromIterable(reservations)
+                .concatMap(reservation -> inventoryServiceClient.cancelReservation(reservation.id())
+                        .onErrorResume(cancelEx -> {
+                            log.error("Failed to cancel reservation {}", reservation.id(), cancelEx);
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    private static OrderResponse newOrder(String customerName, List<LineItemResponse> lineItems) {
+        BigDecimal totalAmount = lineItems.stream()
+                .map(LineItemResponse::subtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Milliseconds, as embedded in the time-ordered id (see OrderIds)
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        return new OrderResponse(OrderIds.newId(createdAt), customerName, OrderStatus.CREATED,
+                totalAmount, createdAt, lineItems);
+    }
+
+    private static OrderResponse withStatus(OrderResponse order, OrderStatus status) {
+        return new OrderResponse(order.id(), order.customerName(), status,
+                order.totalAmount(), order.createdAt(), order.items());
+    }
+}
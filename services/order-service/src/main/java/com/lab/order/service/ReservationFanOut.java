@@ -0,0 +1,233 @@
+package com.lab.order.service;
+
+import com.lab.order.client.InventoryServiceClient;
+import com.lab.order.client.InventoryServiceClient.ReservationInfo;
+import com.lab.order.model.LineItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Reserves an order's line items concurrently, so a large order waits for its slowest
+ * reservation instead of the sum of all of them. The calls share one deadline. The first
+ * failure, or the deadline, aborts the rest: calls not sent yet are skipped, and the
+ * reservations already made are cancelled in parallel before the failure is rethrown. Calls
+ * already in flight are left to finish rather than interrupted, since inventory-service may
+ * have made the reservation even if the client gives up on the response; whatever they
+ * reserve after the abort is cancelled when they return.
+ */
+@Component
+public class ReservationFanOut implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationFanOut.class);
+
+    private final InventoryServiceClient inventoryServiceClient;
+    private final boolean parallel;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+    private final Counter failures;
+    private final Counter timeouts;
+
+    public ReservationFanOut(InventoryServiceClient inventoryServiceClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${orders.reservations.parallel:true}") boolean parallel,
+                             @Value("${orders.reservations.timeout:5s}") Duration timeout,
+                             @Value("${orders.reservations.threads:64}") int threads) {
+        this.inventoryServiceClient = inventoryServiceClient;
+        this.parallel = parallel;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(threads * 4), daemonThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.failures = abortCounter(meterRegistry, "failure");
+        this.timeouts = abortCounter(meterRegistry, "timeout");
+    }
+
+    /**
+     * Reserves every line item for the order. Either all reservations are made, or none are
+     * left behind and the first failure is thrown.
+     */
+    public List<ReservationInfo> reserveAll(UUID orderId, List<LineItem> lineItems) {
+        if (lineItems.isEmpty()) {
+            return List.of();
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        // One call gains nothing from another thread
+        Scope scope = new Scope(lineItems.size(), parallel && lineItems.size() > 1);
+        for (LineItem lineItem : lineItems) {
+            scope.fork(() -> inventoryServiceClient.reserveStock(lineItem.getProductId(), orderId, lineItem.getQuantity()));
+        }
+        try {
+            scope.done.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            return scope.reserved();
+        } catch (ExecutionException ex) {
+            failures.increment();
+            scope.abort();
+            throw unwrap(ex);
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            scope.abort();
+            throw new ResourceAccessException("Reserving stock for order " + orderId + " took longer than " + timeout);
+        } catch (InterruptedException ex) {
+            scope.abort();
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while reserving stock for order " + orderId, ex);
+        }
+    }
+
+    private void cancelAll(List<ReservationInfo> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        log.warn("Inventory reservation failed, compensating {} successful reservations", reservations.size());
+        List<Future<?>> cancellations = new ArrayList<>();
+        for (ReservationInfo reservation : reservations) {
+            cancellations.add(submit(() -> cancel(reservation), parallel && reservations.size() > 1));
+        }
+        for (Future<?> cancellation : cancellations) {
+            try {
+                cancellation.get();
+            } catch (ExecutionException ex) {
+                // cancel() logs its own failures
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void cancel(ReservationInfo reservation) {
+        try {
+            inventoryServiceClient.cancelReservation(reservation.id());
+        } catch (Exception ex) {
+            log.error("Failed to cancel reservation {}", reservation.id(), ex);
+        }
+    }
+
+    private Future<?> submit(Runnable task, boolean async) {
+        if (async) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException ex) {
+                // Pool saturated or shutting down: run it on the caller instead
+            }
+        }
+        FutureTask<Void> inline = new FutureTask<>(task, null);
+        inline.run();
+        return inline;
+    }
+
+    private static RuntimeException unwrap(ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new RestClientException("Stock reservation failed", cause);
+    }
+
+    private static Counter abortCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("order.reservations.aborted")
+                .description("Orders whose parallel stock reservations were aborted and compensated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("inventory-reserve-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The reservation calls of one order. Every successful reservation either lands in
+     * {@code reserved} before the abort, which then cancels it, or sees the abort and cancels
+     * itself; never both.
+     */
+    private final class Scope {
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final List<Future<?>> forks = new ArrayList<>();
+        private final List<ReservationInfo> reserved = new ArrayList<>();
+        private final int expected;
+        private final boolean async;
+        private boolean aborted;
+
+        Scope(int expected, boolean async) {
+            this.expected = expected;
+            this.async = async;
+        }
+
+        void fork(Supplier<ReservationInfo> call) {
+            forks.add(submit(() -> run(call), async));
+        }
+
+        private void run(Supplier<ReservationInfo> call) {
+            if (done.isDone()) {
+                return;
+            }
+            ReservationInfo reservation;
+            try {
+                reservation = call.get();
+            } catch (RuntimeException ex) {
+                done.completeExceptionally(ex);
+                return;
+            }
+            synchronized (this) {
+                if (!aborted) {
+                    reserved.add(reservation);
+                    if (reserved.size() == expected) {
+                        done.complete(null);
+                    }
+                    return;
+                }
+            }
+            cancel(reservation);
+        }
+
+        synchronized List<ReservationInfo> reserved() {
+            return List.copyOf(reserved);
+        }
+
+        void abort() {
+            done.cancel(false);
+            List<ReservationInfo> made;
+            synchronized (this) {
+                aborted = true;
+                made = List.copyOf(reserved);
+            }
+            // Not cancel(true): an interrupted call loses the id of a reservation it may have made
+            forks.forEach(fork -> fork.cancel(false));
+            cancelAll(made);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.lab.order.service;
+
+import com.lab.order.dto.CustomerDailySales;
+import com.lab.order.dto.ProductHourlySales;
+import com.lab.order.exception.InvalidAnalyticsRangeException;
+import com.lab.order.repository.SalesRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads sales rollups and rebuilds them from orders. Ranges are capped so every read
+ * touches a bounded number of rollup rows, independent of order volume.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SalesAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    private static final Duration MAX_HOURLY_RANGE = Duration.ofDays(31);
+    private static final Period MAX_DAILY_RANGE = Period.ofDays(366);
+
+    private final SalesRollupRepository rollupRepository;
+    private final SalesRollupRecorder rollupRecorder;
+
+    public SalesAnalyticsService(SalesRollupRepository rollupRepository, SalesRollupRecorder rollupRecorder) {
+        this.rollupRepository = rollupRepository;
+        this.rollupRecorder = rollupRecorder;
+    }
+
+    public List<ProductHourlySales> getProductHourlySales(UUID productId, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidAnalyticsRangeException("from must be before to");
+        }
+        if (Duration.between(from, to).compareTo(MAX_HOURLY_RANGE) > 0) {
+            throw new InvalidAnalyticsRangeException("Hourly range must not exceed " + MAX_HOURLY_RANGE.toDays() + " days");
+        }
+        return rollupRepository.findProductHourly(productId, from.truncatedTo(ChronoUnit.HOURS), to);
+    }
+
+    public List<CustomerDailySales> getCustomerDailySales(String customerName, LocalDate from, LocalDate to) {
+        validateDays(from, to, MAX_DAILY_RANGE);
+        return rollupRepository.findCustomerDaily(customerName, from, to);
+    }
+
+    /**
+     * Recomputes rollups for the completed UTC days in {@code [from, to)}. Today is excluded
+     * because orders confirmed while the rebuild runs would otherwise be counted twice.
+     */
+    // The recorder runs the rebuild in its own transaction, serialized with its flushes
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfill(LocalDate from, LocalDate to) {
+        validateDays(from, to, null);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (to.isAfter(today)) {
+            throw new InvalidAnalyticsRangeException("Backfill must end on or before " + today);
+        }
+        rollupRecorder.rebuild(from, to);
+        log.info("Rebuilt sales rollups for {} to {}", from, to);
+    }
+
+    private static void validateDays(LocalDate from, LocalDate to, Period maxRange) {
+        if (!from.isBefore(to)) {
+            throw new InvalidAnalyticsRangeException("from must be before to");
+        }
+        if (maxRange != null && from.plus(maxRange).isBefore(to)) {
+            throw new InvalidAnalyticsRangeException("Daily range must not exceed " + maxRange.getDays() + " days");
+        }
+    }
+}
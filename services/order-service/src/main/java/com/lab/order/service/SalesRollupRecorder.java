@@ -0,0 +1,212 @@
+package com.lab.order.service;
+
+import com.lab.order.dto.CustomerDailySales;
+import com.lab.order.dto.LineItemResponse;
+import com.lab.order.dto.OrderResponse;
+import com.lab.order.dto.ProductHourlySales;
+import com.lab.order.repository.SalesRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folds confirmed orders into in-memory rollup deltas and writes them as batched upserts
+ * on a background thread, keeping the rollup writes off the order request path. Deltas
+ * that fail to flush are kept for the next attempt; anything lost on a crash can be
+ * recomputed with {@link SalesAnalyticsService#backfill}, which goes through
+ * {@link #rebuild} so buffered deltas are not applied on top of the rebuilt buckets.
+ */
+@Component
+public class SalesRollupRecorder implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupRecorder.class);
+
+    private final SalesRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration flushInterval;
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+    // Held while writing to the rollup tables, so a rebuild never interleaves with a flush
+    private final Object writeLock = new Object();
+
+    private Map<ProductHour, Delta> productDeltas = new HashMap<>();
+    private Map<CustomerDay, Delta> customerDeltas = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public SalesRollupRecorder(SalesRollupRepository rollupRepository,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${analytics.rollup.flush-interval:1s}") Duration flushInterval) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.flushInterval = flushInterval;
+        this.flushTimer = Timer.builder("order.rollup.flush")
+                .description("Time spent writing rollup deltas")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("order.rollup.flush.failures")
+                .description("Rollup flushes that failed and were retried")
+                .register(meterRegistry);
+        meterRegistry.gauge("order.rollup.pending", this, SalesRollupRecorder::pendingBuckets);
+    }
+
+    // fallbackExecution covers the reactive pipeline, which confirms outside a Spring-managed transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderConfirmed(OrderConfirmedEvent event) {
+        OrderResponse order = event.order();
+        Instant hourStart = order.createdAt().truncatedTo(ChronoUnit.HOURS);
+        LocalDate day = LocalDate.ofInstant(order.createdAt(), ZoneOffset.UTC);
+
+        synchronized (this) {
+            for (LineItemResponse item : order.items()) {
+                productDeltas.merge(new ProductHour(item.productId(), hourStart),
+                        new Delta(item.quantity(), item.subtotal()), Delta::plus);
+            }
+            customerDeltas.merge(new CustomerDay(order.customerName(), day),
+                    new Delta(1, order.totalAmount()), Delta::plus);
+        }
+    }
+
+    /**
+     * Writes all pending deltas in one transaction. On failure they are merged back so
+     * the next flush retries them alongside anything recorded in the meantime.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            flushPending();
+        }
+    }
+
+    /**
+     * Recomputes the buckets of the UTC days in {@code [from, to)} with no flush in flight.
+     * Deltas still buffered for those days are dropped first: they are only recorded once
+     * their order has committed, so the rebuild already counts them.
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        Instant start = from.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant end = to.atStartOfDay(ZoneOffset.UTC).toInstant();
+        synchronized (writeLock) {
+            int discarded;
+            synchronized (this) {
+                int before = pendingBuckets();
+                productDeltas.keySet().removeIf(key -> !key.hourStart().isBefore(start) && key.hourStart().isBefore(end));
+                customerDeltas.keySet().removeIf(key -> !key.day().isBefore(from) && key.day().isBefore(to));
+                discarded = before - pendingBuckets();
+            }
+            if (discarded > 0) {
+                log.info("Dropped {} buffered rollup buckets covered by the rebuild of {} to {}", discarded, from, to);
+            }
+            transactionTemplate.executeWithoutResult(status -> rollupRepository.rebuild(from, to));
+        }
+    }
+
+    private void flushPending() {
+        Map<ProductHour, Delta> products;
+        Map<CustomerDay, Delta> customers;
+        synchronized (this) {
+            if (productDeltas.isEmpty() && customerDeltas.isEmpty()) {
+                return;
+            }
+            products = productDeltas;
+            customers = customerDeltas;
+            productDeltas = new HashMap<>();
+            customerDeltas = new HashMap<>();
+        }
+
+        List<ProductHourlySales> productRows = products.entrySet().stream()
+                .map(e -> new ProductHourlySales(e.getKey().productId(), e.getKey().hourStart(),
+                        e.getValue().count(), e.getValue().revenue()))
+                .toList();
+        List<CustomerDailySales> customerRows = customers.entrySet().stream()
+                .map(e -> new CustomerDailySales(e.getKey().customerName(), e.getKey().day(),
+                        e.getValue().count(), e.getValue().revenue()))
+                .toList();
+
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                rollupRepository.incrementProductHourly(productRows);
+                rollupRepository.incrementCustomerDaily(customerRows);
+            }));
+        } catch (RuntimeException ex) {
+            flushFailures.increment();
+            log.warn("Failed to flush {} rollup buckets, retrying on next flush",
+                    products.size() + customers.size(), ex);
+            synchronized (this) {
+                products.forEach((key, delta) -> productDeltas.merge(key, delta, Delta::plus));
+                customers.forEach((key, delta) -> customerDeltas.merge(key, delta, Delta::plus));
+            }
+        }
+    }
+
+    synchronized int pendingBuckets() {
+        return productDeltas.size() + customerDeltas.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-rollup-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = scheduler;
+            scheduler = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(flushInterval.toMillis() + 5_000, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            // Final flush so a clean shutdown loses nothing
+            flush();
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private record ProductHour(UUID productId, Instant hourStart) {
+    }
+
+    private record CustomerDay(String customerName, LocalDate day) {
+    }
+
+    private record Delta(long count, BigDecimal revenue) {
+
+        Delta plus(Delta other) {
+            return new Delta(count + other.count, revenue.add(other.revenue));
+        }
+    }
+}
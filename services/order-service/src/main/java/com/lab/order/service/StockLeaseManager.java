@@ -0,0 +1,310 @@
+package com.lab.order.service;
+
+import com.lab.order.client.InventoryServiceClient;
+import com.lab.order.client.InventoryServiceClient.LeaseInfo;
+import com.lab.order.dto.LeaseConsumption;
+import com.lab.order.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Holds stock leases from inventory-service for hot products, so their orders are confirmed
+ * against an in-memory count instead of a reservation call each. A product is hot once it saw
+ * {@code hot-threshold} orders within one {@code hot-window}.
+ * <p>
+ * Leased units are already reserved in inventory-service, and a lease never hands out more
+ * than it holds, so nothing can be oversold. Line items taken from a lease carry its id. Once
+ * the lease stops being used ({@code settle-margin} before it expires, or when it runs out)
+ * and its in-flight orders have committed or rolled back, it is settled. Settling reports the
+ * confirmed orders found in the database and inventory-service releases the rest. Leases left
+ * unsettled {@code abandon-after} past expiry, for example because their holder died, are
+ * settled the same way by any instance.
+ */
+@Component
+public class StockLeaseManager implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLeaseManager.class);
+
+    // Orders are saved before they take from a lease, and clocks differ between services
+    private static final Duration CONSUMPTION_LOOKBACK = Duration.ofMinutes(10);
+
+    private final InventoryServiceClient inventoryServiceClient;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String holder;
+    private final int leaseSize;
+    private final Duration ttl;
+    private final Duration settleMargin;
+    private final long hotThreshold;
+    private final long hotWindowNanos;
+    private final Duration abandonAfter;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter settled;
+
+    private final Map<UUID, Lease> active = new ConcurrentHashMap<>();
+    private final Map<UUID, LongAdder> demand = new ConcurrentHashMap<>();
+    private volatile Set<UUID> hotProducts = Set.of();
+
+    // Only touched by the lease thread
+    private final List<Lease> draining = new ArrayList<>();
+    private long windowStartedAt = System.nanoTime();
+    private long lastOrphanSweep = System.nanoTime();
+    private ScheduledExecutorService scheduler;
+
+    public StockLeaseManager(InventoryServiceClient inventoryServiceClient,
+                             OrderRepository orderRepository,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${orders.stock-lease.enabled:false}") boolean enabled,
+                             @Value("${orders.stock-lease.holder:order-service}") String holder,
+                             @Value("${orders.stock-lease.size:50}") int leaseSize,
+                             @Value("${orders.stock-lease.ttl:30s}") Duration ttl,
+                             @Value("${orders.stock-lease.settle-margin:5s}") Duration settleMargin,
+                             @Value("${orders.stock-lease.hot-threshold:50}") long hotThreshold,
+                             @Value("${orders.stock-lease.hot-window:10s}") Duration hotWindow,
+                             @Value("${orders.stock-lease.abandon-after:2m}") Duration abandonAfter) {
+        this.inventoryServiceClient = inventoryServiceClient;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        // Unique per process, so a restarted instance never mistakes old leases for its own
+        this.holder = holder + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.leaseSize = leaseSize;
+        this.ttl = ttl;
+        this.settleMargin = settleMargin;
+        this.hotThreshold = hotThreshold;
+        this.hotWindowNanos = hotWindow.toNanos();
+        this.abandonAfter = abandonAfter;
+        this.hits = requestCounter(meterRegistry, "leased");
+        this.misses = requestCounter(meterRegistry, "reserved");
+        this.settled = Counter.builder("order.stock.lease.settled")
+                .description("Stock leases settled with inventory-service")
+                .register(meterRegistry);
+        meterRegistry.gauge("order.stock.lease.active", active, Map::size);
+    }
+
+    /**
+     * Takes {@code quantity} from this instance's lease for the product. Returns the lease id,
+     * or empty when the caller has to reserve with inventory-service itself. If the current
+     * transaction rolls back the units go back to the lease.
+     */
+    public Optional<UUID> tryConsume(UUID productId, int quantity) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        demand.computeIfAbsent(productId, id -> new LongAdder()).increment();
+        Lease lease = active.get(productId);
+        if (lease == null || !lease.tryTake(quantity)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lease.finish(status == STATUS_COMMITTED ? 0 : quantity);
+                }
+            });
+        } else {
+            lease.finish(0);
+        }
+        return Optional.of(lease.id);
+    }
+
+    void tick() {
+        long now = System.nanoTime();
+        if (now - windowStartedAt >= hotWindowNanos) {
+            hotProducts = demand.entrySet().stream()
+                    .filter(entry -> entry.getValue().sum() >= hotThreshold)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toUnmodifiableSet());
+            demand.clear();
+            windowStartedAt = now;
+        }
+
+        for (Lease lease : active.values()) {
+            if (now >= lease.usableUntil || lease.remaining.get() == 0) {
+                lease.retire(now);
+                active.remove(lease.productId, lease);
+                draining.add(lease);
+            }
+        }
+        for (UUID productId : hotProducts) {
+            if (!active.containsKey(productId)) {
+                grant(productId, now);
+            }
+        }
+        draining.removeIf(lease -> lease.pending.get() == 0 && settle(lease.id, lease.createdAt));
+
+        if (now - lastOrphanSweep >= abandonAfter.toNanos()) {
+            settleAbandoned();
+            lastOrphanSweep = now;
+        }
+    }
+
+    private void grant(UUID productId, long now) {
+        try {
+            LeaseInfo info = inventoryServiceClient.grantLease(productId, holder, leaseSize, ttl);
+            long usableNanos = Duration.between(Instant.now(), info.expiresAt()).minus(settleMargin).toNanos();
+            Lease lease = new Lease(info.id(), productId, info.createdAt(), info.quantity(), now + usableNanos);
+            if (usableNanos > 0) {
+                active.put(productId, lease);
+            } else {
+                draining.add(lease);
+            }
+        } catch (HttpClientErrorException.Conflict ex) {
+            // Sold out; orders for it fall back to reserving and fail there
+            log.debug("No stock to lease for product {}", productId);
+        } catch (RestClientException ex) {
+            log.warn("Could not lease stock for product {}", productId, ex);
+        }
+    }
+
+    private boolean settle(UUID leaseId, Instant grantedAt) {
+        try {
+            // Not read-only, so it reads the primary and sees orders that just committed
+            List<LeaseConsumption> consumed = transactionTemplate.execute(status ->
+                    orderRepository.findLeaseConsumption(leaseId, grantedAt.minus(CONSUMPTION_LOOKBACK)));
+            inventoryServiceClient.settleLease(leaseId, consumed == null ? List.of() : consumed);
+            settled.increment();
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Could not settle stock lease {}, retrying", leaseId, ex);
+            return false;
+        }
+    }
+
+    private void settleAbandoned() {
+        try {
+            Set<UUID> ours = draining.stream().map(lease -> lease.id).collect(Collectors.toSet());
+            for (LeaseInfo lease : inventoryServiceClient.findUnsettledLeases(Instant.now().minus(abandonAfter))) {
+                if (!ours.contains(lease.id()) && settle(lease.id(), lease.createdAt())) {
+                    log.info("Settled abandoned stock lease {} for product {}", lease.id(), lease.productId());
+                }
+            }
+        } catch (RestClientException ex) {
+            log.warn("Could not look up abandoned stock leases", ex);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException ex) {
+                log.warn("Stock lease maintenance failed", ex);
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("order.stock.lease.requests")
+                .description("Line items confirmed from a local stock lease or reserved with inventory-service")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    static final class Lease {
+
+        final UUID id;
+        final UUID productId;
+        final Instant createdAt;
+        final AtomicInteger remaining;
+        // Orders that took from the lease and have not committed or rolled back yet
+        final AtomicInteger pending = new AtomicInteger();
+        volatile long usableUntil;
+        // Set before the lease thread looks at pending; a taker that sees it backs out
+        volatile boolean retired;
+
+        Lease(UUID id, UUID productId, Instant createdAt, int quantity, long usableUntil) {
+            this.id = id;
+            this.productId = productId;
+            this.createdAt = createdAt;
+            this.remaining = new AtomicInteger(quantity);
+            this.usableUntil = usableUntil;
+        }
+
+        boolean tryTake(int quantity) {
+            // Counted as pending before the checks, so retiring can't miss a late taker: either
+            // the lease thread sees this order pending, or this order sees the lease retired.
+            // The clock is read only now, as a time read before the increment may be stale.
+            pending.incrementAndGet();
+            if (retired || System.nanoTime() >= usableUntil) {
+                pending.decrementAndGet();
+                return false;
+            }
+            int current = remaining.get();
+            while (current >= quantity) {
+                if (remaining.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+                current = remaining.get();
+            }
+            pending.decrementAndGet();
+            return false;
+        }
+
+        void finish(int giveBack) {
+            if (giveBack > 0) {
+                remaining.addAndGet(giveBack);
+            }
+            pending.decrementAndGet();
+        }
+
+        void retire(long now) {
+            usableUntil = Math.min(usableUntil, now);
+            retired = true;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- Order search pages by keyset (created_at DESC, id DESC). Each filter leads its own
+-- composite index so every filter combination is an index range scan, never a seq scan.
+-- CONCURRENTLY keeps writes flowing while the indexes build on large tables.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_customer_created
+    ON orders (customer_name, created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_status_created
+    ON orders (status, created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_created
+    ON orders (created_at DESC, id DESC);
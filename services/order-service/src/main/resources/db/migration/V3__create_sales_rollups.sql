@@ -0,0 +1,17 @@
+-- Sales rollups maintained incrementally when orders are confirmed. Buckets are UTC;
+-- the primary keys double as the range index the analytics endpoints read from.
+CREATE TABLE product_sales_hourly (
+    product_id UUID NOT NULL,
+    hour_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    units BIGINT NOT NULL,
+    revenue NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (product_id, hour_start)
+);
+
+CREATE TABLE customer_sales_daily (
+    customer_name VARCHAR(255) NOT NULL,
+    day DATE NOT NULL,
+    orders BIGINT NOT NULL,
+    revenue NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (customer_name, day)
+);
@@ -0,0 +1,78 @@
+-- Monthly range partitioning on created_at (UTC months). line_items carries its order's
+-- created_at so both tables are partitioned on the same key and old months can be detached
+-- or dropped together. Partitions are named orders_pYYYY_MM / line_items_pYYYY_MM and kept
+-- ahead of time by OrderPartitionMaintenance through ensure_order_partitions().
+
+ALTER TABLE line_items RENAME TO line_items_unpartitioned;
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+-- Index names are schema-wide; free the primary key names for the new tables
+ALTER TABLE line_items_unpartitioned RENAME CONSTRAINT line_items_pkey TO line_items_unpartitioned_pkey;
+ALTER TABLE orders_unpartitioned RENAME CONSTRAINT orders_pkey TO orders_unpartitioned_pkey;
+
+CREATE TABLE orders (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    customer_name VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    total_amount NUMERIC(12, 2),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    CONSTRAINT orders_pkey PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE line_items (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    order_id UUID NOT NULL,
+    order_created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    product_id UUID NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    quantity INT NOT NULL,
+    unit_price NUMERIC(10, 2) NOT NULL,
+    CONSTRAINT line_items_pkey PRIMARY KEY (id, order_created_at),
+    CONSTRAINT fk_line_items_order FOREIGN KEY (order_id, order_created_at)
+        REFERENCES orders (id, created_at) ON DELETE CASCADE
+) PARTITION BY RANGE (order_created_at);
+
+CREATE FUNCTION ensure_order_partitions(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    lower_bound TIMESTAMP WITH TIME ZONE := date_trunc('month', month_start::timestamp) AT TIME ZONE 'UTC';
+    upper_bound TIMESTAMP WITH TIME ZONE := (date_trunc('month', month_start::timestamp) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+    suffix TEXT := to_char(month_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                   'orders_p' || suffix, lower_bound, upper_bound);
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF line_items FOR VALUES FROM (%L) TO (%L)',
+                   'line_items_p' || suffix, lower_bound, upper_bound);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month that already has orders, plus the current and next three months
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR month_start IN
+        SELECT DISTINCT date_trunc('month', created_at AT TIME ZONE 'UTC')::date FROM orders_unpartitioned
+        UNION
+        SELECT (date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => n))::date
+        FROM generate_series(0, 3) AS n
+    LOOP
+        PERFORM ensure_order_partitions(month_start);
+    END LOOP;
+END $$;
+
+INSERT INTO orders (id, customer_name, status, total_amount, created_at)
+SELECT id, customer_name, status, total_amount, created_at
+FROM orders_unpartitioned;
+
+INSERT INTO line_items (id, order_id, order_created_at, product_id, product_name, quantity, unit_price)
+SELECT li.id, li.order_id, o.created_at, li.product_id, li.product_name, li.quantity, li.unit_price
+FROM line_items_unpartitioned li
+JOIN orders_unpartitioned o ON o.id = li.order_id;
+
+DROP TABLE line_items_unpartitioned;
+DROP TABLE orders_unpartitioned;
+
+-- Same search indexes as V2, now created on the partitioned parent and inherited by every partition
+CREATE INDEX idx_orders_customer_created ON orders (customer_name, created_at DESC, id DESC);
+CREATE INDEX idx_orders_status_created ON orders (status, created_at DESC, id DESC);
+CREATE INDEX idx_orders_created ON orders (created_at DESC, id DESC);
+CREATE INDEX idx_line_items_order_id ON line_items (order_id, order_created_at);
@@ -0,0 +1,5 @@
+-- Set when the line item was confirmed against a stock lease instead of its own reservation.
+-- Settling a lease looks up its confirmed line items; the index cascades to every partition.
+ALTER TABLE line_items ADD COLUMN lease_id UUID;
+
+CREATE INDEX idx_line_items_lease ON line_items (lease_id, order_created_at) WHERE lease_id IS NOT NULL;
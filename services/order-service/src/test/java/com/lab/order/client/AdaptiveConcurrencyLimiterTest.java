@@ -0,0 +1,133 @@
+package com.lab.order.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = limiter(Duration.ZERO);
+    }
+
+    @Test
+    void should_RaiseLimit_When_RttStaysAtBaselineUnderLoad() {
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(10 * MILLIS, limiter.limit());
+        }
+
+        assertThat(limiter.limit()).isGreaterThan(20);
+        assertThat(meterRegistry.get("inventory.client.concurrency.limit").gauge().value())
+                .isEqualTo(limiter.limit());
+    }
+
+    @Test
+    void should_LowerLimit_When_RttGrows() {
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(10 * MILLIS, limiter.limit());
+        }
+        int learned = limiter.limit();
+
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(100 * MILLIS, limiter.limit());
+        }
+
+        assertThat(limiter.limit()).isLessThan(learned);
+    }
+
+    @Test
+    void should_KeepLimit_When_MostOfItIsUnused() {
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(10 * MILLIS, 2);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void should_CutLimit_When_CallTimesOut() {
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new ResourceAccessException("Read timed out");
+        })).isInstanceOf(ResourceAccessException.class);
+
+        assertThat(limiter.limit()).isEqualTo(18);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void should_FailFast_When_LimitIsReached() throws Exception {
+        AdaptiveConcurrencyLimiter tight = new AdaptiveConcurrencyLimiter(meterRegistry, true, 1, 1, 10, 0,
+                Duration.ZERO, 1.5, 0.2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> tight.execute(() -> {
+                started.countDown();
+                await(release);
+                return "first";
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> tight.execute(() -> "second"))
+                    .isInstanceOf(ConcurrencyLimitExceededException.class);
+            assertThat(meterRegistry.counter("inventory.client.concurrency.rejected").count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void should_RunQueuedCall_When_SlotFreesWithinQueueWait() throws Exception {
+        AdaptiveConcurrencyLimiter queueing = new AdaptiveConcurrencyLimiter(meterRegistry, true, 1, 1, 10, 5,
+                Duration.ofSeconds(5), 1.5, 0.2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+        try {
+            executor.submit(() -> queueing.execute(() -> {
+                started.countDown();
+                await(release);
+                return "first";
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.schedule(release::countDown, 100, TimeUnit.MILLISECONDS);
+
+            assertThat(queueing.execute(() -> "second")).isEqualTo("second");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(Duration maxQueueWait) {
+        return new AdaptiveConcurrencyLimiter(meterRegistry, true, 20, 4, 200, 50, maxQueueWait, 1.5, 0.2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
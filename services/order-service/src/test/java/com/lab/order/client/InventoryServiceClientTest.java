@@ -1,16 +1,20 @@
 package com.lab.order.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.lab.order.client.InventoryServiceClient.ReservationInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withNoContent;
@@ -27,7 +31,8 @@ class InventoryServiceClientTest {
     void setUp() {
         RestClient.Builder builder = RestClient.builder();
         mockServer = MockRestServiceServer.bindTo(builder).build();
-        inventoryServiceClient = new InventoryServiceClient(builder, "http://localhost:8082");
+        inventoryServiceClient = new InventoryServiceClient(builder, "http://localhost:8082", new AdaptiveConcurrencyLimiter(
+                new SimpleMeterRegistry(), true, 20, 4, 200, 50, Duration.ofMillis(50), 1.5, 0.2), true);
     }
 
     @Test
@@ -66,4 +71,23 @@ class InventoryServiceClientTest {
 
         mockServer.verify();
     }
+
+    @Test
+    void should_SendAndReadCbor_When_BinaryEncodingIsEnabled() throws Exception {
+        CBORMapper cborMapper = new CBORMapper();
+        UUID productId = UUID.randomUUID();
+        UUID orderId = UUID.randomUUID();
+        var expectedReservation = new ReservationInfo(UUID.randomUUID(), productId, 2);
+
+        mockServer.expect(requestTo("http://localhost:8082/api/inventory/reservations"))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(content().bytes(cborMapper.writeValueAsBytes(
+                        new InventoryServiceClient.ReserveStockPayload(productId, orderId, 2))))
+                .andRespond(withSuccess(cborMapper.writeValueAsBytes(expectedReservation), MediaType.APPLICATION_CBOR));
+
+        ReservationInfo result = inventoryServiceClient.reserveStock(productId, orderId, 2);
+
+        assertThat(result).isEqualTo(expectedReservation);
+        mockServer.verify();
+    }
 }
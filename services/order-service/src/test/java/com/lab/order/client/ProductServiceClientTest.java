@@ -1,17 +1,22 @@
 package com.lab.order.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.lab.order.client.ProductServiceClient.ProductInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
@@ -25,7 +30,11 @@ class ProductServiceClientTest {
     void setUp() {
         RestClient.Builder builder = RestClient.builder();
         mockServer = MockRestServiceServer.bindTo(builder).build();
-        productServiceClient = new ProductServiceClient(builder, "http://localhost:8081");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestHedger hedger = new RequestHedger(meterRegistry, false, 0.95, 10,
+                Duration.ofMillis(50), Duration.ofMillis(5), 100, 2);
+        RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true, Duration.ofSeconds(5));
+        productServiceClient = new ProductServiceClient(builder, "http://localhost:8081", hedger, coalescer, true);
     }
 
     @Test
@@ -47,4 +56,19 @@ class ProductServiceClientTest {
 
         mockServer.verify();
     }
+
+    @Test
+    void should_PreferCbor_When_BinaryEncodingIsEnabled() throws Exception {
+        UUID productId = UUID.randomUUID();
+        var expectedProduct = new ProductInfo(productId, "Laptop", new BigDecimal("999.99"));
+
+        mockServer.expect(requestTo("http://localhost:8081/api/products/" + productId))
+                .andExpect(header(HttpHeaders.ACCEPT, "application/cbor, application/json"))
+                .andRespond(withSuccess(new CBORMapper().writeValueAsBytes(expectedProduct), MediaType.APPLICATION_CBOR));
+
+        ProductInfo result = productServiceClient.getProduct(productId);
+
+        assertThat(result).isEqualTo(expectedProduct);
+        mockServer.verify();
+    }
 }
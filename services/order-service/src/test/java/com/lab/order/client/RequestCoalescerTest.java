@@ -0,0 +1,133 @@
+package com.lab.order.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true, Duration.ofSeconds(5));
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void should_ShareOneCall_When_SameKeyRequestedConcurrently() throws Exception {
+        UUID productId = UUID.randomUUID();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitConcurrently(productId, () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "Laptop";
+        });
+        waitUntilAllJoined();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Laptop");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("product.client.coalescing.joined").count()).isEqualTo(CALLERS - 1);
+        assertThat(coalescer.inFlightCount()).isZero();
+    }
+
+    @Test
+    void should_PropagateFailureToEveryWaiter() throws Exception {
+        UUID productId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitConcurrently(productId, () -> {
+            await(release);
+            throw new IllegalStateException("product-service unavailable");
+        });
+        waitUntilAllJoined();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void should_CallOnItsOwn_When_InFlightCallOutlastsMaxWait() throws Exception {
+        RequestCoalescer impatient = new RequestCoalescer(meterRegistry, true, Duration.ofMillis(50));
+        UUID productId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = callers.submit(() -> impatient.execute(productId, () -> {
+            await(release);
+            return "stuck";
+        }));
+        while (impatient.inFlightCount() == 0) {
+            Thread.sleep(1);
+        }
+
+        String waiter = impatient.execute(productId, () -> "own call");
+
+        assertThat(waiter).isEqualTo("own call");
+        assertThat(meterRegistry.counter("product.client.coalescing.fallbacks").count()).isEqualTo(1);
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("stuck");
+    }
+
+    @Test
+    void should_CallAgain_When_PreviousCallCompleted() {
+        UUID productId = UUID.randomUUID();
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.execute(productId, () -> "call-" + calls.incrementAndGet());
+        String second = coalescer.execute(productId, () -> "call-" + calls.incrementAndGet());
+
+        assertThat(second).isEqualTo("call-2");
+        assertThat(coalescer.inFlightCount()).isZero();
+    }
+
+    private List<Future<String>> submitConcurrently(UUID key, Supplier<String> call) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> coalescer.execute(key, call)));
+        }
+        return results;
+    }
+
+    private void waitUntilAllJoined() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("product.client.coalescing.joined").count() < CALLERS - 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
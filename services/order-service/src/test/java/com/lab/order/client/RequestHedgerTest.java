@@ -0,0 +1,151 @@
+package com.lab.order.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestHedgerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch releaseSlowAttempt = new CountDownLatch(1);
+    private final CountDownLatch slowAttemptInterrupted = new CountDownLatch(1);
+    private RequestHedger hedger;
+
+    @AfterEach
+    void tearDown() {
+        releaseSlowAttempt.countDown();
+        if (hedger != null) {
+            hedger.destroy();
+        }
+    }
+
+    @Test
+    void should_CallDirectly_When_HedgingDisabled() {
+        hedger = hedger(false, 100);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute(() -> "attempt-" + attempts.incrementAndGet());
+
+        assertThat(result).isEqualTo("attempt-1");
+        assertThat(meterRegistry.counter("product.client.hedge.sent").count()).isZero();
+    }
+
+    @Test
+    void should_SendHedgeAndReturnFirstResponse_When_OriginalIsSlow() {
+        hedger = hedger(true, 100);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute(() -> {
+            int attempt = attempts.incrementAndGet();
+            if (attempt == 1) {
+                awaitRelease();
+            }
+            return "attempt-" + attempt;
+        });
+
+        assertThat(result).isEqualTo("attempt-2");
+        assertThat(meterRegistry.counter("product.client.hedge.sent").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("product.client.hedge.wins").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("product.client.hedge.rate").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void should_CancelSlowOriginal_When_HedgeWins() throws InterruptedException {
+        hedger = hedger(true, 100);
+        AtomicInteger attempts = new AtomicInteger();
+
+        hedger.execute(() -> {
+            int attempt = attempts.incrementAndGet();
+            if (attempt == 1) {
+                awaitRelease();
+            }
+            return "attempt-" + attempt;
+        });
+
+        assertThat(slowAttemptInterrupted.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void should_RunOnCallerThread_When_NoHedgeCanBeSent() {
+        hedger = hedger(true, 0);
+        Thread caller = Thread.currentThread();
+        MDC.put("orderId", "order-42");
+        try {
+            String result = hedger.execute(() -> Thread.currentThread() == caller ? MDC.get("orderId") : "pool");
+
+            assertThat(result).isEqualTo("order-42");
+        } finally {
+            MDC.remove("orderId");
+        }
+    }
+
+    @Test
+    void should_CarryCallerContextToAttempts_When_HedgingIsPossible() {
+        hedger = hedger(true, 100);
+        MDC.put("orderId", "order-42");
+        try {
+            assertThat(hedger.execute(() -> MDC.get("orderId"))).isEqualTo("order-42");
+        } finally {
+            MDC.remove("orderId");
+        }
+    }
+
+    @Test
+    void should_NotHedge_When_HedgeBudgetExhausted() {
+        hedger = hedger(true, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute(() -> {
+            int attempt = attempts.incrementAndGet();
+            sleep(40);
+            return "attempt-" + attempt;
+        });
+
+        assertThat(result).isEqualTo("attempt-1");
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("product.client.hedge.sent").count()).isZero();
+    }
+
+    @Test
+    void should_PropagateFailure_When_EveryAttemptFails() {
+        hedger = hedger(true, 100);
+
+        assertThatThrownBy(() -> hedger.execute(() -> {
+            sleep(20);
+            throw new IllegalStateException("product-service unavailable");
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("unavailable");
+    }
+
+    private RequestHedger hedger(boolean enabled, double maxHedgePercent) {
+        return new RequestHedger(meterRegistry, enabled, 0.95, maxHedgePercent,
+                Duration.ofMillis(10), Duration.ofMillis(1), 100, 4);
+    }
+
+    private void awaitRelease() {
+        try {
+            releaseSlowAttempt.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            slowAttemptInterrupted.countDown();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
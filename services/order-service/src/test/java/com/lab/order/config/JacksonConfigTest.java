@@ -0,0 +1,38 @@
+package com.lab.order.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lab.order.dto.LineItemResponse;
+import com.lab.order.dto.OrderResponse;
+import com.lab.order.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JacksonConfigTest {
+
+    private final JacksonConfig config = new JacksonConfig();
+
+    @Test
+    void should_WriteSameJsonAsDefaultMapper_When_Tuned() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().modulesToInstall(config.blackbirdModule());
+        config.pooledBuffers().customize(builder);
+        ObjectMapper tuned = builder.build();
+        ObjectMapper stock = Jackson2ObjectMapperBuilder.json().build();
+        var order = new OrderResponse(UUID.randomUUID(), "Alice", OrderStatus.CONFIRMED, new BigDecimal("59.98"),
+                Instant.parse("2026-10-01T12:00:00Z"),
+                List.of(new LineItemResponse(UUID.randomUUID(), UUID.randomUUID(), "Cable", 2,
+                        new BigDecimal("29.99"), new BigDecimal("59.98"))));
+
+        String json = tuned.writeValueAsString(List.of(order));
+
+        assertThat(json).isEqualTo(stock.writeValueAsString(List.of(order)));
+        assertThat(tuned.readerForListOf(OrderResponse.class).<List<OrderResponse>>readValue(json))
+                .containsExactly(order);
+    }
+}
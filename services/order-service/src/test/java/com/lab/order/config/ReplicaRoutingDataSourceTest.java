@@ -0,0 +1,153 @@
+package com.lab.order.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private MeterRegistry meterRegistry;
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = mock(DataSource.class);
+        replica1 = mock(DataSource.class);
+        replica2 = mock(DataSource.class);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        routing = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(5),
+                Duration.ofSeconds(2), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void should_AlternateReplicas_When_TransactionIsReadOnly() {
+        routing.recordLag("replica-1", 0.2);
+        routing.recordLag("replica-2", 1.0);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-2");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+        assertThat(meterRegistry.counter("datasource.routing.connections", "route", "replica-1").count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void should_RouteToPrimary_When_TransactionIsNotReadOnly() {
+        routing.recordLag("replica-1", 0);
+        routing.recordLag("replica-2", 0);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(meterRegistry.counter("datasource.routing.fallbacks").count()).isZero();
+    }
+
+    @Test
+    void should_SkipReplica_When_LagExceedsThreshold() {
+        routing.recordLag("replica-1", 12);
+        routing.recordLag("replica-2", 0);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-2");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-2");
+    }
+
+    @Test
+    void should_FallBackToPrimary_When_NoReplicaIsUsable() {
+        routing.recordLag("replica-1", 30);
+        routing.recordLag("replica-2", Double.NaN);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(meterRegistry.counter("datasource.routing.fallbacks").count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_RouteToReplicaAgain_When_LagRecovers() {
+        routing.recordLag("replica-1", 30);
+        routing.recordLag("replica-2", Double.NaN);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        routing.recordLag("replica-1", 0.5);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+    }
+
+    @Test
+    void should_ReadFromReplica_When_TransactionalReadOnlyThroughLazyProxy() throws SQLException {
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        when(replica1.getConnection()).thenReturn(mock(Connection.class));
+        routing.recordLag("replica-1", 0);
+        routing.recordLag("replica-2", 30);
+        DataSource dataSource = lazyRoutingDataSource();
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> openStatement(dataSource));
+
+        verify(replica1).getConnection();
+        verify(replica2, never()).getConnection();
+        assertThat(meterRegistry.counter("datasource.routing.connections", "route", "replica-1").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void should_WriteToPrimary_When_TransactionalReadWriteThroughLazyProxy() throws SQLException {
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        routing.recordLag("replica-1", 0);
+        routing.recordLag("replica-2", 0);
+        DataSource dataSource = lazyRoutingDataSource();
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        readWrite.executeWithoutResult(status -> openStatement(dataSource));
+
+        verify(replica1, never()).getConnection();
+        verify(replica2, never()).getConnection();
+    }
+
+    // Same wiring as ReadReplicaConfig: the proxy defers the physical connection until the first statement,
+    // after the transaction manager has published the read-only flag the router keys on.
+    private DataSource lazyRoutingDataSource() {
+        routing.initialize();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static void openStatement(DataSource dataSource) {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -3,11 +3,15 @@ package com.lab.order.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lab.order.dto.CreateOrderRequest;
 import com.lab.order.dto.OrderLineItemRequest;
+import com.lab.order.dto.OrderSearchCriteria;
+import com.lab.order.dto.OrderSearchResponse;
 import com.lab.order.exception.GlobalExceptionHandler;
 import com.lab.order.exception.OrderNotFoundException;
+import com.lab.order.exception.RateLimitExceededException;
 import com.lab.order.model.LineItem;
 import com.lab.order.model.Order;
 import com.lab.order.model.OrderStatus;
+import com.lab.order.service.OrderRateLimiter;
 import com.lab.order.service.OrderService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,10 +22,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,6 +47,9 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderRateLimiter rateLimiter;
+
     @Test
     void should_Return201WithLocation_When_OrderCreated() throws Exception {
         UUID productId = UUID.randomUUID();
@@ -102,4 +113,83 @@ class OrderControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.detail").exists());
     }
+
+    @Test
+    void should_Return200WithNextCursor_When_SearchingOrders() throws Exception {
+        var response = new OrderSearchResponse(List.of(), "bmV4dA");
+        var criteria = OrderSearchCriteria.of("Erin", OrderStatus.FAILED, null, null, null, 10);
+
+        when(orderService.searchOrders(criteria)).thenReturn(response);
+
+        mockMvc.perform(get("/api/orders/search")
+                        .param("customerName", "Erin")
+                        .param("status", "FAILED")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor").value("bmV4dA"));
+    }
+
+    @Test
+    void should_Return400_When_SearchCursorInvalid() throws Exception {
+        mockMvc.perform(get("/api/orders/search").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").exists());
+
+        verify(orderService, never()).searchOrders(any());
+    }
+
+    @Test
+    void should_ChargeLineItemsToConsumer_When_OrderCreated() throws Exception {
+        UUID productId = UUID.randomUUID();
+        var request = new CreateOrderRequest("Alice", List.of(
+                new OrderLineItemRequest(productId, 2),
+                new OrderLineItemRequest(UUID.randomUUID(), 1)
+        ));
+        Order order = new Order("Alice", OrderStatus.CONFIRMED);
+        order.setTotalAmount(new BigDecimal("999.99"));
+        order.addLineItem(new LineItem(productId, "Laptop", 1, new BigDecimal("999.99")));
+
+        when(orderService.createOrder(any())).thenReturn(order);
+
+        mockMvc.perform(post("/api/orders")
+                        .header(OrderRateLimiter.CONSUMER_HEADER, "lab-user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        verify(rateLimiter).acquire("lab-user", "127.0.0.1", 2);
+    }
+
+    @Test
+    void should_ChargeClientAddress_When_NoConsumerHeader() throws Exception {
+        when(orderService.getAllOrders()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/orders")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.7");
+                            return request;
+                        }))
+                .andExpect(status().isOk());
+
+        verify(rateLimiter).acquire(null, "10.0.0.7", 1);
+    }
+
+    @Test
+    void should_Return429WithRetryAfter_When_ConsumerRateLimited() throws Exception {
+        var request = new CreateOrderRequest("Alice", List.of(new OrderLineItemRequest(UUID.randomUUID(), 1)));
+
+        doThrow(new RateLimitExceededException(Duration.ofMillis(1500)))
+                .when(rateLimiter).acquire("heavy-client", "127.0.0.1", 1);
+
+        mockMvc.perform(post("/api/orders")
+                        .header(OrderRateLimiter.CONSUMER_HEADER, "heavy-client")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.detail").exists());
+
+        verify(orderService, never()).createOrder(any());
+    }
 }
@@ -0,0 +1,168 @@
+package com.lab.order.controller;
+
+import com.lab.order.dto.CreateOrderRequest;
+import com.lab.order.dto.OrderLineItemRequest;
+import com.lab.order.dto.OrderResponse;
+import com.lab.order.exception.GlobalExceptionHandler;
+import com.lab.order.exception.OrderCreationException;
+import com.lab.order.exception.OrderNotFoundException;
+import com.lab.order.exception.RateLimitExceededException;
+import com.lab.order.model.OrderStatus;
+import com.lab.order.service.OrderRateLimiter;
+import com.lab.order.service.ReactiveOrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.adapter.ForwardedHeaderTransformer;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveOrderController.class)
+@ActiveProfiles("reactive")
+@Import({GlobalExceptionHandler.class, ReactiveOrderControllerTest.ForwardedHeaders.class})
+class ReactiveOrderControllerTest {
+
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveOrderService orderService;
+
+    @MockBean
+    private OrderRateLimiter rateLimiter;
+
+    @Autowired
+    void setWebTestClient(WebTestClient webTestClient) {
+        // A real server sees an absolute request URI, as MockMvc does
+        this.webTestClient = webTestClient.mutate().baseUrl("http://localhost").build();
+    }
+
+    private final CreateOrderRequest request = new CreateOrderRequest("Alice", List.of(
+            new OrderLineItemRequest(UUID.randomUUID(), 2)));
+
+    @Test
+    void should_Return201WithLocation_When_OrderCreated() {
+        OrderResponse order = order();
+        when(orderService.createOrder(any())).thenReturn(Mono.just(order));
+
+        webTestClient.post().uri("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().location("http://localhost/api/orders/" + order.id())
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(order.id().toString())
+                .jsonPath("$.status").isEqualTo("CONFIRMED");
+    }
+
+    @Test
+    void should_UseForwardedHostInLocation_When_RequestCameThroughGateway() {
+        OrderResponse order = order();
+        when(orderService.createOrder(any())).thenReturn(Mono.just(order));
+
+        webTestClient.post().uri("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Forwarded-Proto", "https")
+                .header("X-Forwarded-Host", "shop.example.com")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().location("https://shop.example.com/api/orders/" + order.id());
+    }
+
+    @Test
+    void should_Return400_When_RequestInvalid() {
+        webTestClient.post().uri("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateOrderRequest("", List.of()))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.detail").value(detail -> assertThat((String) detail)
+                        .contains("customerName", "items"));
+
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    void should_Return422_When_OrderCreationFails() {
+        when(orderService.createOrder(any()))
+                .thenReturn(Mono.error(new OrderCreationException("Failed to reserve inventory")));
+
+        webTestClient.post().uri("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectHeader().doesNotExist(HttpHeaders.LOCATION)
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Failed to reserve inventory");
+    }
+
+    @Test
+    void should_Return404_When_OrderNotFound() {
+        UUID id = UUID.randomUUID();
+        when(orderService.getOrder(id)).thenReturn(Mono.error(new OrderNotFoundException(id)));
+
+        webTestClient.get().uri("/api/orders/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.detail").value(detail -> assertThat((String) detail)
+                        .contains(id.toString()));
+    }
+
+    private static OrderResponse order() {
+        return new OrderResponse(UUID.randomUUID(), "Alice", OrderStatus.CONFIRMED, new BigDecimal("1999.98"),
+                Instant.parse("2024-05-01T10:00:00Z"), List.of());
+    }
+
+    @Test
+    void should_Return429WithRetryAfter_When_ConsumerRateLimited() {
+        doThrow(new RateLimitExceededException(Duration.ofMillis(1500)))
+                .when(rateLimiter).acquire(eq("heavy-client"), any(), eq(1));
+
+        webTestClient.post().uri("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(OrderRateLimiter.CONSUMER_HEADER, "heavy-client")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals("Retry-After", "2");
+
+        verify(orderService, never()).createOrder(any());
+    }
+
+    // What server.forward-headers-strategy=framework registers; the WebFlux test slice leaves it out
+    @TestConfiguration
+    static class ForwardedHeaders {
+
+        @Bean
+        ForwardedHeaderTransformer forwardedHeaderTransformer() {
+            return new ForwardedHeaderTransformer();
+        }
+    }
+}
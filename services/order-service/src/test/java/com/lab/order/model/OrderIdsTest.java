@@ -0,0 +1,35 @@
+package com.lab.order.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderIdsTest {
+
+    @Test
+    void should_RecoverCreatedAt_When_IdIsTimeOrdered() {
+        Instant createdAt = Instant.parse("2026-10-18T11:42:07.123Z");
+
+        UUID id = OrderIds.newId(createdAt);
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(OrderIds.createdAtOf(id)).contains(createdAt);
+    }
+
+    @Test
+    void should_SortByCreationTime_When_IdsComparedAsStrings() {
+        UUID earlier = OrderIds.newId(Instant.parse("2026-10-18T11:00:00Z"));
+        UUID later = OrderIds.newId(Instant.parse("2026-10-18T11:00:00.001Z"));
+
+        assertThat(earlier.toString()).isLessThan(later.toString());
+    }
+
+    @Test
+    void should_ReturnEmpty_When_IdIsRandom() {
+        assertThat(OrderIds.createdAtOf(UUID.randomUUID())).isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.lab.order.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryTimingDataSourceTest {
+
+    private static final String SQL = "select * from orders where id = ? and customer_name = ?";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource target = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+
+    // Zero threshold: every statement is captured as slow
+    private final QueryRecorder recorder = new QueryRecorder(meterRegistry, Duration.ZERO, 10, 100);
+    private final QueryTimingDataSource dataSource = new QueryTimingDataSource(target, () -> recorder);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+    }
+
+    @Test
+    void should_RecordTimingAndRows_When_QueryResultClosed() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, false);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL)) {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setString(2, "widget");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // drain
+                }
+            }
+        }
+
+        String query = recorder.fingerprint(SQL).id();
+        assertThat(meterRegistry.get("db.query").tag("query", query).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("db.query.rows").tag("query", query).summary().totalAmount()).isEqualTo(2);
+        assertThat(recorder.slowQueries().get(0).parameterShapes()).containsExactly("uuid", "string(6)");
+        verify(resultSet).close();
+        verify(connection).close();
+    }
+
+    @Test
+    void should_CountRowsOnceAndPassColumnReads_When_ResultSetFromExecute() throws SQLException {
+        when(statement.execute()).thenReturn(true);
+        when(statement.getResultSet()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getString(2)).thenReturn("widget");
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL)) {
+            assertThat(ps.execute()).isTrue();
+            ResultSet rs = ps.getResultSet();
+            while (rs.next()) {
+                assertThat(rs.getString(2)).isEqualTo("widget");
+            }
+            rs.close();
+            rs.close();
+        }
+
+        assertThat(meterRegistry.get("db.query.rows").summary().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("db.query.rows").summary().totalAmount()).isEqualTo(1);
+    }
+
+    @Test
+    void should_RecordUpdateCountAsRows_When_UpdateExecuted() throws SQLException {
+        when(statement.executeUpdate()).thenReturn(3);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("update orders set status = ? where id = ?")) {
+            ps.setNull(1, Types.VARCHAR);
+            assertThat(ps.executeUpdate()).isEqualTo(3);
+        }
+
+        assertThat(meterRegistry.get("db.query.rows").summary().totalAmount()).isEqualTo(3);
+        assertThat(recorder.slowQueries().get(0).parameterShapes()).containsExactly("null");
+    }
+
+    @Test
+    void should_RecordAndRethrow_When_StatementFails() throws SQLException {
+        SQLException failure = new SQLException("deadlock detected", "40P01");
+        when(statement.executeQuery()).thenThrow(failure);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL)) {
+            assertThatThrownBy(ps::executeQuery).isSameAs(failure);
+        }
+        assertThat(meterRegistry.get("db.query").timer().count()).isEqualTo(1);
+        assertThat(recorder.slowQueries()).hasSize(1);
+    }
+}
@@ -0,0 +1,263 @@
+package com.lab.order.repository;
+
+import com.lab.order.dto.LeaseConsumption;
+import com.lab.order.dto.OrderLineRow;
+import com.lab.order.dto.OrderSearchCriteria;
+import com.lab.order.dto.OrderSearchCursor;
+import com.lab.order.model.LineItem;
+import com.lab.order.model.Order;
+import com.lab.order.model.OrderIds;
+import com.lab.order.model.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderRepositoryIntegrationTest {
+
+    @SuppressWarnings("resource")
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("order_db")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void should_LoadOrderAndLineItemsInOneStatement_When_FetchingWithLineItems() {
+        UUID orderId = persistOrderWithTwoLineItems();
+
+        Optional<Order> found = orderRepository.findWithLineItemsById(orderId);
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getLineItems()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void should_ReadOrdersAsFlatRowsWithoutEntities_When_ListingAll() {
+        UUID orderId = persistOrderWithTwoLineItems();
+
+        List<OrderLineRow> rows = orderRepository.findAllLineRows();
+
+        assertThat(rows).extracting(OrderLineRow::orderId).containsExactly(orderId, orderId);
+        assertThat(rows).extracting(OrderLineRow::productName).containsExactlyInAnyOrder("Laptop", "Mouse");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void should_NeedSecondStatementForLineItems_When_FetchingById() {
+        UUID orderId = persistOrderWithTwoLineItems();
+
+        Optional<Order> found = orderRepository.findById(orderId);
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getLineItems()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void should_EmbedCreatedAtInId_When_OrderSaved() {
+        UUID orderId = persistOrderWithTwoLineItems();
+
+        Order found = orderRepository.findById(orderId).orElseThrow();
+
+        assertThat(OrderIds.createdAtOf(orderId)).contains(found.getCreatedAt());
+    }
+
+    @Test
+    void should_FindOrderWithLineItems_When_IdPredatesTimeOrderedIds() {
+        UUID legacyId = UUID.randomUUID();
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        entityManager.createNativeQuery("""
+                        INSERT INTO orders (id, customer_name, status, total_amount, created_at)
+                        VALUES (:id, 'Carol', 'CONFIRMED', 10.00, :createdAt)
+                        """)
+                .setParameter("id", legacyId)
+                .setParameter("createdAt", createdAt)
+                .executeUpdate();
+        entityManager.createNativeQuery("""
+                        INSERT INTO line_items (order_id, order_created_at, product_id, product_name, quantity, unit_price)
+                        VALUES (:id, :createdAt, gen_random_uuid(), 'Cable', 1, 10.00)
+                        """)
+                .setParameter("id", legacyId)
+                .setParameter("createdAt", createdAt)
+                .executeUpdate();
+
+        Optional<Order> found = orderRepository.findWithLineItemsById(legacyId);
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getLineItems()).hasSize(1);
+    }
+
+    @Test
+    void should_ReturnEmpty_When_OrderDoesNotExist() {
+        assertThat(orderRepository.findWithLineItemsById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void should_PageThroughMatchingOrdersNewestFirst_When_Searching() {
+        for (int i = 0; i < 5; i++) {
+            orderRepository.save(new Order("Erin", OrderStatus.CONFIRMED));
+        }
+        orderRepository.save(new Order("Frank", OrderStatus.CONFIRMED));
+        orderRepository.flush();
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            var criteria = OrderSearchCriteria.of("Erin", null, null, null, cursor, 2);
+            List<UUID> ids = orderRepository.searchIds(criteria);
+            List<UUID> page = ids.size() > 2 ? ids.subList(0, 2) : ids;
+            seen.addAll(page);
+            if (ids.size() > 2) {
+                Order last = orderRepository.findById(page.get(page.size() - 1)).orElseThrow();
+                cursor = new OrderSearchCursor(last.getCreatedAt(), last.getId()).encode();
+            } else {
+                cursor = null;
+            }
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+        List<Instant> createdAts = seen.stream()
+                .map(id -> orderRepository.findById(id).orElseThrow().getCreatedAt())
+                .toList();
+        assertThat(createdAts).isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_NeverPlanSequentialScan_When_SearchingWithAnyFilterCombination() {
+        persistSearchVolume();
+        Instant now = Instant.now();
+        var after = new OrderSearchCursor(now.minus(2, ChronoUnit.DAYS), UUID.randomUUID()).encode();
+        List<OrderSearchCriteria> combinations = List.of(
+                OrderSearchCriteria.of(null, null, null, null, null, 20),
+                OrderSearchCriteria.of("Alice", null, null, null, null, 20),
+                OrderSearchCriteria.of(null, OrderStatus.FAILED, null, null, null, 20),
+                OrderSearchCriteria.of(null, OrderStatus.FAILED, now.minus(1, ChronoUnit.HOURS), now, null, 20),
+                OrderSearchCriteria.of("Alice", null, now.minus(30, ChronoUnit.DAYS), now, after, 20),
+                OrderSearchCriteria.of(null, null, now.minus(1, ChronoUnit.DAYS), null, after, 20));
+        List<String> populated = entityManager.createNativeQuery(
+                "SELECT DISTINCT tableoid::regclass::text FROM orders").getResultList();
+
+        for (OrderSearchCriteria criteria : combinations) {
+            OrderSearchQuery search = OrderSearchQuery.idsFor(criteria);
+            Query explain = entityManager.createNativeQuery("EXPLAIN " + search.sql());
+            search.parameters().forEach(explain::setParameter);
+            String plan = String.join("\n", (List<String>) explain.getResultList());
+
+            // Empty partitions (the months kept ahead) may be read sequentially at no cost
+            for (String partition : populated) {
+                assertThat(plan).as(search.sql()).doesNotContain("Seq Scan on " + partition + " ");
+            }
+        }
+    }
+
+    @Test
+    void should_ListConfirmedLineItems_When_FindingLeaseConsumption() {
+        UUID leaseId = UUID.randomUUID();
+        Instant since = Instant.now().minus(10, ChronoUnit.MINUTES);
+        Order confirmed = orderWithLeasedItem("Gina", OrderStatus.CONFIRMED, leaseId, 3);
+        confirmed.addLineItem(new LineItem(UUID.randomUUID(), "Cable", 1, new BigDecimal("9.99")));
+        orderRepository.save(confirmed);
+        orderRepository.save(orderWithLeasedItem("Hank", OrderStatus.FAILED, leaseId, 2));
+        orderRepository.save(orderWithLeasedItem("Ivy", OrderStatus.CONFIRMED, UUID.randomUUID(), 4));
+        orderRepository.flush();
+
+        List<LeaseConsumption> consumed = orderRepository.findLeaseConsumption(leaseId, since);
+
+        assertThat(consumed).containsExactly(new LeaseConsumption(confirmed.getId(), 3));
+    }
+
+    // 100,000 orders over the last 90 days, 5,000 customers and one in twenty failed, analyzed
+    // so the planner sees the table a production search runs against
+    private void persistSearchVolume() {
+        entityManager.createNativeQuery("""
+                        DO $$
+                        BEGIN
+                            FOR n IN 1..3 LOOP
+                                PERFORM ensure_order_partitions((date_trunc('month', now() AT TIME ZONE 'UTC')
+                                                                 - make_interval(months => n))::date);
+                            END LOOP;
+                        END $$
+                        """)
+                .executeUpdate();
+        entityManager.createNativeQuery("""
+                        INSERT INTO orders (id, customer_name, status, total_amount, created_at)
+                        SELECT gen_random_uuid(),
+                               CASE WHEN n % 1000 = 0 THEN 'Alice' ELSE 'customer-' || n % 5000 END,
+                               CASE WHEN n % 20 = 0 THEN 'FAILED' WHEN n % 20 = 1 THEN 'CREATED' ELSE 'CONFIRMED' END,
+                               10 + n % 500,
+                               now() - make_interval(secs => n * 77)
+                        FROM generate_series(1, 100000) AS n
+                        """)
+                .executeUpdate();
+        entityManager.createNativeQuery("ANALYZE orders").executeUpdate();
+    }
+
+    private UUID persistOrderWithTwoLineItems() {
+        Order order = new Order("Alice", OrderStatus.CONFIRMED);
+        order.addLineItem(new LineItem(UUID.randomUUID(), "Laptop", 1, new BigDecimal("999.99")));
+        order.addLineItem(new LineItem(UUID.randomUUID(), "Mouse", 2, new BigDecimal("29.99")));
+        order.setTotalAmount(new BigDecimal("1059.97"));
+        orderRepository.saveAndFlush(order);
+
+        // Start from an empty persistence context so every load goes to the database
+        entityManager.clear();
+        statistics.clear();
+        return order.getId();
+    }
+
+    private Order orderWithLeasedItem(String customerName, OrderStatus status, UUID leaseId, int quantity) {
+        Order order = new Order(customerName, status);
+        LineItem lineItem = new LineItem(UUID.randomUUID(), "Headphones", quantity, new BigDecimal("59.99"));
+        lineItem.setLeaseId(leaseId);
+        order.addLineItem(lineItem);
+        order.setTotalAmount(lineItem.getSubtotal());
+        return order;
+    }
+}
@@ -0,0 +1,104 @@
+package com.lab.order.repository;
+
+import com.lab.order.dto.CustomerDailySales;
+import com.lab.order.dto.ProductHourlySales;
+import com.lab.order.model.LineItem;
+import com.lab.order.model.Order;
+import com.lab.order.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SalesRollupRepository.class)
+class SalesRollupRepositoryIntegrationTest {
+
+    // Today, so the orders land in a partition created by the migration
+    private static final LocalDate DAY = LocalDate.now(ZoneOffset.UTC);
+    private static final Instant HOUR = DAY.atStartOfDay(ZoneOffset.UTC).toInstant();
+
+    @SuppressWarnings("resource")
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("order_db")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private SalesRollupRepository rollupRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void should_AddToExistingBuckets_When_IncrementingTwice() {
+        UUID productId = UUID.randomUUID();
+
+        rollupRepository.incrementProductHourly(List.of(
+                new ProductHourlySales(productId, HOUR, 2, new BigDecimal("59.98"))));
+        rollupRepository.incrementProductHourly(List.of(
+                new ProductHourlySales(productId, HOUR, 1, new BigDecimal("29.99"))));
+        rollupRepository.incrementCustomerDaily(List.of(
+                new CustomerDailySales("Alice", DAY, 1, new BigDecimal("59.98"))));
+        rollupRepository.incrementCustomerDaily(List.of(
+                new CustomerDailySales("Alice", DAY, 1, new BigDecimal("29.99"))));
+
+        assertThat(rollupRepository.findProductHourly(productId, HOUR, HOUR.plusSeconds(3600)))
+                .containsExactly(new ProductHourlySales(productId, HOUR, 3, new BigDecimal("89.97")));
+        assertThat(rollupRepository.findCustomerDaily("Alice", DAY, DAY.plusDays(1)))
+                .containsExactly(new CustomerDailySales("Alice", DAY, 2, new BigDecimal("89.97")));
+    }
+
+    @Test
+    void should_RecomputeFromConfirmedOrders_When_Rebuilding() {
+        UUID productId = UUID.randomUUID();
+        persistOrder("Bob", OrderStatus.CONFIRMED, productId, 2, HOUR.plusSeconds(600));
+        persistOrder("Bob", OrderStatus.CONFIRMED, productId, 1, HOUR.plusSeconds(3000));
+        persistOrder("Bob", OrderStatus.FAILED, productId, 5, HOUR.plusSeconds(1200));
+        // Stale value from the incremental path is replaced, not added to
+        rollupRepository.incrementProductHourly(List.of(
+                new ProductHourlySales(productId, HOUR, 99, new BigDecimal("9999.00"))));
+
+        rollupRepository.rebuild(DAY, DAY.plusDays(1));
+
+        assertThat(rollupRepository.findProductHourly(productId, HOUR, HOUR.plusSeconds(3600)))
+                .containsExactly(new ProductHourlySales(productId, HOUR, 3, new BigDecimal("30.00")));
+        assertThat(rollupRepository.findCustomerDaily("Bob", DAY, DAY.plusDays(1)))
+                .containsExactly(new CustomerDailySales("Bob", DAY, 2, new BigDecimal("30.00")));
+    }
+
+    private void persistOrder(String customerName, OrderStatus status, UUID productId, int quantity, Instant createdAt) {
+        Order order = new Order(customerName, status);
+        // Place the order in the bucket under test; persist keeps a preset created_at
+        ReflectionTestUtils.setField(order, "createdAt", createdAt);
+        order.addLineItem(new LineItem(productId, "Cable", quantity, new BigDecimal("10.00")));
+        order.setTotalAmount(new BigDecimal("10.00").multiply(BigDecimal.valueOf(quantity)));
+        orderRepository.saveAndFlush(order);
+    }
+}
@@ -0,0 +1,90 @@
+package com.lab.order.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Partition DDL is transactional in Postgres, so each test's changes roll back with it
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderPartitionMaintenanceIntegrationTest {
+
+    private static final YearMonth FUTURE = YearMonth.of(2099, 1);
+
+    @SuppressWarnings("resource")
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("order_db")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void should_CreateOrdersAndLineItemsPartitionsAhead_When_Maintaining() {
+        var maintenance = new OrderPartitionMaintenance(jdbcTemplate, transactionTemplate, 3, 0, false);
+
+        maintenance.maintain(FUTURE);
+
+        assertThat(maintenance.partitionMonths())
+                .contains(FUTURE, FUTURE.plusMonths(1), FUTURE.plusMonths(2), FUTURE.plusMonths(3));
+        assertThat(tableExists("line_items_p2099_04")).isTrue();
+    }
+
+    @Test
+    void should_DetachMonthsOutsideRetention_When_RetentionConfigured() {
+        var maintenance = new OrderPartitionMaintenance(jdbcTemplate, transactionTemplate, 3, 2, false);
+
+        maintenance.maintain(FUTURE.plusMonths(1));
+
+        assertThat(maintenance.partitionMonths()).allMatch(month -> !month.isBefore(FUTURE));
+        // Detached months stay around as standalone tables for archiving
+        assertThat(tableExists(partitionName("orders_p", YearMonth.now(ZoneOffset.UTC)))).isTrue();
+        assertThat(tableExists(partitionName("line_items_p", YearMonth.now(ZoneOffset.UTC)))).isTrue();
+    }
+
+    @Test
+    void should_DropMonthsOutsideRetention_When_DropExpiredEnabled() {
+        var maintenance = new OrderPartitionMaintenance(jdbcTemplate, transactionTemplate, 0, 1, true);
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+
+        maintenance.maintain(current.plusMonths(1));
+
+        assertThat(maintenance.partitionMonths()).doesNotContain(current);
+        assertThat(tableExists(partitionName("orders_p", current))).isFalse();
+        assertThat(tableExists(partitionName("line_items_p", current))).isFalse();
+    }
+
+    private boolean tableExists(String name) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+    }
+
+    private static String partitionName(String prefix, YearMonth month) {
+        return prefix + String.format("%d_%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,106 @@
+package com.lab.order.service;
+
+import com.lab.order.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 100 units/s split across consumers, 1s of burst
+        rateLimiter = new OrderRateLimiter(meterRegistry, true, 100, 5, Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void should_AdmitUpToBurst_When_ConsumerIsAlone() {
+        long now = 0;
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire("alice", 10, now)).isZero();
+        }
+
+        long wait = rateLimiter.tryAcquire("alice", 10, now);
+
+        assertThat(wait).isEqualTo(SECOND / 10);
+        assertThat(rateLimiter.tryAcquire("alice", 10, now + wait)).isZero();
+    }
+
+    @Test
+    void should_ChargeByCost_When_RequestIsHeavier() {
+        assertThat(rateLimiter.tryAcquire("alice", 60, 0)).isZero();
+
+        assertThat(rateLimiter.tryAcquire("alice", 60, 0)).isPositive();
+        assertThat(rateLimiter.tryAcquire("alice", 40, 0)).isZero();
+    }
+
+    @Test
+    void should_KeepOtherConsumersAdmitted_When_OneConsumerIsThrottled() {
+        rateLimiter.tryAcquire("bob", 1, 0);
+        while (rateLimiter.tryAcquire("heavy", 5, 0) == 0) {
+            // drain the heavy consumer's bucket
+        }
+
+        // Two active consumers: bob still has his 50 units/s share to burst into
+        assertThat(rateLimiter.tryAcquire("bob", 40, 0)).isZero();
+        assertThat(rateLimiter.tryAcquire("heavy", 5, 0)).isPositive();
+    }
+
+    @Test
+    void should_AdmitOversizedRequest_When_BucketIsFull() {
+        assertThat(rateLimiter.tryAcquire("alice", 500, 0)).isZero();
+
+        // The debt has to be paid back before the next request
+        assertThat(rateLimiter.tryAcquire("alice", 1, SECOND)).isPositive();
+        assertThat(rateLimiter.tryAcquire("alice", 1, 5 * SECOND)).isZero();
+    }
+
+    @Test
+    void should_ThrowAndCount_When_Rejected() {
+        rateLimiter.acquire(null, "10.0.0.5", 100);
+
+        assertThatThrownBy(() -> rateLimiter.acquire("", "10.0.0.5", 100))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(meterRegistry.counter("order.rate.limit.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_KeepAnonymousCallersApart_When_AddressesDiffer() {
+        rateLimiter.acquire(null, "10.0.0.5", 100);
+        assertThatThrownBy(() -> rateLimiter.acquire(null, "10.0.0.5", 100))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        // A fresh bucket admits its first request however large
+        rateLimiter.acquire(null, "10.0.0.6", 100);
+
+        assertThat(rateLimiter.activeConsumers()).isEqualTo(2);
+    }
+
+    @Test
+    void should_KeyByConsumer_When_GatewayNamedOne() {
+        assertThat(OrderRateLimiter.key("lab-user", "10.0.0.5")).isEqualTo("lab-user");
+        assertThat(OrderRateLimiter.key(" ", "10.0.0.5")).isEqualTo("anonymous:10.0.0.5");
+        assertThat(OrderRateLimiter.key(null, null)).isEqualTo(OrderRateLimiter.ANONYMOUS);
+    }
+
+    @Test
+    void should_ForgetConsumer_When_IdleLongerThanIdleAfter() {
+        rateLimiter.tryAcquire("alice", 1, 0);
+        rateLimiter.tryAcquire("bob", 1, 20 * SECOND);
+
+        rateLimiter.evictIdle(40 * SECOND);
+
+        assertThat(rateLimiter.activeConsumers()).isEqualTo(1);
+    }
+}
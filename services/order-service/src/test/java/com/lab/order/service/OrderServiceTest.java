@@ -5,24 +5,40 @@ import com.lab.order.client.InventoryServiceClient.ReservationInfo;
 import com.lab.order.client.ProductServiceClient;
 import com.lab.order.client.ProductServiceClient.ProductInfo;
 import com.lab.order.dto.CreateOrderRequest;
+import com.lab.order.dto.LineItemResponse;
 import com.lab.order.dto.OrderLineItemRequest;
+import com.lab.order.dto.OrderLineRow;
+import com.lab.order.dto.OrderResponse;
+import com.lab.order.dto.OrderSearchCriteria;
+import com.lab.order.dto.OrderSearchCursor;
+import com.lab.order.dto.OrderSearchResponse;
 import com.lab.order.exception.OrderCreationException;
+import com.lab.order.exception.OrderNotFoundException;
+import com.lab.order.model.LineItem;
 import com.lab.order.model.Order;
 import com.lab.order.model.OrderStatus;
 import com.lab.order.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -38,13 +54,23 @@ class OrderServiceTest {
     @Mock
     private InventoryServiceClient inventoryServiceClient;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StockLeaseManager stockLeaseManager;
+
     private OrderService orderService;
 
     @BeforeEach
     void setUp() {
-        orderService = new OrderService(orderRepository, productServiceClient, inventoryServiceClient);
+        // Sequential, so compensation has finished by the time an order fails
+        var reservationFanOut = new ReservationFanOut(inventoryServiceClient, new SimpleMeterRegistry(), false,
+                Duration.ofSeconds(5), 4);
+        orderService = new OrderService(orderRepository, productServiceClient, reservationFanOut, eventPublisher,
+                stockLeaseManager);
 
-        when(orderRepository.save(any(Order.class)))
+        lenient().when(orderRepository.save(any(Order.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
     }
 
@@ -75,6 +101,35 @@ class OrderServiceTest {
 
         verify(inventoryServiceClient).reserveStock(eq(productId1), any(), eq(2));
         verify(inventoryServiceClient).reserveStock(eq(productId2), any(), eq(1));
+        verify(eventPublisher).publishEvent(any(OrderConfirmedEvent.class));
+    }
+
+    @Test
+    void should_SkipReservation_When_LineTakenFromStockLease() {
+        UUID leasedProduct = UUID.randomUUID();
+        UUID otherProduct = UUID.randomUUID();
+        UUID leaseId = UUID.randomUUID();
+
+        var request = new CreateOrderRequest("Dana", List.of(
+                new OrderLineItemRequest(leasedProduct, 2),
+                new OrderLineItemRequest(otherProduct, 1)
+        ));
+
+        when(productServiceClient.getProduct(leasedProduct))
+                .thenReturn(new ProductInfo(leasedProduct, "Headphones", new BigDecimal("59.99")));
+        when(productServiceClient.getProduct(otherProduct))
+                .thenReturn(new ProductInfo(otherProduct, "Cable", new BigDecimal("9.99")));
+        when(stockLeaseManager.tryConsume(leasedProduct, 2)).thenReturn(Optional.of(leaseId));
+        when(inventoryServiceClient.reserveStock(eq(otherProduct), any(), eq(1)))
+                .thenReturn(new ReservationInfo(UUID.randomUUID(), otherProduct, 1));
+
+        Order result = orderService.createOrder(request);
+
+        assertThat(result.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(result.getLineItems())
+                .extracting(LineItem::getProductId, LineItem::getLeaseId)
+                .containsExactly(tuple(leasedProduct, leaseId), tuple(otherProduct, null));
+        verify(inventoryServiceClient, never()).reserveStock(eq(leasedProduct), any(), anyInt());
     }
 
     @Test
@@ -103,6 +158,7 @@ class OrderServiceTest {
                 .isInstanceOf(OrderCreationException.class);
 
         verify(inventoryServiceClient).cancelReservation(reservationId1);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -122,4 +178,88 @@ class OrderServiceTest {
 
         assertThat(result.getTotalAmount()).isEqualByComparingTo("37.50");
     }
+
+    @Test
+    void should_FetchOrderWithLineItems_When_OrderExists() {
+        UUID orderId = UUID.randomUUID();
+        Order order = new Order("Dana", OrderStatus.CONFIRMED);
+        order.addLineItem(new LineItem(UUID.randomUUID(), "Desk", 1, new BigDecimal("249.00")));
+
+        when(orderRepository.findWithLineItemsById(orderId)).thenReturn(Optional.of(order));
+
+        Order result = orderService.getOrder(orderId);
+
+        assertThat(result.getLineItems()).hasSize(1);
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    void should_FoldAdjacentRowsIntoOrders_When_ListingAll() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2024-05-01T10:00:00Z");
+        when(orderRepository.findAllLineRows()).thenReturn(List.of(
+                new OrderLineRow(first, "Alice", OrderStatus.CONFIRMED, new BigDecimal("1059.97"), createdAt,
+                        UUID.randomUUID(), UUID.randomUUID(), "Laptop", 1, new BigDecimal("999.99")),
+                new OrderLineRow(first, "Alice", OrderStatus.CONFIRMED, new BigDecimal("1059.97"), createdAt,
+                        UUID.randomUUID(), UUID.randomUUID(), "Mouse", 2, new BigDecimal("29.99")),
+                new OrderLineRow(second, "Bob", OrderStatus.FAILED, null, createdAt,
+                        null, null, null, null, null)));
+
+        List<OrderResponse> orders = orderService.getAllOrders();
+
+        assertThat(orders).extracting(OrderResponse::id, OrderResponse::customerName)
+                .containsExactly(tuple(first, "Alice"), tuple(second, "Bob"));
+        assertThat(orders.get(0).items()).extracting(LineItemResponse::productName, LineItemResponse::subtotal)
+                .containsExactly(tuple("Laptop", new BigDecimal("999.99")), tuple("Mouse", new BigDecimal("59.98")));
+        assertThat(orders.get(1).items()).isEmpty();
+    }
+
+    @Test
+    void should_ThrowNotFound_When_OrderDoesNotExist() {
+        UUID orderId = UUID.randomUUID();
+
+        when(orderRepository.findWithLineItemsById(orderId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> orderService.getOrder(orderId))
+                .isInstanceOf(OrderNotFoundException.class);
+    }
+
+    @Test
+    void should_ReturnPageInSearchOrderWithCursor_When_MoreResultsExist() {
+        Order newest = persistedOrder("Erin", Instant.parse("2024-05-02T10:00:00Z"));
+        Order older = persistedOrder("Erin", Instant.parse("2024-05-01T10:00:00Z"));
+        UUID beyondPage = UUID.randomUUID();
+        var criteria = OrderSearchCriteria.of("Erin", null, null, null, null, 2);
+
+        when(orderRepository.searchIds(criteria)).thenReturn(List.of(newest.getId(), older.getId(), beyondPage));
+        when(orderRepository.findAllWithLineItemsByIdIn(List.of(newest.getId(), older.getId())))
+                .thenReturn(List.of(older, newest));
+
+        OrderSearchResponse result = orderService.searchOrders(criteria);
+
+        assertThat(result.orders()).extracting(OrderResponse::id).containsExactly(newest.getId(), older.getId());
+        assertThat(OrderSearchCursor.decode(result.nextCursor()))
+                .isEqualTo(new OrderSearchCursor(older.getCreatedAt(), older.getId()));
+    }
+
+    @Test
+    void should_ReturnEmptyPage_When_NoOrdersMatch() {
+        var criteria = OrderSearchCriteria.of(null, OrderStatus.FAILED, null, null, null, 20);
+
+        when(orderRepository.searchIds(criteria)).thenReturn(List.of());
+
+        OrderSearchResponse result = orderService.searchOrders(criteria);
+
+        assertThat(result.orders()).isEmpty();
+        assertThat(result.nextCursor()).isNull();
+        verify(orderRepository, never()).findAllWithLineItemsByIdIn(any());
+    }
+
+    private static Order persistedOrder(String customerName, Instant createdAt) {
+        Order order = new Order(customerName, OrderStatus.CONFIRMED);
+        ReflectionTestUtils.setField(order, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(order, "createdAt", createdAt);
+        return order;
+    }
 }
@@ -0,0 +1,132 @@
+package com.lab.order.service;
+
+import com.lab.order.client.InventoryServiceClient.ReservationInfo;
+import com.lab.order.client.ProductServiceClient.ProductInfo;
+import com.lab.order.client.ReactiveInventoryServiceClient;
+import com.lab.order.client.ReactiveProductServiceClient;
+import com.lab.order.dto.CreateOrderRequest;
+import com.lab.order.dto.OrderLineItemRequest;
+import com.lab.order.dto.OrderResponse;
+import com.lab.order.exception.OrderCreationException;
+import com.lab.order.exception.OrderNotFoundException;
+import com.lab.order.model.OrderStatus;
+import com.lab.order.repository.ReactiveOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveOrderServiceTest {
+
+    @Mock
+    private ReactiveOrderRepository orderRepository;
+
+    @Mock
+    private ReactiveProductServiceClient productServiceClient;
+
+    @Mock
+    private ReactiveInventoryServiceClient inventoryServiceClient;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ReactiveOrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new ReactiveOrderService(
+                orderRepository, productServiceClient, inventoryServiceClient, transactionalOperator, eventPublisher);
+    }
+
+    @Test
+    void should_CreateConfirmedOrder_When_AllProductsExistAndStockAvailable() {
+        UUID productId1 = UUID.randomUUID();
+        UUID productId2 = UUID.randomUUID();
+        var request = new CreateOrderRequest("Alice", List.of(
+                new OrderLineItemRequest(productId1, 2),
+                new OrderLineItemRequest(productId2, 1)
+        ));
+
+        when(productServiceClient.getProduct(productId1))
+                .thenReturn(Mono.just(new ProductInfo(productId1, "Laptop", new BigDecimal("999.99"))));
+        when(productServiceClient.getProduct(productId2))
+                .thenReturn(Mono.just(new ProductInfo(productId2, "Mouse", new BigDecimal("29.99"))));
+        stubPersistence();
+        when(inventoryServiceClient.reserveStock(eq(productId1), any(), eq(2)))
+                .thenReturn(Mono.just(new ReservationInfo(UUID.randomUUID(), productId1, 2)));
+        when(inventoryServiceClient.reserveStock(eq(productId2), any(), eq(1)))
+                .thenReturn(Mono.just(new ReservationInfo(UUID.randomUUID(), productId2, 1)));
+
+        OrderResponse result = orderService.createOrder(request).block();
+
+        assertThat(result.status()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(result.totalAmount()).isEqualByComparingTo("2029.97");
+        assertThat(result.items()).extracting(item -> item.productName()).containsExactly("Laptop", "Mouse");
+        verify(orderRepository).updateStatus(result.id(), OrderStatus.CONFIRMED);
+        verify(eventPublisher).publishEvent(new OrderConfirmedEvent(result));
+    }
+
+    @Test
+    void should_CompensateAndFailOrder_When_InventoryReservationFails() {
+        UUID productId1 = UUID.randomUUID();
+        UUID productId2 = UUID.randomUUID();
+        var request = new CreateOrderRequest("Bob", List.of(
+                new OrderLineItemRequest(productId1, 1),
+                new OrderLineItemRequest(productId2, 3)
+        ));
+        UUID reservationId1 = UUID.randomUUID();
+
+        when(productServiceClient.getProduct(productId1))
+                .thenReturn(Mono.just(new ProductInfo(productId1, "Keyboard", new BigDecimal("79.99"))));
+        when(productServiceClient.getProduct(productId2))
+                .thenReturn(Mono.just(new ProductInfo(productId2, "Monitor", new BigDecimal("399.99"))));
+        stubPersistence();
+        when(inventoryServiceClient.reserveStock(eq(productId1), any(), eq(1)))
+                .thenReturn(Mono.just(new ReservationInfo(reservationId1, productId1, 1)));
+        when(inventoryServiceClient.reserveStock(eq(productId2), any(), eq(3)))
+                .thenReturn(Mono.error(new RuntimeException("Insufficient stock")));
+        when(inventoryServiceClient.cancelReservation(reservationId1)).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> orderService.createOrder(request).block())
+                .isInstanceOf(OrderCreationException.class);
+
+        verify(inventoryServiceClient).cancelReservation(reservationId1);
+        verify(orderRepository).updateStatus(any(), eq(OrderStatus.FAILED));
+        verify(orderRepository, never()).updateStatus(any(), eq(OrderStatus.CONFIRMED));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void should_ThrowNotFound_When_OrderDoesNotExist() {
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.findById(orderId)).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> orderService.getOrder(orderId).block())
+                .isInstanceOf(OrderNotFoundException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubPersistence() {
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.insert(any())).thenReturn(Mono.empty());
+        when(orderRepository.updateStatus(any(), any())).thenReturn(Mono.empty());
+    }
+}
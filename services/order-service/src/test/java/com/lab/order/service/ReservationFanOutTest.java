@@ -0,0 +1,179 @@
+package com.lab.order.service;
+
+import com.lab.order.client.InventoryServiceClient;
+import com.lab.order.client.InventoryServiceClient.ReservationInfo;
+import com.lab.order.model.LineItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationFanOutTest {
+
+    private static final UUID ORDER = UUID.randomUUID();
+
+    @Mock
+    private InventoryServiceClient inventoryServiceClient;
+
+    private ReservationFanOut fanOut;
+
+    @AfterEach
+    void tearDown() {
+        fanOut.destroy();
+    }
+
+    @Test
+    void should_SendAllReservationsAtOnce_When_OrderHasSeveralLines() {
+        fanOut = fanOut(true, Duration.ofSeconds(5));
+        List<LineItem> lineItems = List.of(lineItem(), lineItem(), lineItem());
+        CountDownLatch allSent = new CountDownLatch(lineItems.size());
+        when(inventoryServiceClient.reserveStock(any(), eq(ORDER), anyInt())).thenAnswer(invocation -> {
+            allSent.countDown();
+            // Only completes if every call is in flight at the same time
+            if (!allSent.await(2, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Reservations were not sent concurrently");
+            }
+            return new ReservationInfo(UUID.randomUUID(), invocation.getArgument(0), invocation.getArgument(2));
+        });
+
+        List<ReservationInfo> reservations = fanOut.reserveAll(ORDER, lineItems);
+
+        assertThat(reservations).extracting(ReservationInfo::productId)
+                .containsExactlyInAnyOrderElementsOf(lineItems.stream().map(LineItem::getProductId).toList());
+        verify(inventoryServiceClient, never()).cancelReservation(any());
+    }
+
+    @Test
+    void should_LetInFlightCallFinishAndCancelEverything_When_OneFails() {
+        fanOut = fanOut(true, Duration.ofSeconds(5));
+        LineItem reserved = lineItem();
+        LineItem failing = lineItem();
+        LineItem inFlight = lineItem();
+        ReservationInfo reservation = new ReservationInfo(UUID.randomUUID(), reserved.getProductId(), 1);
+        ReservationInfo inFlightReservation = new ReservationInfo(UUID.randomUUID(), inFlight.getProductId(), 1);
+        CountDownLatch othersSent = new CountDownLatch(2);
+        CountDownLatch inventoryResponds = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(inventoryServiceClient.reserveStock(eq(reserved.getProductId()), eq(ORDER), anyInt())).thenAnswer(invocation -> {
+            othersSent.countDown();
+            return reservation;
+        });
+        when(inventoryServiceClient.reserveStock(eq(failing.getProductId()), eq(ORDER), anyInt())).thenAnswer(invocation -> {
+            othersSent.await(2, TimeUnit.SECONDS);
+            throw new HttpClientErrorException(HttpStatus.CONFLICT);
+        });
+        when(inventoryServiceClient.reserveStock(eq(inFlight.getProductId()), eq(ORDER), anyInt())).thenAnswer(invocation -> {
+            othersSent.countDown();
+            // inventory-service has already reserved the stock; only the response is still on its way
+            try {
+                inventoryResponds.await();
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+                throw new ResourceAccessException("Interrupted");
+            }
+            return inFlightReservation;
+        });
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> fanOut.reserveAll(ORDER, List.of(reserved, failing, inFlight)))
+                .isInstanceOf(HttpClientErrorException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        verify(inventoryServiceClient, timeout(2000)).cancelReservation(reservation.id());
+
+        inventoryResponds.countDown();
+
+        verify(inventoryServiceClient, timeout(2000)).cancelReservation(inFlightReservation.id());
+        assertThat(interrupted).isFalse();
+    }
+
+    @Test
+    void should_CancelReservation_When_ItSucceedsAfterAbort() {
+        fanOut = fanOut(true, Duration.ofSeconds(5));
+        LineItem failing = lineItem();
+        LineItem late = lineItem();
+        ReservationInfo lateReservation = new ReservationInfo(UUID.randomUUID(), late.getProductId(), 1);
+        CountDownLatch lateSent = new CountDownLatch(1);
+        CountDownLatch answer = new CountDownLatch(1);
+        when(inventoryServiceClient.reserveStock(eq(failing.getProductId()), eq(ORDER), anyInt())).thenAnswer(invocation -> {
+            lateSent.await(2, TimeUnit.SECONDS);
+            throw new ResourceAccessException("Connection refused");
+        });
+        when(inventoryServiceClient.reserveStock(eq(late.getProductId()), eq(ORDER), anyInt())).thenAnswer(invocation -> {
+            lateSent.countDown();
+            // Like a blocking socket read, this call ignores the interrupt
+            while (true) {
+                try {
+                    answer.await();
+                    return lateReservation;
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+
+        assertThatThrownBy(() -> fanOut.reserveAll(ORDER, List.of(failing, late)))
+                .isInstanceOf(ResourceAccessException.class);
+        answer.countDown();
+
+        verify(inventoryServiceClient, timeout(2000)).cancelReservation(lateReservation.id());
+    }
+
+    @Test
+    void should_AbortAllReservations_When_DeadlinePasses() {
+        fanOut = fanOut(true, Duration.ofMillis(100));
+        when(inventoryServiceClient.reserveStock(any(), eq(ORDER), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return new ReservationInfo(UUID.randomUUID(), invocation.getArgument(0), 1);
+        });
+
+        assertThatThrownBy(() -> fanOut.reserveAll(ORDER, List.of(lineItem(), lineItem())))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("took longer than");
+    }
+
+    @Test
+    void should_StopAtFirstFailure_When_Sequential() {
+        fanOut = fanOut(false, Duration.ofSeconds(5));
+        LineItem reserved = lineItem();
+        LineItem failing = lineItem();
+        LineItem skipped = lineItem();
+        ReservationInfo reservation = new ReservationInfo(UUID.randomUUID(), reserved.getProductId(), 1);
+        when(inventoryServiceClient.reserveStock(eq(reserved.getProductId()), eq(ORDER), anyInt())).thenReturn(reservation);
+        when(inventoryServiceClient.reserveStock(eq(failing.getProductId()), eq(ORDER), anyInt()))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        assertThatThrownBy(() -> fanOut.reserveAll(ORDER, List.of(reserved, failing, skipped)))
+                .isInstanceOf(ResourceAccessException.class);
+
+        verify(inventoryServiceClient, never()).reserveStock(eq(skipped.getProductId()), any(), anyInt());
+        verify(inventoryServiceClient).cancelReservation(reservation.id());
+    }
+
+    private ReservationFanOut fanOut(boolean parallel, Duration timeout) {
+        return new ReservationFanOut(inventoryServiceClient, new SimpleMeterRegistry(), parallel, timeout, 4);
+    }
+
+    private static LineItem lineItem() {
+        return new LineItem(UUID.randomUUID(), "Cable", 1, new BigDecimal("9.99"));
+    }
+}
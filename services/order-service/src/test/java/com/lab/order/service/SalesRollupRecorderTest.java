@@ -0,0 +1,167 @@
+package com.lab.order.service;
+
+import com.lab.order.dto.CustomerDailySales;
+import com.lab.order.dto.LineItemResponse;
+import com.lab.order.dto.OrderResponse;
+import com.lab.order.dto.ProductHourlySales;
+import com.lab.order.model.OrderStatus;
+import com.lab.order.repository.SalesRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupRecorderTest {
+
+    private static final UUID LAPTOP = UUID.randomUUID();
+    private static final UUID MOUSE = UUID.randomUUID();
+
+    @Mock
+    private SalesRollupRepository rollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<Collection<ProductHourlySales>> productRows;
+
+    @Captor
+    private ArgumentCaptor<Collection<CustomerDailySales>> customerRows;
+
+    private SalesRollupRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new SalesRollupRecorder(rollupRepository, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void should_MergeOrdersIntoOneUpsertPerBucket_When_Flushing() {
+        recorder.onOrderConfirmed(confirmed("Alice", "2026-10-18T11:05:00Z", item(LAPTOP, 1, "999.99")));
+        recorder.onOrderConfirmed(confirmed("Alice", "2026-10-18T11:55:00Z",
+                item(LAPTOP, 2, "999.99"), item(MOUSE, 1, "29.99")));
+
+        recorder.flush();
+
+        verify(rollupRepository).incrementProductHourly(productRows.capture());
+        verify(rollupRepository).incrementCustomerDaily(customerRows.capture());
+        Instant hour = Instant.parse("2026-10-18T11:00:00Z");
+        assertThat(productRows.getValue()).containsExactlyInAnyOrder(
+                new ProductHourlySales(LAPTOP, hour, 3, new BigDecimal("2999.97")),
+                new ProductHourlySales(MOUSE, hour, 1, new BigDecimal("29.99")));
+        assertThat(customerRows.getValue()).containsExactly(
+                new CustomerDailySales("Alice", LocalDate.parse("2026-10-18"), 2, new BigDecimal("3029.96")));
+        assertThat(recorder.pendingBuckets()).isZero();
+    }
+
+    @Test
+    void should_KeepDeltasForNextFlush_When_UpsertFails() {
+        doThrow(new RuntimeException("connection reset")).doNothing()
+                .when(rollupRepository).incrementProductHourly(any());
+        recorder.onOrderConfirmed(confirmed("Bob", "2026-10-18T09:10:00Z", item(MOUSE, 1, "29.99")));
+
+        recorder.flush();
+        assertThat(recorder.pendingBuckets()).isEqualTo(2);
+
+        recorder.onOrderConfirmed(confirmed("Bob", "2026-10-18T09:20:00Z", item(MOUSE, 2, "29.99")));
+        recorder.flush();
+
+        verify(rollupRepository, times(2)).incrementProductHourly(productRows.capture());
+        assertThat(productRows.getValue()).containsExactly(
+                new ProductHourlySales(MOUSE, Instant.parse("2026-10-18T09:00:00Z"), 3, new BigDecimal("89.97")));
+        assertThat(recorder.pendingBuckets()).isZero();
+    }
+
+    @Test
+    void should_DropBufferedDeltasForRebuiltDays_When_Rebuilding() {
+        recorder.onOrderConfirmed(confirmed("Carol", "2026-10-17T22:00:00Z", item(LAPTOP, 1, "999.99")));
+        recorder.onOrderConfirmed(confirmed("Carol", "2026-10-18T08:00:00Z", item(MOUSE, 1, "29.99")));
+
+        recorder.rebuild(LocalDate.parse("2026-10-17"), LocalDate.parse("2026-10-18"));
+        recorder.flush();
+
+        verify(rollupRepository).rebuild(LocalDate.parse("2026-10-17"), LocalDate.parse("2026-10-18"));
+        verify(rollupRepository).incrementProductHourly(productRows.capture());
+        verify(rollupRepository).incrementCustomerDaily(customerRows.capture());
+        assertThat(productRows.getValue()).extracting(ProductHourlySales::productId).containsExactly(MOUSE);
+        assertThat(customerRows.getValue()).extracting(CustomerDailySales::day)
+                .containsExactly(LocalDate.parse("2026-10-18"));
+    }
+
+    @Test
+    void should_WaitForFlushInFlight_When_Rebuilding() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(rollupRepository).incrementProductHourly(any());
+        recorder.onOrderConfirmed(confirmed("Dave", "2026-10-17T10:00:00Z", item(MOUSE, 1, "29.99")));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(recorder::flush);
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> rebuild = executor.submit(() ->
+                    recorder.rebuild(LocalDate.parse("2026-10-17"), LocalDate.parse("2026-10-18")));
+            Thread.sleep(100);
+            verify(rollupRepository, never()).rebuild(any(), any());
+
+            release.countDown();
+            rebuild.get(5, TimeUnit.SECONDS);
+            InOrder order = inOrder(rollupRepository);
+            order.verify(rollupRepository).incrementCustomerDaily(any());
+            order.verify(rollupRepository).rebuild(any(), any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_SkipDatabase_When_NothingRecorded() {
+        recorder.flush();
+
+        verifyNoInteractions(rollupRepository, transactionManager);
+    }
+
+    private static OrderConfirmedEvent confirmed(String customerName, String createdAt, LineItemResponse... items) {
+        BigDecimal total = List.of(items).stream()
+                .map(LineItemResponse::subtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new OrderConfirmedEvent(new OrderResponse(UUID.randomUUID(), customerName, OrderStatus.CONFIRMED, total,
+                Instant.parse(createdAt), List.of(items)));
+    }
+
+    private static LineItemResponse item(UUID productId, int quantity, String unitPrice) {
+        BigDecimal price = new BigDecimal(unitPrice);
+        return new LineItemResponse(UUID.randomUUID(), productId, "Product", quantity, price,
+                price.multiply(BigDecimal.valueOf(quantity)));
+    }
+}
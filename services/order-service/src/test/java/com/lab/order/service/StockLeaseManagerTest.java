@@ -0,0 +1,255 @@
+package com.lab.order.service;
+
+import com.lab.order.client.InventoryServiceClient;
+import com.lab.order.client.InventoryServiceClient.LeaseInfo;
+import com.lab.order.dto.LeaseConsumption;
+import com.lab.order.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLeaseManagerTest {
+
+    private static final UUID PRODUCT = UUID.randomUUID();
+
+    @Mock
+    private InventoryServiceClient inventoryServiceClient;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockLeaseManager leaseManager;
+
+    @BeforeEach
+    void setUp() {
+        leaseManager = manager(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void should_ReserveRemotely_When_ProductNotHotYet() {
+        assertThat(leaseManager.tryConsume(PRODUCT, 1)).isEmpty();
+
+        leaseManager.tick();
+
+        verify(inventoryServiceClient, never()).grantLease(any(), anyString(), anyInt(), any());
+    }
+
+    @Test
+    void should_TakeFromLease_When_ProductIsHot() {
+        LeaseInfo lease = leaseOf(10);
+        makeHot(lease);
+
+        assertThat(leaseManager.tryConsume(PRODUCT, 4)).contains(lease.id());
+        assertThat(leaseManager.tryConsume(PRODUCT, 6)).contains(lease.id());
+        assertThat(leaseManager.tryConsume(PRODUCT, 1)).isEmpty();
+    }
+
+    @Test
+    void should_GiveUnitsBack_When_TransactionRolledBack() {
+        makeHot(leaseOf(5));
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThat(leaseManager.tryConsume(PRODUCT, 5)).isPresent();
+        assertThat(leaseManager.tryConsume(PRODUCT, 1)).isEmpty();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(leaseManager.tryConsume(PRODUCT, 5)).isPresent();
+    }
+
+    @Test
+    void should_SettleWithConfirmedOrders_When_LeaseRunsOut() {
+        LeaseInfo lease = leaseOf(3);
+        makeHot(lease);
+        UUID orderId = UUID.randomUUID();
+        List<LeaseConsumption> consumed = List.of(new LeaseConsumption(orderId, 3));
+        when(orderRepository.findLeaseConsumption(eq(lease.id()), any())).thenReturn(consumed);
+
+        leaseManager.tryConsume(PRODUCT, 3);
+        leaseManager.tick();
+
+        verify(inventoryServiceClient).settleLease(lease.id(), consumed);
+    }
+
+    @Test
+    void should_WaitForInFlightOrders_When_Settling() {
+        LeaseInfo lease = leaseOf(2);
+        makeHot(lease);
+        when(orderRepository.findLeaseConsumption(eq(lease.id()), any())).thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+
+        leaseManager.tryConsume(PRODUCT, 2);
+        leaseManager.tick();
+        verify(inventoryServiceClient, never()).settleLease(any(), any());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        leaseManager.tick();
+        verify(inventoryServiceClient).settleLease(lease.id(), List.of());
+    }
+
+    @Test
+    void should_RetrySettlement_When_InventoryUnavailable() {
+        LeaseInfo lease = leaseOf(1);
+        makeHot(lease);
+        when(orderRepository.findLeaseConsumption(eq(lease.id()), any())).thenReturn(List.of());
+        doThrow(new ResourceAccessException("Connection refused")).doNothing()
+                .when(inventoryServiceClient).settleLease(lease.id(), List.of());
+
+        leaseManager.tryConsume(PRODUCT, 1);
+        leaseManager.tick();
+        leaseManager.tick();
+        leaseManager.tick();
+
+        verify(inventoryServiceClient, times(2)).settleLease(lease.id(), List.of());
+    }
+
+    @Test
+    void should_KeepReservingRemotely_When_NothingLeftToLease() {
+        when(inventoryServiceClient.grantLease(eq(PRODUCT), anyString(), anyInt(), any()))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", null, null, null));
+        leaseManager.tryConsume(PRODUCT, 1);
+        leaseManager.tryConsume(PRODUCT, 1);
+
+        leaseManager.tick();
+
+        assertThat(leaseManager.tryConsume(PRODUCT, 1)).isEmpty();
+    }
+
+    @Test
+    void should_NeverTakeFromSettledLease_When_TickRacesTakers() throws InterruptedException {
+        // Usable for 200ms before the settle margin retires it, with far more units than takers use
+        Instant now = Instant.now();
+        LeaseInfo lease = new LeaseInfo(UUID.randomUUID(), PRODUCT, 1_000_000, now,
+                now.plusSeconds(5).plusMillis(200));
+        makeHot(lease);
+        when(orderRepository.findLeaseConsumption(eq(lease.id()), any())).thenReturn(List.of());
+        AtomicBoolean settled = new AtomicBoolean();
+        doAnswer(invocation -> {
+            settled.set(true);
+            return null;
+        }).when(inventoryServiceClient).settleLease(eq(lease.id()), any());
+        AtomicInteger takenAfterSettle = new AtomicInteger();
+        AtomicInteger taken = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean();
+
+        List<Thread> takers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread taker = new Thread(() -> {
+                while (!stop.get()) {
+                    TransactionSynchronizationManager.initSynchronization();
+                    if (leaseManager.tryConsume(PRODUCT, 1).isPresent()) {
+                        taken.incrementAndGet();
+                        if (settled.get()) {
+                            takenAfterSettle.incrementAndGet();
+                        }
+                    }
+                    complete(TransactionSynchronization.STATUS_COMMITTED);
+                }
+            });
+            taker.start();
+            takers.add(taker);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!settled.get() && System.nanoTime() < deadline) {
+            leaseManager.tick();
+        }
+        Thread.sleep(50);
+        stop.set(true);
+        for (Thread taker : takers) {
+            taker.join();
+        }
+
+        assertThat(settled).isTrue();
+        assertThat(taken.get()).isPositive();
+        assertThat(takenAfterSettle.get()).isZero();
+    }
+
+    @Test
+    void should_RefuseTake_When_LeaseRetired() {
+        StockLeaseManager.Lease lease = new StockLeaseManager.Lease(UUID.randomUUID(), PRODUCT, Instant.now(), 10,
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(30));
+
+        // Leaves the deadline where it is, so only the retired flag can refuse the take
+        lease.retire(System.nanoTime() + TimeUnit.SECONDS.toNanos(60));
+
+        assertThat(lease.tryTake(1)).isFalse();
+        assertThat(lease.pending.get()).isZero();
+        assertThat(lease.remaining.get()).isEqualTo(10);
+    }
+
+    @Test
+    void should_NeverLease_When_Disabled() {
+        StockLeaseManager disabled = manager(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(disabled.tryConsume(PRODUCT, 1)).isEmpty();
+        }
+        disabled.tick();
+
+        verifyNoInteractions(inventoryServiceClient);
+    }
+
+    private StockLeaseManager manager(boolean enabled) {
+        // A zero window re-evaluates hot products on every tick
+        return new StockLeaseManager(inventoryServiceClient, orderRepository, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), enabled, "order-1", 10, Duration.ofSeconds(30), Duration.ofSeconds(5),
+                2, Duration.ZERO, Duration.ofMinutes(2));
+    }
+
+    private void makeHot(LeaseInfo lease) {
+        when(inventoryServiceClient.grantLease(eq(PRODUCT), anyString(), anyInt(), any()))
+                .thenReturn(lease)
+                .thenThrow(HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", null, null, null));
+        leaseManager.tryConsume(PRODUCT, 1);
+        leaseManager.tryConsume(PRODUCT, 1);
+        leaseManager.tick();
+    }
+
+    private static LeaseInfo leaseOf(int quantity) {
+        Instant now = Instant.now();
+        return new LeaseInfo(UUID.randomUUID(), PRODUCT, quantity, now, now.plusSeconds(30));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
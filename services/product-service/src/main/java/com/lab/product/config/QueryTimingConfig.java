@@ -0,0 +1,43 @@
+package com.lab.product.config;
+
+import com.lab.product.monitoring.QueryRecorder;
+import com.lab.product.monitoring.QueryTimingPostProcessor;
+import com.lab.product.monitoring.SlowQueriesEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.time.Duration;
+
+/**
+ * Times every JDBC statement per repository method and SQL fingerprint ({@code db.query},
+ * {@code db.query.rows}) and keeps the slowest recent ones for {@code /actuator/slowqueries}.
+ * With {@code monitoring.queries.enabled: false} the DataSource is left unwrapped.
+ */
+@Configuration
+@ConditionalOnProperty(name = "monitoring.queries.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryTimingConfig {
+
+    @Bean
+    public QueryRecorder queryRecorder(MeterRegistry meterRegistry,
+                                       @Value("${monitoring.queries.slow-threshold:200ms}") Duration slowThreshold,
+                                       @Value("${monitoring.queries.slow-log-size:100}") int slowLogSize,
+                                       @Value("${monitoring.queries.max-fingerprints:500}") int maxFingerprints) {
+        return new QueryRecorder(meterRegistry, slowThreshold, slowLogSize, maxFingerprints);
+    }
+
+    // Static so it registers before the DataSource and repositories it wraps; the recorder is resolved on first use
+    @Bean
+    public static QueryTimingPostProcessor queryTimingPostProcessor(ObjectProvider<QueryRecorder> queryRecorder) {
+        return new QueryTimingPostProcessor(SingletonSupplier.of(queryRecorder::getObject));
+    }
+
+    @Bean
+    public SlowQueriesEndpoint slowQueriesEndpoint(QueryRecorder queryRecorder) {
+        return new SlowQueriesEndpoint(queryRecorder);
+    }
+}
@@ -0,0 +1,159 @@
+package com.lab.product.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to replica pools (round robin) and everything else to the
+ * primary. Replica lag is probed in the background; a replica that lags more than
+ * {@code maxLag}, or cannot be reached, is skipped until it catches up. With no usable
+ * replica, reads fall back to the primary.
+ * <p>
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is only fetched once the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Lag in seconds; 0 when caught up or when the target is not a standby (local stand-in)
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final Map<String, DataSource> replicas;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final List<String> replicaNames;
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private final Map<String, Counter> routed = new HashMap<>();
+    private final Counter fallbacks;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> usable = List.of();
+    private ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                    Duration checkInterval, MeterRegistry meterRegistry) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        routed.put(PRIMARY, routeCounter(meterRegistry, PRIMARY));
+        for (String name : replicaNames) {
+            routed.put(name, routeCounter(meterRegistry, name));
+            // Unknown until the first probe; treated as unusable
+            lagSeconds.put(name, Double.NaN);
+            Gauge.builder("datasource.replica.lag", lagSeconds, lags -> lags.getOrDefault(name, Double.NaN))
+                    .description("Replication lag of the replica in seconds")
+                    .baseUnit("seconds")
+                    .tag("route", name)
+                    .register(meterRegistry);
+        }
+        this.fallbacks = Counter.builder("datasource.routing.fallbacks")
+                .description("Read-only transactions sent to the primary because no replica was usable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkLag();
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = checkInterval.toMillis();
+        lagChecker.scheduleWithFixedDelay(this::checkLag, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        for (DataSource target : getResolvedDataSources().values()) {
+            if (target instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String route = PRIMARY;
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            List<String> candidates = usable;
+            if (candidates.isEmpty()) {
+                fallbacks.increment();
+            } else {
+                route = candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+            }
+        }
+        routed.get(route).increment();
+        return route;
+    }
+
+    void checkLag() {
+        for (String name : replicaNames) {
+            try {
+                Double lag = new JdbcTemplate(replicas.get(name)).queryForObject(LAG_QUERY, Double.class);
+                recordLag(name, lag == null ? Double.NaN : lag);
+            } catch (RuntimeException ex) {
+                log.warn("Replica {} lag check failed, routing reads elsewhere: {}", name, ex.getMessage());
+                recordLag(name, Double.NaN);
+            }
+        }
+    }
+
+    void recordLag(String replica, double seconds) {
+        lagSeconds.put(replica, seconds);
+        List<String> healthy = new ArrayList<>();
+        for (String name : replicaNames) {
+            double lag = lagSeconds.get(name);
+            if (!Double.isNaN(lag) && lag * 1000 <= maxLag.toMillis()) {
+                healthy.add(name);
+            }
+        }
+        usable = List.copyOf(healthy);
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Connections handed out per route")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
@@ -1,23 +1,29 @@
 package com.lab.product.controller;
 
 import com.lab.product.dto.CreateProductRequest;
+import com.lab.product.dto.ProductFacetsResponse;
 import com.lab.product.dto.ProductResponse;
 import com.lab.product.model.Product;
+import com.lab.product.service.CatalogSnapshot;
+import com.lab.product.service.ProductCatalog;
+import com.lab.product.service.ProductFacets;
 import com.lab.product.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -26,9 +32,14 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductCatalog productCatalog;
+    private final ProductFacets productFacets;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductCatalog productCatalog,
+                             ProductFacets productFacets) {
         this.productService = productService;
+        this.productCatalog = productCatalog;
+        this.productFacets = productFacets;
     }
 
     @PostMapping
@@ -54,11 +65,14 @@ public class ProductController {
         return ResponseEntity.created(location).body(ProductResponse.from(product));
     }
 
-    @GetMapping("/{id}")
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     @Operation(summary = "Get product by ID", description = "Retrieves a product by its unique identifier")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Product found",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductResponse.class))),
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = ProductResponse.class)),
+                            @Content(mediaType = "application/cbor", schema = @Schema(implementation = ProductResponse.class))
+                    }),
             @ApiResponse(responseCode = "404", description = "Product not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
@@ -70,17 +84,51 @@ public class ProductController {
         return ResponseEntity.ok(ProductResponse.from(product));
     }
 
-    @GetMapping
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get all products", description = "Retrieves a list of all available products")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of products retrieved successfully",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductResponse.class))),
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductResponse.class)))),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        List<ProductResponse> products = productService.getAllProducts().stream()
-                .map(ProductResponse::from)
-                .toList();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            @Parameter(hidden = true)
+            String acceptEncoding) {
+        // Body is pre-rendered by the catalog; the servlet container leaves an already encoded response alone
+        CatalogSnapshot catalog = productCatalog.snapshot();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (catalog.gzipJson() != null && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalog.gzipJson());
+        }
+        return response.body(catalog.json());
+    }
+
+    @GetMapping(value = "/facets", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get product facets",
+            description = "Retrieves product counts per category and per price range, served from memory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Facet counts retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductFacetsResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ProductFacetsResponse> getFacets() {
+        return ResponseEntity.ok(productFacets.facets());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,12 @@
+package com.lab.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Number of products in one category")
+public record CategoryFacet(
+        @Schema(description = "Product category", example = "Electronics")
+        String category,
+
+        @Schema(description = "Products in the category", example = "42")
+        long products
+) {}
@@ -0,0 +1,17 @@
+package com.lab.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Number of products priced within one range")
+public record PriceRangeFacet(
+        @Schema(description = "Lower bound, inclusive", example = "100.00")
+        BigDecimal from,
+
+        @Schema(description = "Upper bound, exclusive; absent for the highest range", example = "500.00")
+        BigDecimal to,
+
+        @Schema(description = "Products priced in the range", example = "17")
+        long products
+) {}
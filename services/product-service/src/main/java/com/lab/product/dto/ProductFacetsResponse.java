@@ -0,0 +1,21 @@
+package com.lab.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+@Schema(description = "Product counts per category and price range")
+public record ProductFacetsResponse(
+        @Schema(description = "Total number of products", example = "120")
+        long total,
+
+        @Schema(description = "Counts per category, ordered by category name")
+        List<CategoryFacet> categories,
+
+        @Schema(description = "Counts per configured price range, lowest first; empty when none are configured")
+        List<PriceRangeFacet> priceRanges,
+
+        @Schema(description = "When the counts were last checked against the database")
+        Instant reconciledAt
+) {}
@@ -0,0 +1,154 @@
+package com.lab.product.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Times JDBC statements per repository method and SQL fingerprint, counts the rows they return,
+ * and keeps the last {@code slow-log-size} statements slower than {@code slow-threshold}. A
+ * fingerprint is the SQL with literals and {@code IN} lists collapsed, so one query shape is one
+ * series however its parameters vary. After {@code max-fingerprints} distinct shapes, new
+ * shapes share the {@code other} series.
+ */
+public class QueryRecorder {
+
+    public static final String NO_METHOD = "none";
+    static final String OTHER = "other";
+
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final int maxFingerprints;
+    private final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> shapes = new ConcurrentHashMap<>();
+    private final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+    private final SlowQuery[] slowLog;
+    private final AtomicLong slowWritten = new AtomicLong();
+
+    public QueryRecorder(MeterRegistry meterRegistry, Duration slowThreshold, int slowLogSize, int maxFingerprints) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxFingerprints = maxFingerprints;
+        this.slowLog = new SlowQuery[slowLogSize];
+    }
+
+    /**
+     * Marks the calling thread as inside a repository method until {@link #exit} restores the
+     * returned previous value.
+     */
+    public static String enter(String repositoryMethod) {
+        String previous = CURRENT_METHOD.get();
+        CURRENT_METHOD.set(repositoryMethod);
+        return previous;
+    }
+
+    public static void exit(String previous) {
+        if (previous == null) {
+            CURRENT_METHOD.remove();
+        } else {
+            CURRENT_METHOD.set(previous);
+        }
+    }
+
+    public Fingerprint fingerprint(String sql) {
+        Fingerprint cached = fingerprints.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        Fingerprint fingerprint = Fingerprint.of(sql);
+        if (shapes.size() < maxFingerprints || shapes.containsKey(fingerprint.id())) {
+            shapes.put(fingerprint.id(), Boolean.TRUE);
+        } else {
+            fingerprint = new Fingerprint(OTHER, fingerprint.sql());
+        }
+        // Statement texts are few (generated or constant SQL), but don't let them grow unbounded
+        if (fingerprints.size() < maxFingerprints * 4) {
+            fingerprints.put(sql, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Records one executed statement for the repository method running on this thread and
+     * returns its series, to which the rows it returns are added later.
+     */
+    public Series executed(Fingerprint fingerprint, long nanos, List<String> parameterShapes) {
+        String method = CURRENT_METHOD.get();
+        Series target = series(method == null ? NO_METHOD : method, fingerprint.id());
+        target.latency.record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos >= slowThresholdNanos) {
+            long slot = slowWritten.getAndIncrement() % slowLog.length;
+            slowLog[(int) slot] = new SlowQuery(Instant.now(), method == null ? NO_METHOD : method,
+                    fingerprint.id(), fingerprint.sql(), List.copyOf(parameterShapes), Duration.ofNanos(nanos));
+        }
+        return target;
+    }
+
+    /**
+     * The captured slow statements, newest first.
+     */
+    public List<SlowQuery> slowQueries() {
+        long written = slowWritten.get();
+        int count = (int) Math.min(written, slowLog.length);
+        List<SlowQuery> queries = new ArrayList<>(count);
+        for (long i = written - 1; i >= written - count; i--) {
+            SlowQuery query = slowLog[(int) (i % slowLog.length)];
+            if (query != null) {
+                queries.add(query);
+            }
+        }
+        return queries;
+    }
+
+    private Series series(String method, String fingerprintId) {
+        return series.computeIfAbsent(new SeriesKey(method, fingerprintId), key -> new Series(
+                Timer.builder("db.query")
+                        .description("JDBC statement execution time by repository method and SQL fingerprint")
+                        .tag("repository.method", key.method())
+                        .tag("query", key.fingerprintId())
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(10))
+                        .register(meterRegistry),
+                DistributionSummary.builder("db.query.rows")
+                        .description("Rows read per statement, or rows changed by an update")
+                        .tag("repository.method", key.method())
+                        .tag("query", key.fingerprintId())
+                        .register(meterRegistry)));
+    }
+
+    public record Fingerprint(String id, String sql) {
+
+        static Fingerprint of(String sql) {
+            String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+            normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+            normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+            normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+            return new Fingerprint(String.format("%08x", normalized.hashCode()), normalized);
+        }
+    }
+
+    public record SlowQuery(Instant at, String repositoryMethod, String fingerprint, String sql,
+                            List<String> parameterShapes, Duration duration) {}
+
+    public record Series(Timer latency, DistributionSummary rows) {}
+
+    private record SeriesKey(String method, String fingerprintId) {}
+}
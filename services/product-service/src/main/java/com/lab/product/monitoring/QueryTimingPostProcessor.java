@@ -0,0 +1,92 @@
+package com.lab.product.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the {@code dataSource} bean in a {@link QueryTimingDataSource}, and every Spring Data
+ * repository and {@code @Repository} class in an interceptor that names the running repository
+ * method ({@code ProductRepository.existsByName}) for the statements it
+ * issues. Nested repository calls report under the innermost method.
+ */
+public class QueryTimingPostProcessor implements BeanPostProcessor {
+
+    private static final String DATA_SOURCE = "dataSource";
+
+    private final Supplier<QueryRecorder> recorder;
+
+    public QueryTimingPostProcessor(Supplier<QueryRecorder> recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                && !(bean instanceof QueryTimingDataSource)) {
+            return new QueryTimingDataSource(dataSource, recorder);
+        }
+        if (!isRepository(bean)) {
+            return bean;
+        }
+        MethodInterceptor labeller = new RepositoryMethodLabeller(repositoryName(bean));
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, labeller);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(labeller);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    private static boolean isRepository(Object bean) {
+        return bean instanceof Repository<?, ?>
+                || AnnotatedElementUtils.hasAnnotation(AopUtils.getTargetClass(bean),
+                org.springframework.stereotype.Repository.class);
+    }
+
+    // Spring Data methods are declared on CrudRepository & co.; name them after the application's interface
+    static String repositoryName(Object bean) {
+        if (bean instanceof Repository<?, ?> && bean instanceof Advised advised) {
+            for (Class<?> proxied : advised.getProxiedInterfaces()) {
+                if (Repository.class.isAssignableFrom(proxied)) {
+                    return proxied.getSimpleName();
+                }
+            }
+        }
+        return AopUtils.getTargetClass(bean).getSimpleName();
+    }
+
+    private static final class RepositoryMethodLabeller implements MethodInterceptor {
+
+        private final String repository;
+        private final Map<Method, String> labels = new ConcurrentHashMap<>();
+
+        RepositoryMethodLabeller(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            String previous = QueryRecorder.enter(
+                    labels.computeIfAbsent(invocation.getMethod(), method -> repository + "." + method.getName()));
+            try {
+                return invocation.proceed();
+            } finally {
+                QueryRecorder.exit(previous);
+            }
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.lab.product.repository;
 
+import com.lab.product.dto.CategoryFacet;
+import com.lab.product.dto.ProductResponse;
 import com.lab.product.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +17,26 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     Optional<Product> findByName(String name);
 
     boolean existsByName(String name);
+
+    // Read straight into response records: no managed entities, snapshots or persistence context entries
+    @Query("""
+            SELECT new com.lab.product.dto.ProductResponse(p.id, p.name, p.description, p.price, p.category,
+                                                           p.createdAt, p.updatedAt)
+            FROM Product p
+            """)
+    List<ProductResponse> findAllResponses();
+
+    @Query("""
+            SELECT new com.lab.product.dto.CategoryFacet(p.category, COUNT(p))
+            FROM Product p
+            WHERE p.createdAt <= :asOf
+            GROUP BY p.category
+            """)
+    List<CategoryFacet> countByCategoryCreatedUpTo(Instant asOf);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.createdAt <= :asOf AND p.price >= :from AND p.price < :to")
+    long countByPriceRangeCreatedUpTo(Instant asOf, BigDecimal from, BigDecimal to);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.createdAt <= :asOf AND p.price >= :from")
+    long countByPriceFromCreatedUpTo(Instant asOf, BigDecimal from);
 }
@@ -0,0 +1,159 @@
+package com.lab.product.service;
+
+import com.lab.product.dto.ProductResponse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An immutable view of the whole catalog: one array per field, category names stored once,
+ * and the list response already rendered as JSON and, when large enough, gzipped. Snapshots
+ * are never modified; {@link ProductCatalog} builds a new one and swaps it in. Callers must
+ * not write to the arrays returned by {@link #json()} and {@link #gzipJson()}.
+ */
+public final class CatalogSnapshot {
+
+    private static final String[] NO_STRINGS = new String[0];
+
+    private final long version;
+    private final UUID[] ids;
+    private final String[] names;
+    private final String[] descriptions;
+    private final BigDecimal[] prices;
+    private final int[] categories;
+    private final String[] categoryNames;
+    private final Instant[] createdAt;
+    private final Instant[] updatedAt;
+    private final byte[] json;
+    private final byte[] gzipJson;
+
+    private CatalogSnapshot(long version, UUID[] ids, String[] names, String[] descriptions, BigDecimal[] prices,
+                            int[] categories, String[] categoryNames, Instant[] createdAt, Instant[] updatedAt,
+                            byte[] json, byte[] gzipJson) {
+        this.version = version;
+        this.ids = ids;
+        this.names = names;
+        this.descriptions = descriptions;
+        this.prices = prices;
+        this.categories = categories;
+        this.categoryNames = categoryNames;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.json = json;
+        this.gzipJson = gzipJson;
+    }
+
+    static CatalogSnapshot of(long version, List<ProductResponse> products, byte[] json, byte[] gzipJson) {
+        int size = products.size();
+        UUID[] ids = new UUID[size];
+        String[] names = new String[size];
+        String[] descriptions = new String[size];
+        BigDecimal[] prices = new BigDecimal[size];
+        int[] categories = new int[size];
+        Instant[] createdAt = new Instant[size];
+        Instant[] updatedAt = new Instant[size];
+        List<String> categoryNames = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ProductResponse product = products.get(i);
+            ids[i] = product.id();
+            names[i] = product.name();
+            descriptions[i] = product.description();
+            prices[i] = product.price();
+            createdAt[i] = product.createdAt();
+            updatedAt[i] = product.updatedAt();
+            int category = categoryNames.indexOf(product.category());
+            if (category < 0) {
+                category = categoryNames.size();
+                categoryNames.add(product.category());
+            }
+            categories[i] = category;
+        }
+        return new CatalogSnapshot(version, ids, names, descriptions, prices, categories,
+                categoryNames.toArray(NO_STRINGS), createdAt, updatedAt, json, gzipJson);
+    }
+
+    /**
+     * A new snapshot with {@code product} added at the end; the arrays are copied, this one
+     * is left as it was.
+     */
+    CatalogSnapshot appending(ProductResponse product, byte[] json, byte[] gzipJson) {
+        int size = ids.length;
+        String[] nextCategoryNames = categoryNames;
+        int category = Arrays.asList(categoryNames).indexOf(product.category());
+        if (category < 0) {
+            category = categoryNames.length;
+            nextCategoryNames = Arrays.copyOf(categoryNames, category + 1);
+            nextCategoryNames[category] = product.category();
+        }
+        int[] nextCategories = Arrays.copyOf(categories, size + 1);
+        nextCategories[size] = category;
+        return new CatalogSnapshot(version + 1,
+                append(ids, product.id()),
+                append(names, product.name()),
+                append(descriptions, product.description()),
+                append(prices, product.price()),
+                nextCategories,
+                nextCategoryNames,
+                append(createdAt, product.createdAt()),
+                append(updatedAt, product.updatedAt()),
+                json, gzipJson);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(UUID id) {
+        for (UUID existing : ids) {
+            if (existing.equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String category(int index) {
+        return categoryNames[categories[index]];
+    }
+
+    public BigDecimal price(int index) {
+        return prices[index];
+    }
+
+    public ProductResponse product(int index) {
+        return new ProductResponse(ids[index], names[index], descriptions[index], prices[index],
+                category(index), createdAt[index], updatedAt[index]);
+    }
+
+    public List<ProductResponse> products() {
+        List<ProductResponse> products = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            products.add(product(i));
+        }
+        return products;
+    }
+
+    /** The list response body, a JSON array of {@link ProductResponse}. */
+    public byte[] json() {
+        return json;
+    }
+
+    /** {@link #json()} gzipped, or null when the body is too small to be worth compressing. */
+    public byte[] gzipJson() {
+        return gzipJson;
+    }
+
+    private static <T> T[] append(T[] values, T value) {
+        T[] next = Arrays.copyOf(values, values.length + 1);
+        next[values.length] = value;
+        return next;
+    }
+}
@@ -0,0 +1,224 @@
+package com.lab.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lab.product.dto.ProductResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves {@code GET /api/products} from a {@link CatalogSnapshot} held in memory. Readers
+ * only read a volatile field, so list requests take no lock and never touch the database.
+ * <p>
+ * A product created on this instance is appended once its transaction commits: its JSON is
+ * spliced onto the end of the rendered array, so only the new product is serialized. The
+ * whole catalog is reloaded every {@code refresh-interval} to pick up products created on
+ * other instances. A reload keeps the products this instance created since the previous
+ * reload started, in case a lagging replica does not return them yet.
+ */
+@Component
+public class ProductCatalog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalog.class);
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration refreshInterval;
+    private final int gzipMinSize;
+    private final Counter refreshFailures;
+    private final Object loadLock = new Object();
+
+    private volatile CatalogSnapshot current;
+
+    // Guarded by this
+    private final List<Addition> recent = new ArrayList<>();
+    private long lastLoadStarted = System.nanoTime();
+
+    private ScheduledExecutorService scheduler;
+
+    public ProductCatalog(ProductService productService,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${products.catalog.enabled:true}") boolean enabled,
+                          @Value("${products.catalog.refresh-interval:30s}") Duration refreshInterval,
+                          @Value("${server.compression.min-response-size:2KB}") DataSize gzipMinSize) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.refreshInterval = refreshInterval;
+        this.gzipMinSize = (int) gzipMinSize.toBytes();
+        this.refreshFailures = Counter.builder("products.catalog.refresh.failures")
+                .description("Catalog reloads that failed; the previous snapshot stays in use")
+                .register(meterRegistry);
+        Gauge.builder("products.catalog.size", this, catalog -> size(catalog.current))
+                .description("Products in the in-memory catalog snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The current snapshot, loading it first if none has been built yet. With the catalog
+     * disabled every call reads and renders the catalog from the database.
+     */
+    public CatalogSnapshot snapshot() {
+        if (!enabled) {
+            return render(0, load());
+        }
+        CatalogSnapshot snapshot = current;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (loadLock) {
+            return current != null ? current : reload();
+        }
+    }
+
+    /**
+     * Reloads the catalog from the database and swaps the new snapshot in.
+     */
+    public CatalogSnapshot reload() {
+        synchronized (loadLock) {
+            long started = System.nanoTime();
+            List<ProductResponse> loaded = load();
+            synchronized (this) {
+                Set<UUID> ids = new HashSet<>();
+                loaded.forEach(product -> ids.add(product.id()));
+                List<ProductResponse> products = new ArrayList<>(loaded);
+                for (Addition addition : recent) {
+                    if (ids.add(addition.product().id())) {
+                        products.add(addition.product());
+                    }
+                }
+                long previousStart = lastLoadStarted;
+                recent.removeIf(addition -> addition.addedAt() - previousStart < 0);
+                lastLoadStarted = started;
+                long version = current == null ? 1 : current.version() + 1;
+                current = render(version, products);
+                return current;
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductCreated(ProductCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ProductResponse product = ProductResponse.from(event.product());
+        synchronized (this) {
+            recent.add(new Addition(product, System.nanoTime()));
+            CatalogSnapshot snapshot = current;
+            // Not loaded yet: the first load picks it up from recent
+            if (snapshot != null && !snapshot.contains(product.id())) {
+                current = append(snapshot, product);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-catalog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reload();
+            } catch (RuntimeException ex) {
+                refreshFailures.increment();
+                log.warn("Catalog reload failed, serving the previous snapshot until the next attempt in {}",
+                        refreshInterval, ex);
+            }
+        }, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private List<ProductResponse> load() {
+        return productService.getAllProducts();
+    }
+
+    private CatalogSnapshot render(long version, List<ProductResponse> products) {
+        byte[] json = write(products);
+        return CatalogSnapshot.of(version, products, json, gzip(json));
+    }
+
+    private CatalogSnapshot append(CatalogSnapshot snapshot, ProductResponse product) {
+        byte[] element = write(product);
+        byte[] previous = snapshot.json();
+        // previous is "[...]": drop its closing bracket, then add ",<element>]" (no comma after "[")
+        int keep = previous.length - 1;
+        int separator = snapshot.size() == 0 ? 0 : 1;
+        byte[] json = Arrays.copyOf(previous, keep + separator + element.length + 1);
+        if (separator == 1) {
+            json[keep] = ',';
+        }
+        System.arraycopy(element, 0, json, keep + separator, element.length);
+        json[json.length - 1] = ']';
+        return snapshot.appending(product, json, gzip(json));
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private byte[] gzip(byte[] json) {
+        if (json.length < gzipMinSize) {
+            return null;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static double size(CatalogSnapshot snapshot) {
+        return snapshot == null ? 0 : snapshot.size();
+    }
+
+    private record Addition(ProductResponse product, long addedAt) {}
+}
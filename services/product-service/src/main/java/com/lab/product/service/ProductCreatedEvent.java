@@ -0,0 +1,10 @@
+package com.lab.product.service;
+
+import com.lab.product.model.Product;
+
+/**
+ * Published when a product is saved. Listeners should read it after commit, so they never
+ * see a product whose transaction rolled back.
+ */
+public record ProductCreatedEvent(Product product) {
+}
@@ -0,0 +1,248 @@
+package com.lab.product.service;
+
+import com.lab.product.dto.CategoryFacet;
+import com.lab.product.dto.PriceRangeFacet;
+import com.lab.product.dto.ProductFacetsResponse;
+import com.lab.product.model.Product;
+import com.lab.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product counts per category and per price range for {@code GET /api/products/facets}, kept
+ * in memory so listings don't run a {@code GROUP BY} per page view. A product created on this
+ * instance is counted once its transaction commits.
+ * <p>
+ * Every {@code reconcile-interval} the counts are rebuilt from the database for products
+ * created up to {@code reconcile-margin} ago, plus the local creations after that point. This
+ * picks up products created on other instances and corrects any drift. The margin covers
+ * transactions still in flight and replica lag, so a product is never counted twice.
+ */
+@Component
+public class ProductFacets implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFacets.class);
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final List<BigDecimal> priceBounds;
+    private final Duration reconcileInterval;
+    private final Duration reconcileMargin;
+    private final Counter corrections;
+    private final Object reconcileLock = new Object();
+
+    private volatile ProductFacetsResponse current;
+
+    // Guarded by this
+    private Counts counts;
+    private Instant countedUpTo;
+    private final List<Created> recent = new ArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public ProductFacets(ProductRepository productRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${products.facets.enabled:true}") boolean enabled,
+                         @Value("${products.facets.price-bounds:}") List<BigDecimal> priceBounds,
+                         @Value("${products.facets.reconcile-interval:5m}") Duration reconcileInterval,
+                         @Value("${products.facets.reconcile-margin:10s}") Duration reconcileMargin) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.priceBounds = priceBounds.stream().sorted().toList();
+        this.reconcileInterval = reconcileInterval;
+        this.reconcileMargin = reconcileMargin;
+        this.corrections = Counter.builder("products.facets.corrections")
+                .description("Difference between the in-memory facet counts and the database, summed over each reconcile")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The current counts, reconciling first if none have been built yet. With facets
+     * disabled every call counts in the database.
+     */
+    public ProductFacetsResponse facets() {
+        if (!enabled) {
+            Instant now = Instant.now();
+            return load(now).toResponse(now);
+        }
+        ProductFacetsResponse facets = current;
+        if (facets != null) {
+            return facets;
+        }
+        synchronized (reconcileLock) {
+            return current != null ? current : reconcile();
+        }
+    }
+
+    public ProductFacetsResponse reconcile() {
+        return reconcile(Instant.now());
+    }
+
+    ProductFacetsResponse reconcile(Instant now) {
+        synchronized (reconcileLock) {
+            Instant upTo = now.minus(reconcileMargin);
+            Counts loaded = load(upTo);
+            synchronized (this) {
+                recent.removeIf(created -> !created.createdAt().isAfter(upTo));
+                for (Created created : recent) {
+                    loaded = loaded.plus(created);
+                }
+                if (counts != null) {
+                    corrections.increment(loaded.difference(counts));
+                }
+                counts = loaded;
+                countedUpTo = upTo;
+                current = loaded.toResponse(now);
+                return current;
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductCreated(ProductCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Product product = event.product();
+        Created created = new Created(product.getCategory(), product.getPrice(), product.getCreatedAt());
+        synchronized (this) {
+            // Already counted from the database by the last reconcile
+            if (countedUpTo != null && !created.createdAt().isAfter(countedUpTo)) {
+                return;
+            }
+            recent.add(created);
+            if (counts != null) {
+                counts = counts.plus(created);
+                current = counts.toResponse(current.reconciledAt());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-facets");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException ex) {
+                log.warn("Facet reconcile failed, retrying in {}", reconcileInterval, ex);
+            }
+        }, 0, reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private Counts load(Instant upTo) {
+        Map<String, Long> categories = new TreeMap<>();
+        for (CategoryFacet facet : productRepository.countByCategoryCreatedUpTo(upTo)) {
+            categories.put(facet.category(), facet.products());
+        }
+        long[] ranges = new long[priceBounds.isEmpty() ? 0 : priceBounds.size() + 1];
+        for (int range = 0; range < ranges.length; range++) {
+            BigDecimal from = from(range);
+            BigDecimal to = to(range);
+            ranges[range] = to == null
+                    ? productRepository.countByPriceFromCreatedUpTo(upTo, from)
+                    : productRepository.countByPriceRangeCreatedUpTo(upTo, from, to);
+        }
+        return new Counts(categories, ranges);
+    }
+
+    private int rangeOf(BigDecimal price) {
+        int range = 0;
+        while (range < priceBounds.size() && price.compareTo(priceBounds.get(range)) >= 0) {
+            range++;
+        }
+        return range;
+    }
+
+    private BigDecimal from(int range) {
+        return range == 0 ? BigDecimal.ZERO : priceBounds.get(range - 1);
+    }
+
+    private BigDecimal to(int range) {
+        return range == priceBounds.size() ? null : priceBounds.get(range);
+    }
+
+    private record Created(String category, BigDecimal price, Instant createdAt) {}
+
+    private final class Counts {
+
+        private final Map<String, Long> categories;
+        private final long[] ranges;
+
+        Counts(Map<String, Long> categories, long[] ranges) {
+            this.categories = categories;
+            this.ranges = ranges;
+        }
+
+        Counts plus(Created created) {
+            Map<String, Long> nextCategories = new TreeMap<>(categories);
+            nextCategories.merge(created.category(), 1L, Long::sum);
+            long[] nextRanges = ranges.clone();
+            if (nextRanges.length > 0) {
+                nextRanges[rangeOf(created.price())]++;
+            }
+            return new Counts(nextCategories, nextRanges);
+        }
+
+        long difference(Counts other) {
+            long difference = 0;
+            Set<String> names = new HashSet<>(categories.keySet());
+            names.addAll(other.categories.keySet());
+            for (String name : names) {
+                difference += Math.abs(categories.getOrDefault(name, 0L) - other.categories.getOrDefault(name, 0L));
+            }
+            return difference;
+        }
+
+        ProductFacetsResponse toResponse(Instant reconciledAt) {
+            long total = categories.values().stream().mapToLong(Long::longValue).sum();
+            List<CategoryFacet> categoryFacets = categories.entrySet().stream()
+                    .map(entry -> new CategoryFacet(entry.getKey(), entry.getValue()))
+                    .toList();
+            List<PriceRangeFacet> rangeFacets = new ArrayList<>(ranges.length);
+            for (int range = 0; range < ranges.length; range++) {
+                rangeFacets.add(new PriceRangeFacet(from(range), to(range), ranges[range]));
+            }
+            return new ProductFacetsResponse(total, categoryFacets, List.copyOf(rangeFacets), reconciledAt);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.lab.product.service;
 
 import com.lab.product.dto.CreateProductRequest;
+import com.lab.product.dto.ProductResponse;
 import com.lab.product.exception.DuplicateProductException;
 import com.lab.product.exception.ProductNotFoundException;
 import com.lab.product.model.Product;
 import com.lab.product.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,9 +18,11 @@ import java.util.UUID;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -32,7 +36,9 @@ public class ProductService {
                 request.price(),
                 request.category()
         );
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductCreatedEvent(saved));
+        return saved;
     }
 
     public Product getProduct(UUID id) {
@@ -40,7 +46,7 @@ public class ProductService {
                 .orElseThrow(() -> new ProductNotFoundException(id));
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public List<ProductResponse> getAllProducts() {
+        return productRepository.findAllResponses();
     }
 }
@@ -0,0 +1,70 @@
+package com.lab.product.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lab.product.controller.ProductController;
+import com.lab.product.service.ProductCatalog;
+import com.lab.product.service.ProductFacets;
+import com.lab.product.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.configuration.SpringDocConfiguration;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springdoc.webmvc.core.configuration.SpringDocWebMvcConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Renders the OpenAPI document at build time and writes it to {@code openapi.output}, which the
+ * build points at {@code static/openapi.json} in the jar. The fast-startup profile turns
+ * springdoc off and serves that file instead of scanning the controllers on startup.
+ */
+@WebMvcTest(ProductController.class)
+@Import(OpenApiConfig.class)
+@ImportAutoConfiguration({SpringDocConfiguration.class, SpringDocConfigProperties.class,
+        SpringDocWebMvcConfiguration.class})
+class OpenApiDocumentTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductCatalog productCatalog;
+
+    @MockBean
+    private ProductFacets productFacets;
+
+    @Test
+    void should_WriteOpenApiDocument_When_Built() throws Exception {
+        byte[] body = mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ObjectNode document = (ObjectNode) objectMapper.readTree(body);
+        // The server URL would be MockMvc's; without one, clients resolve paths against the host they fetched from
+        document.remove("servers");
+        assertThat(document.at("/info/title").asText()).isEqualTo("Product Service API");
+        assertThat(document.path("paths").has("/api/products")).isTrue();
+        assertThat(document.path("paths").has("/api/products/facets")).isTrue();
+
+        Path output = Path.of(System.getProperty("openapi.output", "target/openapi/openapi.json"));
+        Files.createDirectories(output.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), document);
+    }
+}
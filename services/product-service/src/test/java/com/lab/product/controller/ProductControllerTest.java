@@ -1,24 +1,36 @@
 package com.lab.product.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.lab.product.dto.CategoryFacet;
 import com.lab.product.dto.CreateProductRequest;
+import com.lab.product.dto.PriceRangeFacet;
+import com.lab.product.dto.ProductFacetsResponse;
 import com.lab.product.exception.GlobalExceptionHandler;
 import com.lab.product.exception.ProductNotFoundException;
+import com.lab.product.dto.ProductResponse;
 import com.lab.product.model.Product;
+import com.lab.product.service.CatalogSnapshot;
+import com.lab.product.service.ProductCatalog;
+import com.lab.product.service.ProductFacets;
 import com.lab.product.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +48,12 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductCatalog productCatalog;
+
+    @MockBean
+    private ProductFacets productFacets;
+
     @Test
     void should_Return201WithLocation_When_ProductCreated() throws Exception {
         var request = new CreateProductRequest("Laptop", "A powerful laptop", new BigDecimal("999.99"), "Electronics");
@@ -86,6 +104,34 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.name").value("Laptop"));
     }
 
+    @Test
+    void should_ReturnCbor_When_ClientPrefersCbor() throws Exception {
+        UUID id = UUID.randomUUID();
+        var product = new Product("Laptop", "A laptop", new BigDecimal("999.99"), "Electronics");
+
+        when(productService.getProduct(id)).thenReturn(product);
+
+        byte[] body = mockMvc.perform(get("/api/products/{id}", id)
+                        .accept(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new CBORMapper().readTree(body).get("name").asText()).isEqualTo("Laptop");
+    }
+
+    @Test
+    void should_ReturnJson_When_ClientAcceptsAnything() throws Exception {
+        UUID id = UUID.randomUUID();
+        var product = new Product("Laptop", "A laptop", new BigDecimal("999.99"), "Electronics");
+
+        when(productService.getProduct(id)).thenReturn(product);
+
+        mockMvc.perform(get("/api/products/{id}", id).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void should_Return404_When_ProductNotFound() throws Exception {
         UUID id = UUID.randomUUID();
@@ -102,12 +148,62 @@ class ProductControllerTest {
         var laptop = new Product("Laptop", "A laptop", new BigDecimal("999.99"), "Electronics");
         var phone = new Product("Phone", "A phone", new BigDecimal("699.99"), "Electronics");
 
-        when(productService.getAllProducts()).thenReturn(List.of(laptop, phone));
+        CatalogSnapshot catalog = catalog(List.of(laptop, phone), null);
+
+        when(productCatalog.snapshot()).thenReturn(catalog);
 
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].name").value("Laptop"))
                 .andExpect(jsonPath("$[1].name").value("Phone"));
     }
+
+    @Test
+    void should_ReturnPrecompressedProducts_When_ClientAcceptsGzip() throws Exception {
+        var laptop = new Product("Laptop", "A laptop", new BigDecimal("999.99"), "Electronics");
+        byte[] gzipped = {0x1f, (byte) 0x8b, 1, 2, 3};
+        CatalogSnapshot catalog = catalog(List.of(laptop), gzipped);
+
+        when(productCatalog.snapshot()).thenReturn(catalog);
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().bytes(gzipped));
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$[0].name").value("Laptop"));
+    }
+
+    @Test
+    void should_ReturnFacetCounts() throws Exception {
+        var facets = new ProductFacetsResponse(3,
+                List.of(new CategoryFacet("Electronics", 2), new CategoryFacet("Furniture", 1)),
+                List.of(new PriceRangeFacet(BigDecimal.ZERO, new BigDecimal("100"), 1),
+                        new PriceRangeFacet(new BigDecimal("100"), null, 2)),
+                Instant.now());
+
+        when(productFacets.facets()).thenReturn(facets);
+
+        mockMvc.perform(get("/api/products/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.categories[0].category").value("Electronics"))
+                .andExpect(jsonPath("$.categories[0].products").value(2))
+                .andExpect(jsonPath("$.priceRanges[1].from").value(100))
+                .andExpect(jsonPath("$.priceRanges[1].products").value(2));
+    }
+
+    private CatalogSnapshot catalog(List<Product> products, byte[] gzipJson) throws Exception {
+        CatalogSnapshot catalog = mock(CatalogSnapshot.class);
+        when(catalog.json()).thenReturn(objectMapper.writeValueAsBytes(
+                products.stream().map(ProductResponse::from).toList()));
+        when(catalog.gzipJson()).thenReturn(gzipJson);
+        return catalog;
+    }
 }
@@ -0,0 +1,81 @@
+package com.lab.product.monitoring;
+
+import com.lab.product.monitoring.QueryRecorder.Fingerprint;
+import com.lab.product.monitoring.QueryRecorder.SlowQuery;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryRecorderTest {
+
+    private static final long SLOW = Duration.ofMillis(200).toNanos();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryRecorder recorder = new QueryRecorder(meterRegistry, Duration.ofMillis(200), 3, 2);
+
+    @AfterEach
+    void clearMethod() {
+        QueryRecorder.exit(null);
+    }
+
+    @Test
+    void should_ShareFingerprint_When_OnlyLiteralsAndInListsDiffer() {
+        Fingerprint first = recorder.fingerprint("select * from products where id in (?, ?) and price > 5");
+        Fingerprint second = recorder.fingerprint("select *\n  from products where id in (?,?,?) and price > 12");
+
+        assertThat(second.id()).isEqualTo(first.id());
+        assertThat(first.sql()).isEqualTo("select * from products where id in (?) and price > ?");
+        assertThat(recorder.fingerprint("select * from products where category = 'Electronics'").sql())
+                .isEqualTo("select * from products where category = ?");
+    }
+
+    @Test
+    void should_UseOtherFingerprint_When_MaxFingerprintsReached() {
+        recorder.fingerprint("select 1 from a");
+        recorder.fingerprint("select 1 from b");
+
+        assertThat(recorder.fingerprint("select 1 from c").id()).isEqualTo(QueryRecorder.OTHER);
+        assertThat(recorder.fingerprint("select 2 from a").id()).isNotEqualTo(QueryRecorder.OTHER);
+    }
+
+    @Test
+    void should_TagTimerWithRepositoryMethod_When_InsideRepositoryCall() {
+        Fingerprint fingerprint = recorder.fingerprint("select * from products where name = ?");
+
+        String previous = QueryRecorder.enter("ProductRepository.existsByName");
+        recorder.executed(fingerprint, TimeUnit.MILLISECONDS.toNanos(3), List.of("uuid")).rows().record(1);
+        QueryRecorder.exit(previous);
+        recorder.executed(fingerprint, TimeUnit.MILLISECONDS.toNanos(4), List.of("uuid"));
+
+        Timer timer = meterRegistry.get("db.query")
+                .tag("repository.method", "ProductRepository.existsByName")
+                .tag("query", fingerprint.id())
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(meterRegistry.get("db.query").tag("repository.method", QueryRecorder.NO_METHOD).timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("db.query.rows").tag("repository.method", "ProductRepository.existsByName")
+                .summary().totalAmount()).isEqualTo(1);
+    }
+
+    @Test
+    void should_KeepNewestSlowQueries_When_RingBufferWraps() {
+        Fingerprint fingerprint = recorder.fingerprint("select * from products where id = ?");
+
+        recorder.executed(fingerprint, SLOW - 1, List.of("uuid"));
+        for (int i = 1; i <= 5; i++) {
+            recorder.executed(fingerprint, SLOW * i, List.of("uuid"));
+        }
+
+        assertThat(recorder.slowQueries()).extracting(SlowQuery::duration).containsExactly(
+                Duration.ofNanos(SLOW * 5), Duration.ofNanos(SLOW * 4), Duration.ofNanos(SLOW * 3));
+        assertThat(recorder.slowQueries().get(0).parameterShapes()).containsExactly("uuid");
+    }
+}
@@ -0,0 +1,57 @@
+package com.lab.product.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean(SimpleMeterRegistry.class)
+            .withUserConfiguration(VirtualThreadPinningMonitor.class);
+
+    @Test
+    void should_NotRegisterMonitor_When_VirtualThreadsDisabled() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+    }
+
+    @Test
+    void should_StartMonitor_When_VirtualThreadsEnabledOnJava21() {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need a Java 21 runtime");
+
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true", "monitoring.virtual-threads.pinned-threshold=5ms")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(VirtualThreadPinningMonitor.class);
+                    assertThat(context.getBean(VirtualThreadPinningMonitor.class).isRunning()).isTrue();
+                });
+    }
+
+    @Test
+    void should_NotRegisterMonitor_When_VirtualThreadsEnabledBeforeJava21() {
+        assumeTrue(Runtime.version().feature() < 21, "only older runtimes ignore the setting");
+
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+    }
+
+    @Test
+    void should_CloseRecording_When_Stopped() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(20));
+
+        monitor.start();
+        assertThat(monitor.isRunning()).isTrue();
+        assertThat(meterRegistry.get("jvm.threads.virtual.pinned").timer().count()).isZero();
+
+        monitor.stop();
+        assertThat(monitor.isRunning()).isFalse();
+    }
+}
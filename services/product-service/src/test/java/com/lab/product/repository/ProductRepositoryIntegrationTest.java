@@ -1,6 +1,8 @@
 package com.lab.product.repository;
 
 import com.lab.product.model.Product;
+import com.lab.product.dto.CategoryFacet;
+import com.lab.product.dto.ProductResponse;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -12,9 +14,11 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @Testcontainers
@@ -70,4 +74,30 @@ class ProductRepositoryIntegrationTest {
         assertThat(productRepository.existsByName("Tablet")).isTrue();
         assertThat(productRepository.existsByName("Nonexistent")).isFalse();
     }
+
+    @Test
+    void should_ReadProductsAsResponses_When_ListingAll() {
+        Product saved = productRepository.save(
+                new Product("Chair", "A chair", new BigDecimal("89.00"), "Furniture"));
+
+        // Timestamps come back at the column's microsecond precision, so compare the rest
+        assertThat(productRepository.findAllResponses())
+                .extracting(ProductResponse::id, ProductResponse::name, ProductResponse::price, ProductResponse::category)
+                .containsExactly(tuple(saved.getId(), "Chair", new BigDecimal("89.00"), "Furniture"));
+    }
+
+    @Test
+    void should_CountProductsPerCategoryAndPriceRange() {
+        productRepository.save(new Product("Desk", "A desk", new BigDecimal("249.00"), "Furniture"));
+        productRepository.save(new Product("Lamp", "A lamp", new BigDecimal("39.99"), "Furniture"));
+        productRepository.save(new Product("Monitor", "A monitor", new BigDecimal("100.00"), "Electronics"));
+        Instant upTo = Instant.now().plusSeconds(1);
+
+        assertThat(productRepository.countByCategoryCreatedUpTo(upTo)).containsExactlyInAnyOrder(
+                new CategoryFacet("Furniture", 2), new CategoryFacet("Electronics", 1));
+        assertThat(productRepository.countByCategoryCreatedUpTo(Instant.now().minusSeconds(3600))).isEmpty();
+        assertThat(productRepository.countByPriceRangeCreatedUpTo(upTo, BigDecimal.ZERO, new BigDecimal("100")))
+                .isEqualTo(1);
+        assertThat(productRepository.countByPriceFromCreatedUpTo(upTo, new BigDecimal("100"))).isEqualTo(2);
+    }
 }
@@ -0,0 +1,139 @@
+package com.lab.product.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lab.product.dto.ProductResponse;
+import com.lab.product.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductCatalogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProductService productService = mock(ProductService.class);
+
+    private final Product laptop = product("Laptop", "Electronics", "999.99");
+    private final Product phone = product("Phone", "Electronics", "699.99");
+    private final Product desk = product("Desk", "Furniture", "249.00");
+
+    @Test
+    void should_RenderListResponse_When_FirstRequested() throws IOException {
+        when(productService.getAllProducts()).thenReturn(responses(laptop, phone));
+        ProductCatalog catalog = catalog(true, DataSize.ofKilobytes(2));
+
+        CatalogSnapshot snapshot = catalog.snapshot();
+
+        assertThat(read(snapshot.json())).extracting(ProductResponse::name).containsExactly("Laptop", "Phone");
+        assertThat(snapshot.products()).containsExactly(ProductResponse.from(laptop), ProductResponse.from(phone));
+        assertThat(snapshot.gzipJson()).isNull();
+        assertThat(catalog.snapshot()).isSameAs(snapshot);
+        verify(productService, times(1)).getAllProducts();
+    }
+
+    @Test
+    void should_AppendOnlyNewProduct_When_CreationCommits() throws IOException {
+        when(productService.getAllProducts()).thenReturn(responses(laptop));
+        ProductCatalog catalog = catalog(true, DataSize.ofKilobytes(2));
+        CatalogSnapshot before = catalog.snapshot();
+
+        catalog.onProductCreated(new ProductCreatedEvent(desk));
+        catalog.onProductCreated(new ProductCreatedEvent(desk));
+
+        CatalogSnapshot after = catalog.snapshot();
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.version()).isEqualTo(before.version() + 1);
+        assertThat(before.size()).isEqualTo(1);
+        assertThat(after.json()).isEqualTo(objectMapper.writeValueAsBytes(
+                List.of(ProductResponse.from(laptop), ProductResponse.from(desk))));
+        assertThat(after.category(1)).isEqualTo("Furniture");
+        verify(productService, times(1)).getAllProducts();
+    }
+
+    @Test
+    void should_KeepLocallyCreatedProduct_When_ReloadDoesNotReturnItYet() {
+        when(productService.getAllProducts()).thenReturn(responses(laptop));
+        ProductCatalog catalog = catalog(true, DataSize.ofKilobytes(2));
+        catalog.snapshot();
+        catalog.onProductCreated(new ProductCreatedEvent(phone));
+
+        CatalogSnapshot reloaded = catalog.reload();
+
+        assertThat(reloaded.products()).extracting(ProductResponse::name).containsExactly("Laptop", "Phone");
+    }
+
+    @Test
+    void should_PickUpProductsFromOtherInstances_When_Reloaded() {
+        when(productService.getAllProducts()).thenReturn(responses(laptop), responses(laptop, phone, desk));
+        ProductCatalog catalog = catalog(true, DataSize.ofKilobytes(2));
+        catalog.snapshot();
+
+        CatalogSnapshot reloaded = catalog.reload();
+
+        assertThat(reloaded.size()).isEqualTo(3);
+        assertThat(meterRegistry.get("products.catalog.size").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void should_PrecompressBody_When_LargerThanCompressionThreshold() throws IOException {
+        when(productService.getAllProducts()).thenReturn(responses(laptop));
+        ProductCatalog catalog = catalog(true, DataSize.ofBytes(0));
+        catalog.snapshot();
+
+        catalog.onProductCreated(new ProductCreatedEvent(phone));
+
+        CatalogSnapshot snapshot = catalog.snapshot();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.gzipJson()))) {
+            assertThat(in.readAllBytes()).isEqualTo(snapshot.json());
+        }
+    }
+
+    @Test
+    void should_ReadDatabaseEveryTime_When_Disabled() {
+        when(productService.getAllProducts()).thenReturn(responses(laptop));
+        ProductCatalog catalog = catalog(false, DataSize.ofKilobytes(2));
+
+        catalog.snapshot();
+        catalog.onProductCreated(new ProductCreatedEvent(phone));
+        CatalogSnapshot snapshot = catalog.snapshot();
+
+        assertThat(snapshot.size()).isEqualTo(1);
+        verify(productService, times(2)).getAllProducts();
+    }
+
+    private ProductCatalog catalog(boolean enabled, DataSize gzipMinSize) {
+        return new ProductCatalog(productService, objectMapper, meterRegistry, enabled, Duration.ofSeconds(30),
+                gzipMinSize);
+    }
+
+    private List<ProductResponse> read(byte[] json) throws IOException {
+        return objectMapper.readValue(json, new TypeReference<>() {});
+    }
+
+    private static List<ProductResponse> responses(Product... products) {
+        return Arrays.stream(products).map(ProductResponse::from).toList();
+    }
+
+    private static Product product(String name, String category, String price) {
+        Product product = new Product(name, "A " + name.toLowerCase(), new BigDecimal(price), category);
+        ReflectionTestUtils.setField(product, "id", UUID.randomUUID());
+        return product;
+    }
+}
@@ -0,0 +1,143 @@
+package com.lab.product.service;
+
+import com.lab.product.dto.CategoryFacet;
+import com.lab.product.dto.PriceRangeFacet;
+import com.lab.product.dto.ProductFacetsResponse;
+import com.lab.product.model.Product;
+import com.lab.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetsTest {
+
+    private static final Duration MARGIN = Duration.ofSeconds(10);
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ProductFacets facets;
+
+    @BeforeEach
+    void setUp() {
+        facets = new ProductFacets(productRepository, meterRegistry, true, List.of(HUNDRED),
+                Duration.ofMinutes(5), MARGIN);
+    }
+
+    @Test
+    void should_CountCategoriesAndPriceRanges_When_Reconciled() {
+        Instant now = Instant.now();
+        stubDatabase(now.minus(MARGIN),
+                List.of(new CategoryFacet("Furniture", 1), new CategoryFacet("Electronics", 2)), 1, 2);
+
+        ProductFacetsResponse response = facets.reconcile(now);
+
+        assertThat(response.total()).isEqualTo(3);
+        assertThat(response.categories()).containsExactly(
+                new CategoryFacet("Electronics", 2), new CategoryFacet("Furniture", 1));
+        assertThat(response.priceRanges()).containsExactly(
+                new PriceRangeFacet(BigDecimal.ZERO, HUNDRED, 1), new PriceRangeFacet(HUNDRED, null, 2));
+        assertThat(response.reconciledAt()).isEqualTo(now);
+    }
+
+    @Test
+    void should_ServeFromMemory_When_ProductCreated() {
+        Instant now = Instant.now();
+        stubDatabase(now.minus(MARGIN), List.of(new CategoryFacet("Electronics", 2)), 0, 2);
+        facets.reconcile(now);
+
+        facets.onProductCreated(new ProductCreatedEvent(product("Garden", "19.99", now.plusSeconds(1))));
+        facets.onProductCreated(new ProductCreatedEvent(product("Electronics", "249.00", now.plusSeconds(2))));
+
+        ProductFacetsResponse response = facets.facets();
+        assertThat(response.total()).isEqualTo(4);
+        assertThat(response.categories()).containsExactly(
+                new CategoryFacet("Electronics", 3), new CategoryFacet("Garden", 1));
+        assertThat(response.priceRanges()).extracting(PriceRangeFacet::products).containsExactly(1L, 3L);
+        verify(productRepository, times(1)).countByCategoryCreatedUpTo(any());
+    }
+
+    @Test
+    void should_NotCountTwice_When_ProductAlreadyCountedByReconcile() {
+        Instant now = Instant.now();
+        stubDatabase(now.minus(MARGIN), List.of(new CategoryFacet("Electronics", 1)), 0, 1);
+        facets.reconcile(now);
+
+        facets.onProductCreated(new ProductCreatedEvent(product("Electronics", "499.00", now.minusSeconds(30))));
+
+        assertThat(facets.facets().total()).isEqualTo(1);
+    }
+
+    @Test
+    void should_KeepRecentLocalCreations_When_ReconcileCountsUpToMargin() {
+        Instant first = Instant.now();
+        stubDatabase(first.minus(MARGIN), List.of(), 0, 0);
+        facets.reconcile(first);
+        facets.onProductCreated(new ProductCreatedEvent(product("Electronics", "499.00", first.plusSeconds(1))));
+
+        // Five seconds later the product is still inside the margin, so the database query leaves it out
+        Instant second = first.plusSeconds(5);
+        stubDatabase(second.minus(MARGIN), List.of(), 0, 0);
+        ProductFacetsResponse response = facets.reconcile(second);
+
+        assertThat(response.categories()).containsExactly(new CategoryFacet("Electronics", 1));
+        assertThat(meterRegistry.get("products.facets.corrections").counter().count()).isZero();
+    }
+
+    @Test
+    void should_RecordCorrection_When_DatabaseDisagrees() {
+        Instant first = Instant.now();
+        stubDatabase(first.minus(MARGIN), List.of(new CategoryFacet("Electronics", 1)), 0, 1);
+        facets.reconcile(first);
+
+        Instant second = first.plusSeconds(60);
+        stubDatabase(second.minus(MARGIN), List.of(new CategoryFacet("Electronics", 4)), 0, 4);
+        ProductFacetsResponse response = facets.reconcile(second);
+
+        assertThat(response.total()).isEqualTo(4);
+        assertThat(meterRegistry.get("products.facets.corrections").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void should_CountInDatabaseEveryTime_When_Disabled() {
+        ProductFacets disabled = new ProductFacets(productRepository, meterRegistry, false, List.of(),
+                Duration.ofMinutes(5), MARGIN);
+        when(productRepository.countByCategoryCreatedUpTo(any())).thenReturn(List.of(new CategoryFacet("Electronics", 2)));
+
+        disabled.facets();
+        ProductFacetsResponse response = disabled.facets();
+
+        assertThat(response.total()).isEqualTo(2);
+        assertThat(response.priceRanges()).isEmpty();
+        verify(productRepository, times(2)).countByCategoryCreatedUpTo(any());
+        verify(productRepository, never()).countByPriceFromCreatedUpTo(any(), any());
+    }
+
+    private void stubDatabase(Instant upTo, List<CategoryFacet> categories, long belowHundred, long fromHundred) {
+        when(productRepository.countByCategoryCreatedUpTo(upTo)).thenReturn(categories);
+        when(productRepository.countByPriceRangeCreatedUpTo(upTo, BigDecimal.ZERO, HUNDRED)).thenReturn(belowHundred);
+        when(productRepository.countByPriceFromCreatedUpTo(upTo, HUNDRED)).thenReturn(fromHundred);
+    }
+
+    private static Product product(String category, String price, Instant createdAt) {
+        Product product = new Product(category + " item", null, new BigDecimal(price), category);
+        ReflectionTestUtils.setField(product, "createdAt", createdAt);
+        return product;
+    }
+}
@@ -1,6 +1,7 @@
 package com.lab.product.service;
 
 import com.lab.product.dto.CreateProductRequest;
+import com.lab.product.dto.ProductResponse;
 import com.lab.product.exception.DuplicateProductException;
 import com.lab.product.exception.ProductNotFoundException;
 import com.lab.product.model.Product;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -28,11 +30,14 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private ProductService productService;
 
     @BeforeEach
     void setUp() {
-        productService = new ProductService(productRepository);
+        productService = new ProductService(productRepository, eventPublisher);
     }
 
     @Test
@@ -51,6 +56,7 @@ class ProductServiceTest {
         ArgumentCaptor<Product> captor = ArgumentCaptor.forClass(Product.class);
         verify(productRepository).save(captor.capture());
         assertThat(captor.getValue().getName()).isEqualTo("Laptop");
+        verify(eventPublisher).publishEvent(new ProductCreatedEvent(result));
     }
 
     @Test
@@ -64,6 +70,7 @@ class ProductServiceTest {
                 .hasMessageContaining("Laptop");
 
         verify(productRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -94,11 +101,12 @@ class ProductServiceTest {
         Product laptop = new Product("Laptop", "A laptop", new BigDecimal("999.99"), "Electronics");
         Product phone = new Product("Phone", "A phone", new BigDecimal("699.99"), "Electronics");
 
-        when(productRepository.findAll()).thenReturn(List.of(laptop, phone));
+        when(productRepository.findAllResponses())
+                .thenReturn(List.of(ProductResponse.from(laptop), ProductResponse.from(phone)));
 
-        List<Product> result = productService.getAllProducts();
+        List<ProductResponse> result = productService.getAllProducts();
 
         assertThat(result).hasSize(2);
-        assertThat(result).extracting(Product::getName).containsExactly("Laptop", "Phone");
+        assertThat(result).extracting(ProductResponse::name).containsExactly("Laptop", "Phone");
     }
 }